@@ -3,8 +3,8 @@ package ch.bitagent.bitcoin.lib.block;
 import ch.bitagent.bitcoin.lib.ecc.Hex;
 import ch.bitagent.bitcoin.lib.ecc.Int;
 import ch.bitagent.bitcoin.lib.helper.Bytes;
-import ch.bitagent.bitcoin.lib.helper.Hash;
 import ch.bitagent.bitcoin.lib.helper.Merkle;
+import ch.bitagent.bitcoin.lib.helper.Sha256;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -112,7 +112,8 @@ public class Block {
         // serialize
         var stream = this.serialize();
         // hash256
-        var h256 = Hash.hash256(stream);
+        var h256 = new byte[32];
+        Sha256.hash256Of80(stream, 0, h256, 0);
         // reverse
         return Bytes.changeOrder(h256);
     }
@@ -178,7 +179,8 @@ public class Block {
      */
     public Int proof() {
         // get the hash256 of the serialization of this block
-        var h256 = Hash.hash256(this.serialize());
+        var h256 = new byte[32];
+        Sha256.hash256Of80(this.serialize(), 0, h256, 0);
         // interpret this hash as a little-endian number
         return Hex.parse(Bytes.changeOrder(h256));
     }
@@ -2,7 +2,6 @@ package ch.bitagent.bitcoin.lib.block;
 
 import ch.bitagent.bitcoin.lib.ecc.Hex;
 import ch.bitagent.bitcoin.lib.ecc.Int;
-import ch.bitagent.bitcoin.lib.helper.Bytes;
 import ch.bitagent.bitcoin.lib.helper.Murmur3;
 import ch.bitagent.bitcoin.lib.helper.Varint;
 import ch.bitagent.bitcoin.lib.network.GenericMessage;
@@ -12,14 +11,22 @@ import java.util.Objects;
 
 /**
  * <p>BloomFilter class.</p>
+ *
+ * <p>The bit field is packed into 64 bit words and the BIP37 seeds and Murmur3 hashes are computed on primitive
+ * ints, so adding or testing an item allocates nothing. The same filter answers {@link #contains(byte[])}, e.g. to
+ * match the items of a transaction against a filter loaded by a peer.</p>
+ *
+ * <a href="https://github.com/bitcoin/bips/blob/master/bip-0037.mediawiki">BIP-0037</a>
  */
 public class BloomFilter {
 
     /** Constant <code>BIP37_CONSTANT</code> */
     public static final Int BIP37_CONSTANT = Hex.parse("fba4c795");
 
+    private static final int SEED_MULTIPLIER = 0xfba4c795;
+
     private final int size;
-    private final byte[] bitField;
+    private final long[] bitField;
     private final int functionCount;
     private final int tweak;
 
@@ -32,7 +39,7 @@ public class BloomFilter {
      */
     public BloomFilter(int size, int functionCount, int tweak) {
         this.size = size;
-        this.bitField = Bytes.initFill(this.size * 8, (byte) 0);
+        this.bitField = new long[(this.size + 7) / 8];
         this.functionCount = functionCount;
         this.tweak = tweak;
     }
@@ -43,17 +50,60 @@ public class BloomFilter {
      * @param item an array of {@link byte} objects
      */
     public void add(byte[] item) {
+        add(item, 0, item.length);
+    }
+
+    /**
+     * Add len bytes of data from off to the filter
+     *
+     * @param data .
+     * @param off  .
+     * @param len  .
+     */
+    public void add(byte[] data, int off, int len) {
         // iterate self.function_count number of times
-        for (int i = 0; i < functionCount; i++) {
-            // BIP0037 spec seed is i*BIP37_CONSTANT + self.tweak
-            var seed = Int.parse(i).mul(BIP37_CONSTANT).add(Int.parse(this.tweak));
-            // get the murmur3 hash given that seed
-            var h = Murmur3.hash32(item, seed);
-            // set the bit at the hash mod the bitfield size (self.size*8)
-            var bit = h.mod(Int.parse(this.size * 8)).intValue();
+        for (int i = 0; i < this.functionCount; i++) {
+            var bit = bit(data, off, len, i);
             // set the bit field at bit to be 1
-            this.bitField[bit] = 1;
+            this.bitField[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    /**
+     * <p>Whether the item may have been added, false positives are possible but false negatives are not.</p>
+     *
+     * @param item .
+     * @return .
+     */
+    public boolean contains(byte[] item) {
+        return contains(item, 0, item.length);
+    }
+
+    /**
+     * <p>Whether len bytes of data from off may have been added.</p>
+     *
+     * @param data .
+     * @param off  .
+     * @param len  .
+     * @return .
+     */
+    public boolean contains(byte[] data, int off, int len) {
+        for (int i = 0; i < this.functionCount; i++) {
+            var bit = bit(data, off, len, i);
+            if ((this.bitField[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
         }
+        return true;
+    }
+
+    private int bit(byte[] data, int off, int len, int i) {
+        // BIP0037 spec seed is i*BIP37_CONSTANT + self.tweak, modulo 2^32
+        var seed = i * SEED_MULTIPLIER + this.tweak;
+        // get the murmur3 hash given that seed
+        var h = Murmur3.hash32(data, off, len, seed);
+        // the bit at the unsigned hash mod the bitfield size (self.size*8)
+        return Integer.remainderUnsigned(h, this.size * 8);
     }
 
     /**
@@ -62,7 +112,11 @@ public class BloomFilter {
      * @return an array of {@link byte} objects
      */
     public byte[] filterBytes() {
-        return Bytes.bitFieldToBytes(this.bitField);
+        var result = new byte[this.size];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (byte) (this.bitField[i >>> 3] >>> ((i & 7) << 3));
+        }
+        return result;
     }
 
     /**
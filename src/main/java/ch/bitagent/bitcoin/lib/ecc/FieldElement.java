@@ -10,7 +10,7 @@ public class FieldElement implements PointOperators {
 
     private static final Logger log = Logger.getLogger(FieldElement.class.getSimpleName());
 
-    final Int num;
+    private final Int num;
     final Int prime;
 
     /**
@@ -29,6 +29,16 @@ public class FieldElement implements PointOperators {
         this.prime = prime;
     }
 
+    /**
+     * <p>Constructor for a subclass which provides num through {@link #getNum()}.</p>
+     *
+     * @param prime a {@link ch.bitagent.bitcoin.lib.ecc.Int} object
+     */
+    FieldElement(Int prime) {
+        this.num = null;
+        this.prime = prime;
+    }
+
     /**
      * <p>Constructor for FieldElement.</p>
      *
@@ -46,7 +56,7 @@ public class FieldElement implements PointOperators {
         if (other == null) {
             return false;
         }
-        return this.num.eq(other.num) && this.prime.eq(other.prime);
+        return this.getNum().eq(other.getNum()) && this.prime.eq(other.prime);
     }
 
     /** {@inheritDoc} */
@@ -64,7 +74,7 @@ public class FieldElement implements PointOperators {
             log.severe(error);
             throw new IllegalArgumentException(error);
         }
-        Int add = this.num.add(other.num).mod(this.prime);
+        Int add = this.getNum().add(other.getNum()).mod(this.prime);
         return new FieldElement(add, this.prime);
     }
 
@@ -77,7 +87,7 @@ public class FieldElement implements PointOperators {
             log.severe(error);
             throw new IllegalArgumentException(error);
         }
-        Int sub = this.num.sub(other.num).mod(this.prime);
+        Int sub = this.getNum().sub(other.getNum()).mod(this.prime);
         return new FieldElement(sub, this.prime);
     }
 
@@ -90,7 +100,7 @@ public class FieldElement implements PointOperators {
             log.severe(error);
             throw new IllegalArgumentException(error);
         }
-        Int mul = this.num.mul(other.num).mod(this.prime);
+        Int mul = this.getNum().mul(other.getNum()).mod(this.prime);
         return new FieldElement(mul, this.prime);
     }
 
@@ -107,7 +117,7 @@ public class FieldElement implements PointOperators {
     /** {@inheritDoc} */
     @Override
     public FieldElement pow(Int exponent) {
-        Int pow = this.num.powMod(exponent, this.prime);
+        Int pow = this.getNum().powMod(exponent, this.prime);
         return new FieldElement(pow, this.prime);
     }
 
@@ -120,7 +130,13 @@ public class FieldElement implements PointOperators {
             log.severe(error);
             throw new IllegalArgumentException(error);
         }
-        Int div = this.num.mul(other.num.powMod(this.prime.sub(Int.parse(2)), this.prime)).mod(this.prime);
+        Int inv;
+        if (this.prime.eq(S256Field.P)) {
+            inv = S256Inverse.modP(other.getNum());
+        } else {
+            inv = other.getNum().powMod(this.prime.sub(Int.parse(2)), this.prime);
+        }
+        Int div = this.getNum().mul(inv).mod(this.prime);
         return new FieldElement(div, this.prime);
     }
 
@@ -139,7 +155,7 @@ public class FieldElement implements PointOperators {
     /** {@inheritDoc} */
     @Override
     public String toString() {
-        return String.format("FieldElement_%s(%s)", num, prime);
+        return String.format("FieldElement_%s(%s)", getNum(), prime);
     }
 
     /**
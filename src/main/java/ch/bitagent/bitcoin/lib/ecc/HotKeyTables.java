@@ -0,0 +1,176 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Precomputed multiplication tables for public keys which are verified against over and over
+ *
+ * <p>A registered key gets a fixed window table like the generator, so u * G + v * P in a signature verification
+ * becomes two fixed base multiplications without any doubling. {@link S256Point#mul(Int)} and
+ * {@link S256Point#mulAdd(Int, S256Point, Int)} use the tables of the default registry automatically, which covers
+ * ECDSA verification in {@link S256Point#verify(Int, Signature)} and OP_CHECKMULTISIG as well as Schnorr
+ * verification.</p>
+ *
+ * <p>A table of window width w holds ceil(256 / w) * (2^w - 1) points, about 240 KB for w = 4. The registry holds
+ * at most capacity tables and evicts the least recently used one. It is synchronized and may be shared between
+ * threads.</p>
+ */
+public final class HotKeyTables {
+
+    private static final Logger log = Logger.getLogger(HotKeyTables.class.getSimpleName());
+
+    /** Constant <code>DEFAULT_CAPACITY</code>, the number of tables of the default registry */
+    public static final int DEFAULT_CAPACITY = 16;
+    /** Constant <code>DEFAULT_WINDOW</code>, the window width of the tables of the default registry */
+    public static final int DEFAULT_WINDOW = 4;
+
+    private static volatile HotKeyTables defaultTables = new HotKeyTables(DEFAULT_CAPACITY, DEFAULT_WINDOW);
+
+    private final int window;
+    private final Map<ByteBuffer, S256PointTable> tables;
+    // read without the lock, so an empty registry costs nothing
+    private volatile int size;
+
+    /**
+     * <p>Constructor for HotKeyTables.</p>
+     *
+     * @param capacity the maximum number of tables
+     * @param window   the window width of the tables in bits, 1 to 8
+     */
+    public HotKeyTables(int capacity, int window) {
+        if (capacity < 1) {
+            String error = String.format("Capacity %s is smaller than 1", capacity);
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        if (window < S256PointTable.MIN_WINDOW || window > S256PointTable.MAX_WINDOW) {
+            String error = String.format("Window %s is not between %s and %s", window, S256PointTable.MIN_WINDOW, S256PointTable.MAX_WINDOW);
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        this.window = window;
+        this.tables = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ByteBuffer, S256PointTable> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * <p>The registry used by the point multiplication, null if disabled.</p>
+     *
+     * @return .
+     */
+    public static HotKeyTables getDefault() {
+        return defaultTables;
+    }
+
+    /**
+     * <p>Replace the registry used by the point multiplication, null disables it.</p>
+     *
+     * @param tables .
+     */
+    public static void setDefault(HotKeyTables tables) {
+        defaultTables = tables;
+    }
+
+    /**
+     * <p>Build and keep the table of a public key.</p>
+     *
+     * @param point not the point at infinity
+     */
+    public void register(S256Point point) {
+        if (point.isInfinity()) {
+            String error = "The point at infinity has no table";
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        var key = key(point);
+        synchronized (this.tables) {
+            if (this.tables.containsKey(key)) {
+                return;
+            }
+        }
+        // built outside the lock, a concurrent registration of the same key builds it twice
+        var table = new S256PointTable(point, this.window);
+        synchronized (this.tables) {
+            this.tables.put(key, table);
+            this.size = this.tables.size();
+        }
+    }
+
+    /**
+     * <p>Drop the table of a public key.</p>
+     *
+     * @param point .
+     * @return true if it was registered
+     */
+    public boolean unregister(S256Point point) {
+        if (point.isInfinity()) {
+            return false;
+        }
+        synchronized (this.tables) {
+            var removed = this.tables.remove(key(point)) != null;
+            this.size = this.tables.size();
+            return removed;
+        }
+    }
+
+    /**
+     * <p>Is the table of a public key kept.</p>
+     *
+     * @param point .
+     * @return .
+     */
+    public boolean isRegistered(S256Point point) {
+        if (point.isInfinity()) {
+            return false;
+        }
+        synchronized (this.tables) {
+            return this.tables.containsKey(key(point));
+        }
+    }
+
+    /**
+     * <p>The number of tables.</p>
+     *
+     * @return .
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * <p>Drop all tables.</p>
+     */
+    public void clear() {
+        synchronized (this.tables) {
+            this.tables.clear();
+            this.size = 0;
+        }
+    }
+
+    /**
+     * <p>The table of a public key, null if it is not registered.</p>
+     *
+     * @param point not the point at infinity
+     * @return .
+     */
+    S256PointTable get(S256Point point) {
+        if (this.size == 0) {
+            return null;
+        }
+        var key = key(point);
+        synchronized (this.tables) {
+            return this.tables.get(key);
+        }
+    }
+
+    private static ByteBuffer key(S256Point point) {
+        return ByteBuffer.wrap(point.sec(true));
+    }
+}
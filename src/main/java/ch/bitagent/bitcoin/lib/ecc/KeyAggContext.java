@@ -0,0 +1,145 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * The aggregate public key of a MuSig2 key aggregation, with its tweaks
+ *
+ * <p>The context is immutable, a tweak returns a new context. The key aggregation coefficients of the public keys
+ * are computed once by {@link MuSig2#keyAgg(List)} and shared by all tweaked contexts.</p>
+ *
+ * <a href="https://github.com/bitcoin/bips/blob/master/bip-0327.mediawiki#key-aggregation">BIP-0327 Key Aggregation</a>
+ */
+public final class KeyAggContext {
+
+    private static final Logger log = Logger.getLogger(KeyAggContext.class.getSimpleName());
+
+    private final List<byte[]> pubkeys;
+    private final Map<ByteBuffer, Int> coefficients;
+    private final S256Point q;
+    private final Int gacc;
+    private final Int tacc;
+
+    /**
+     * <p>Constructor for KeyAggContext.</p>
+     *
+     * @param pubkeys      the plain public keys in aggregation order
+     * @param coefficients the coefficient of every public key
+     * @param q            the aggregate point
+     * @param gacc         the accumulated sign
+     * @param tacc         the accumulated tweak
+     */
+    KeyAggContext(List<byte[]> pubkeys, Map<ByteBuffer, Int> coefficients, S256Point q, Int gacc, Int tacc) {
+        this.pubkeys = pubkeys;
+        this.coefficients = coefficients;
+        this.q = q;
+        this.gacc = gacc;
+        this.tacc = tacc;
+    }
+
+    /**
+     * <p>Add a tweak to the aggregate key, an x-only tweak as for Taproot or a plain tweak as for BIP32.</p>
+     *
+     * @param tweak  32 bytes, smaller than N
+     * @param xonly  .
+     * @return the tweaked context
+     */
+    public KeyAggContext applyTweak(byte[] tweak, boolean xonly) {
+        if (tweak.length != 32) {
+            String error = "The tweak must be a 32-byte array.";
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        var t = Hex.parse(tweak);
+        if (t.ge(S256Point.N)) {
+            String error = "The tweak must be less than n.";
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        var g = xonly && !this.q.hasEvenY() ? S256Point.N.sub(Int.parse(1)) : Int.parse(1);
+        // Q' = g * Q + t * G
+        var tweaked = S256Point.mulAdd(t, this.q, g);
+        if (tweaked.isInfinity()) {
+            String error = "The result of tweaking cannot be infinity.";
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        var gaccTweaked = g.mul(this.gacc).mod(S256Point.N);
+        var taccTweaked = t.add(g.mul(this.tacc)).mod(S256Point.N);
+        return new KeyAggContext(this.pubkeys, this.coefficients, tweaked, gaccTweaked, taccTweaked);
+    }
+
+    /**
+     * <p>Is the public key one of the aggregated keys.</p>
+     *
+     * @param pubkey a plain public key
+     * @return .
+     */
+    public boolean contains(byte[] pubkey) {
+        return this.coefficients.containsKey(ByteBuffer.wrap(pubkey));
+    }
+
+    /**
+     * <p>The key aggregation coefficient of a public key.</p>
+     *
+     * @param pubkey a plain public key of the aggregation
+     * @return .
+     */
+    public Int coefficient(byte[] pubkey) {
+        var a = this.coefficients.get(ByteBuffer.wrap(pubkey));
+        if (a == null) {
+            String error = "The signer's pubkey must be included in the list of pubkeys.";
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        return a;
+    }
+
+    /**
+     * <p>The x-only aggregate public key, e.g. for Schnorr verification or a Taproot output.</p>
+     *
+     * @return .
+     */
+    public byte[] getXonlyPubkey() {
+        return Schnorr.getNumBytes(this.q.getX());
+    }
+
+    /**
+     * <p>The plain (compressed) aggregate public key.</p>
+     *
+     * @return .
+     */
+    public byte[] getPlainPubkey() {
+        return this.q.sec(true);
+    }
+
+    /**
+     * <p>The plain public keys in aggregation order.</p>
+     *
+     * @return .
+     */
+    public List<byte[]> getPubkeys() {
+        var copy = new ArrayList<byte[]>(this.pubkeys.size());
+        for (var pubkey : this.pubkeys) {
+            copy.add(pubkey.clone());
+        }
+        return Collections.unmodifiableList(copy);
+    }
+
+    S256Point getQ() {
+        return this.q;
+    }
+
+    Int getGacc() {
+        return this.gacc;
+    }
+
+    Int getTacc() {
+        return this.tacc;
+    }
+}
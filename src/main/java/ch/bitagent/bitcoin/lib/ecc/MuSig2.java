@@ -0,0 +1,230 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import ch.bitagent.bitcoin.lib.helper.Bytes;
+import ch.bitagent.bitcoin.lib.helper.Hash;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * <p>MuSig2 multi-signatures for BIP340 Schnorr signatures</p>
+ *
+ * <p>n signers aggregate their public keys into one x-only key. They exchange public nonces, aggregate them, and every
+ * signer creates a partial signature in a {@link MuSig2Session}. The partial signatures add up to an ordinary
+ * BIP340 signature for the aggregate key. The aggregate key is computed with one multi scalar multiplication over
+ * all public keys.</p>
+ *
+ * <a href="https://github.com/bitcoin/bips/blob/master/bip-0327.mediawiki">BIP-0327</a>
+ */
+public final class MuSig2 {
+
+    private static final Logger log = Logger.getLogger(MuSig2.class.getSimpleName());
+
+    static final int PUBKEY_LENGTH = 33;
+    static final int PUBNONCE_LENGTH = 66;
+    static final int SECNONCE_LENGTH = 97;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private MuSig2() {
+    }
+
+    /**
+     * <p>Sort the plain public keys lexicographically.</p>
+     *
+     * @param pubkeys .
+     * @return a new sorted list
+     */
+    public static List<byte[]> keySort(List<byte[]> pubkeys) {
+        var sorted = new ArrayList<>(pubkeys);
+        sorted.sort(Arrays::compareUnsigned);
+        return sorted;
+    }
+
+    /**
+     * <p>Aggregate the plain public keys in the given order.</p>
+     *
+     * @param pubkeys 33 byte compressed public keys
+     * @return .
+     */
+    public static KeyAggContext keyAgg(List<byte[]> pubkeys) {
+        int u = pubkeys.size();
+        if (u == 0) {
+            String error = "The list of pubkeys must not be empty.";
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        var keys = new ArrayList<byte[]>(u);
+        var points = new S256Point[u];
+        for (int i = 0; i < u; i++) {
+            keys.add(pubkeys.get(i).clone());
+            points[i] = cpoint(pubkeys.get(i), i, "pubkey");
+        }
+        var listHash = Hash.taggedHash("KeyAgg list", keys.toArray(new byte[0][]));
+        var pk2 = secondKey(keys);
+        var coefficients = new HashMap<ByteBuffer, Int>();
+        var scalars = new BigInteger[u];
+        for (int i = 0; i < u; i++) {
+            var pk = keys.get(i);
+            var a = coefficients.computeIfAbsent(ByteBuffer.wrap(pk), k -> coefficient(listHash, pk, pk2));
+            scalars[i] = a.bigInt();
+        }
+        // Q = a_1 * P_1 + .. + a_u * P_u
+        var q = new S256Point(S256MultiScalar.mul(points, scalars));
+        if (q.isInfinity()) {
+            String error = "The aggregate public key is infinity.";
+            log.severe(error);
+            throw new IllegalStateException(error);
+        }
+        return new KeyAggContext(keys, coefficients, q, Int.parse(1), Int.parse(0));
+    }
+
+    /**
+     * <p>Generate the secret and public nonce of a signer, with fresh randomness.</p>
+     *
+     * <p>The secret nonce must be used for a single signature only, {@link MuSig2Session#sign(byte[], byte[])}
+     * overwrites it.</p>
+     *
+     * @param sk      the secret key or null
+     * @param pk      the plain public key of the signer
+     * @param aggpk   the x-only aggregate public key or null
+     * @param msg     the message or null
+     * @param extraIn additional data or null
+     * @return {secnonce, pubnonce}
+     */
+    public static byte[][] nonceGen(byte[] sk, byte[] pk, byte[] aggpk, byte[] msg, byte[] extraIn) {
+        var rand = new byte[32];
+        RANDOM.nextBytes(rand);
+        return nonceGen(rand, sk, pk, aggpk, msg, extraIn);
+    }
+
+    /**
+     * <p>Generate the secret and public nonce of a signer from the given randomness.</p>
+     *
+     * @param rand    32 random bytes
+     * @param sk      the secret key or null
+     * @param pk      the plain public key of the signer
+     * @param aggpk   the x-only aggregate public key or null
+     * @param msg     the message or null
+     * @param extraIn additional data or null
+     * @return {secnonce, pubnonce}
+     */
+    static byte[][] nonceGen(byte[] rand, byte[] sk, byte[] pk, byte[] aggpk, byte[] msg, byte[] extraIn) {
+        if (sk != null && sk.length != 32) {
+            String error = "The optional byte array sk must have length 32.";
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        if (pk.length != PUBKEY_LENGTH) {
+            String error = String.format("The public key must be a %s-byte array.", PUBKEY_LENGTH);
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        if (aggpk != null && aggpk.length != 32) {
+            String error = "The optional byte array aggpk must have length 32.";
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        var seed = sk == null ? rand : Bytes.xor(sk, Hash.taggedHash("MuSig/aux", rand));
+        var buf = new ByteArrayOutputStream();
+        buf.writeBytes(seed);
+        buf.write(pk.length);
+        buf.writeBytes(pk);
+        var aggpkBytes = aggpk == null ? new byte[0] : aggpk;
+        buf.write(aggpkBytes.length);
+        buf.writeBytes(aggpkBytes);
+        if (msg == null) {
+            buf.write(0);
+        } else {
+            buf.write(1);
+            buf.writeBytes(ByteBuffer.allocate(8).putLong(msg.length).array());
+            buf.writeBytes(msg);
+        }
+        var extra = extraIn == null ? new byte[0] : extraIn;
+        buf.writeBytes(ByteBuffer.allocate(4).putInt(extra.length).array());
+        buf.writeBytes(extra);
+        var prefix = buf.toByteArray();
+        var secnonce = new byte[SECNONCE_LENGTH];
+        var pubnonce = new byte[PUBNONCE_LENGTH];
+        for (int i = 0; i < 2; i++) {
+            var hash = Hash.taggedHash("MuSig/nonce", Bytes.add(prefix, new byte[]{(byte) i}));
+            var k = Hex.parse(hash).mod(S256Point.N);
+            if (k.eq(Int.parse(0))) {
+                throw new IllegalStateException("Failure. This happens only with negligible probability.");
+            }
+            System.arraycopy(k.toBytes(32), 0, secnonce, 32 * i, 32);
+            System.arraycopy(S256Point.getG().mul(k).sec(true), 0, pubnonce, PUBKEY_LENGTH * i, PUBKEY_LENGTH);
+        }
+        System.arraycopy(pk, 0, secnonce, 64, PUBKEY_LENGTH);
+        return new byte[][]{secnonce, pubnonce};
+    }
+
+    /**
+     * <p>Aggregate the public nonces of all signers.</p>
+     *
+     * @param pubnonces 66 byte public nonces
+     * @return the 66 byte aggregate nonce
+     */
+    public static byte[] nonceAgg(List<byte[]> pubnonces) {
+        var aggnonce = new byte[PUBNONCE_LENGTH];
+        for (int j = 0; j < 2; j++) {
+            var sum = S256Jacobian.infinity();
+            for (int i = 0; i < pubnonces.size(); i++) {
+                var pubnonce = pubnonces.get(i);
+                if (pubnonce.length != PUBNONCE_LENGTH) {
+                    throw invalidContribution(i, "pubnonce");
+                }
+                sum.add(cpoint(Arrays.copyOfRange(pubnonce, PUBKEY_LENGTH * j, PUBKEY_LENGTH * (j + 1)), i, "pubnonce").jacobian());
+            }
+            // the point at infinity is encoded as 33 zero bytes
+            if (!sum.infinity) {
+                System.arraycopy(new S256Point(sum).sec(true), 0, aggnonce, PUBKEY_LENGTH * j, PUBKEY_LENGTH);
+            }
+        }
+        return aggnonce;
+    }
+
+    /**
+     * <p>A compressed point, or an invalid contribution of signer i.</p>
+     */
+    static S256Point cpoint(byte[] bytes, int i, String contribution) {
+        if (bytes.length != PUBKEY_LENGTH || (bytes[0] != 2 && bytes[0] != 3)) {
+            throw invalidContribution(i, contribution);
+        }
+        try {
+            return S256Point.parse(bytes);
+        } catch (IllegalArgumentException e) {
+            throw invalidContribution(i, contribution);
+        }
+    }
+
+    static IllegalArgumentException invalidContribution(int i, String contribution) {
+        String error = String.format("Invalid %s of signer %s", contribution, i);
+        log.severe(error);
+        return new IllegalArgumentException(error);
+    }
+
+    private static byte[] secondKey(List<byte[]> pubkeys) {
+        for (int j = 1; j < pubkeys.size(); j++) {
+            if (!Arrays.equals(pubkeys.get(j), pubkeys.get(0))) {
+                return pubkeys.get(j);
+            }
+        }
+        return new byte[PUBKEY_LENGTH];
+    }
+
+    private static Int coefficient(byte[] listHash, byte[] pk, byte[] pk2) {
+        // the second distinct key gets 1, which saves a multiplication
+        if (Arrays.equals(pk, pk2)) {
+            return Int.parse(1);
+        }
+        return Hex.parse(Hash.taggedHash("KeyAgg coefficient", listHash, pk)).mod(S256Point.N);
+    }
+}
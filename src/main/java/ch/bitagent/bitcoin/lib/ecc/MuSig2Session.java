@@ -0,0 +1,198 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import ch.bitagent.bitcoin.lib.helper.Bytes;
+import ch.bitagent.bitcoin.lib.helper.Hash;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * A MuSig2 signing session for one message, aggregate key and aggregate nonce
+ *
+ * <p>The session values b, R and e are computed once in the constructor and shared by signing, the verification of
+ * the partial signatures and their aggregation.</p>
+ *
+ * <a href="https://github.com/bitcoin/bips/blob/master/bip-0327.mediawiki#signing">BIP-0327 Signing</a>
+ */
+public final class MuSig2Session {
+
+    private static final Logger log = Logger.getLogger(MuSig2Session.class.getSimpleName());
+
+    private final KeyAggContext keyAggContext;
+    private final byte[] msg;
+    private final Int b;
+    private final S256Point r;
+    private final Int e;
+
+    /**
+     * <p>Constructor for MuSig2Session.</p>
+     *
+     * @param keyAggContext the aggregate key with its tweaks
+     * @param aggnonce      the aggregate nonce of all signers
+     * @param msg           the message
+     */
+    public MuSig2Session(KeyAggContext keyAggContext, byte[] aggnonce, byte[] msg) {
+        if (aggnonce.length != MuSig2.PUBNONCE_LENGTH) {
+            String error = "Invalid aggnonce";
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        this.keyAggContext = keyAggContext;
+        this.msg = msg.clone();
+        var qx = keyAggContext.getXonlyPubkey();
+        this.b = Hex.parse(Hash.taggedHash("MuSig/noncecoef", aggnonce, qx, msg)).mod(S256Point.N);
+        var r1 = cpointExt(Arrays.copyOfRange(aggnonce, 0, MuSig2.PUBKEY_LENGTH));
+        var r2 = cpointExt(Arrays.copyOfRange(aggnonce, MuSig2.PUBKEY_LENGTH, MuSig2.PUBNONCE_LENGTH));
+        // R = R_1 + b * R_2, or G if infinity
+        var sum = new S256Point(S256MultiScalar.mul(new S256Point[]{r1, r2}, new BigInteger[]{BigInteger.ONE, this.b.bigInt()}));
+        this.r = sum.isInfinity() ? S256Point.getG() : sum;
+        var rx = Schnorr.getNumBytes(this.r.getX());
+        this.e = Hex.parse(Hash.taggedHash("BIP0340/challenge", rx, qx, msg)).mod(S256Point.N);
+    }
+
+    /**
+     * <p>The partial signature of a signer.</p>
+     *
+     * <p>The secret nonce is overwritten with zeros, so it can not sign a second message.</p>
+     *
+     * @param secnonce the 97 byte secret nonce of the signer
+     * @param sk       the secret key of the signer
+     * @return the 32 byte partial signature
+     */
+    public byte[] sign(byte[] secnonce, byte[] sk) {
+        if (secnonce.length != MuSig2.SECNONCE_LENGTH) {
+            String error = "Invalid secnonce";
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        var k1Secret = Hex.parse(Arrays.copyOfRange(secnonce, 0, 32));
+        var k2Secret = Hex.parse(Arrays.copyOfRange(secnonce, 32, 64));
+        Arrays.fill(secnonce, 0, 64, (byte) 0x00);
+        if (!isScalar(k1Secret) || !isScalar(k2Secret)) {
+            String error = "The secnonce values are out of range, it may have been used before.";
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        var d0 = Hex.parse(sk);
+        if (!isScalar(d0)) {
+            String error = "The secret key value is out of range.";
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        var pk = S256Point.getG().mul(d0).sec(true);
+        if (!Arrays.equals(pk, Arrays.copyOfRange(secnonce, 64, MuSig2.SECNONCE_LENGTH))) {
+            String error = "The public key does not match the nonce.";
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        var n = S256Point.N;
+        var k1 = this.r.hasEvenY() ? k1Secret : n.sub(k1Secret);
+        var k2 = this.r.hasEvenY() ? k2Secret : n.sub(k2Secret);
+        var a = this.keyAggContext.coefficient(pk);
+        var d = this.g().mul(this.keyAggContext.getGacc()).mul(d0).mod(n);
+        // s = k_1 + b * k_2 + e * a * d
+        var s = k1.add(this.b.mul(k2)).add(this.e.mul(a).mul(d)).mod(n);
+        return s.toBytes(32);
+    }
+
+    /**
+     * <p>Verify the partial signature of a signer.</p>
+     *
+     * <p>s * G = Re + (e * a * g * gacc) * P is checked as one multi scalar multiplication
+     * s * G - (e * a * g * gacc) * P - Re = 0.</p>
+     *
+     * @param psig     the 32 byte partial signature
+     * @param pubnonce the 66 byte public nonce of the signer
+     * @param pk       the plain public key of the signer
+     * @return .
+     */
+    public boolean partialSigVerify(byte[] psig, byte[] pubnonce, byte[] pk) {
+        if (psig.length != 32 || pubnonce.length != MuSig2.PUBNONCE_LENGTH || !this.keyAggContext.contains(pk)) {
+            return false;
+        }
+        var s = Hex.parse(psig);
+        var n = S256Point.N;
+        if (s.ge(n)) {
+            return false;
+        }
+        S256Point r1;
+        S256Point r2;
+        S256Point p;
+        try {
+            r1 = MuSig2.cpoint(Arrays.copyOfRange(pubnonce, 0, MuSig2.PUBKEY_LENGTH), 0, "pubnonce");
+            r2 = MuSig2.cpoint(Arrays.copyOfRange(pubnonce, MuSig2.PUBKEY_LENGTH, MuSig2.PUBNONCE_LENGTH), 0, "pubnonce");
+            p = MuSig2.cpoint(pk, 0, "pubkey");
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        var a = this.keyAggContext.coefficient(pk);
+        var gPrime = this.g().mul(this.keyAggContext.getGacc()).mod(n);
+        var eag = this.e.mul(a).mul(gPrime).mod(n);
+        // Re = +/- (R_1 + b * R_2), subtracted
+        var sign = this.r.hasEvenY() ? n.sub(Int.parse(1)) : Int.parse(1);
+        var points = new S256Point[]{S256Point.getG(), p, r1, r2};
+        var scalars = new BigInteger[]{
+                s.bigInt(),
+                n.sub(eag).mod(n).bigInt(),
+                sign.bigInt(),
+                sign.mul(this.b).mod(n).bigInt()
+        };
+        return S256MultiScalar.mul(points, scalars).infinity;
+    }
+
+    /**
+     * <p>Aggregate the partial signatures of all signers into a BIP340 signature for the aggregate key.</p>
+     *
+     * @param psigs the 32 byte partial signatures
+     * @return the 64 byte signature
+     */
+    public byte[] partialSigAgg(List<byte[]> psigs) {
+        var n = S256Point.N;
+        var s = Int.parse(0);
+        for (int i = 0; i < psigs.size(); i++) {
+            var psig = psigs.get(i);
+            if (psig.length != 32) {
+                throw MuSig2.invalidContribution(i, "psig");
+            }
+            var si = Hex.parse(psig);
+            if (si.ge(n)) {
+                throw MuSig2.invalidContribution(i, "psig");
+            }
+            s = s.add(si).mod(n);
+        }
+        s = s.add(this.e.mul(this.g()).mul(this.keyAggContext.getTacc())).mod(n);
+        return Bytes.add(Schnorr.getNumBytes(this.r.getX()), s.toBytes(32));
+    }
+
+    /**
+     * <p>The message of this session.</p>
+     *
+     * @return .
+     */
+    public byte[] getMsg() {
+        return this.msg.clone();
+    }
+
+    private Int g() {
+        return this.keyAggContext.getQ().hasEvenY() ? Int.parse(1) : S256Point.N.sub(Int.parse(1));
+    }
+
+    private static boolean isScalar(Int k) {
+        return k.gt(Int.parse(0)) && k.lt(S256Point.N);
+    }
+
+    private static S256Point cpointExt(byte[] bytes) {
+        if (Arrays.equals(bytes, new byte[MuSig2.PUBKEY_LENGTH])) {
+            return new S256Point(null, null);
+        }
+        try {
+            return MuSig2.cpoint(bytes, 0, "aggnonce");
+        } catch (IllegalArgumentException e) {
+            String error = "Invalid aggnonce";
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+    }
+}
@@ -40,6 +40,19 @@ public class Point {
         }
     }
 
+    /**
+     * <p>Constructor for a subclass which keeps its own coordinates and overrides the getters.</p>
+     *
+     * @param a a {@link ch.bitagent.bitcoin.lib.ecc.PointOperators} object
+     * @param b a {@link ch.bitagent.bitcoin.lib.ecc.PointOperators} object
+     */
+    protected Point(PointOperators a, PointOperators b) {
+        this.x = null;
+        this.y = null;
+        this.a = a;
+        this.b = b;
+    }
+
     /**
      * <p>Constructor for Point.</p>
      *
@@ -66,14 +79,18 @@ public class Point {
         if (other == null) {
             return false;
         }
-        if (this.x == null && this.y == null) {
-            return other.x == null && other.y == null && this.a.eq(other.a) && this.b.eq(other.b);
-        } else if (other.x == null && other.y == null) {
+        var thisX = this.getX();
+        var thisY = this.getY();
+        var otherX = other.getX();
+        var otherY = other.getY();
+        if (thisX == null && thisY == null) {
+            return otherX == null && otherY == null && this.a.eq(other.a) && this.b.eq(other.b);
+        } else if (otherX == null && otherY == null) {
             return false;
-        } else if (this.x == null) {
+        } else if (thisX == null) {
             throw new IllegalStateException();
         } else {
-            return this.x.eq(other.x) && this.y.eq(other.y) && this.a.eq(other.a) && this.b.eq(other.b);
+            return thisX.eq(otherX) && thisY.eq(otherY) && this.a.eq(other.a) && this.b.eq(other.b);
         }
     }
 
@@ -2,9 +2,7 @@ package ch.bitagent.bitcoin.lib.ecc;
 
 import ch.bitagent.bitcoin.lib.helper.Base58;
 import ch.bitagent.bitcoin.lib.helper.Bytes;
-import ch.bitagent.bitcoin.lib.helper.Hash;
 
-import javax.crypto.Mac;
 import java.util.Arrays;
 
 /**
@@ -25,6 +23,17 @@ public class PrivateKey {
         this.point = S256Point.getG().mul(secret);
     }
 
+    /**
+     * <p>Constructor for PrivateKey with its point, computed by the caller.</p>
+     *
+     * @param secret .
+     * @param point  secret * G
+     */
+    PrivateKey(Int secret, S256Point point) {
+        this.secret = secret;
+        this.point = point;
+    }
+
     /**
      * parse
      *
@@ -44,85 +53,41 @@ public class PrivateKey {
     public Signature sign(Int z, int counter) {
         var k = this.deterministicK(z, counter);
         // r is the x coordinate of the resulting point k*G
-        var r = ((S256Field) S256Point.getG().mul(k).getX()).num;
-        // remember 1/k = pow(k, N-2, N)
-        var kInv = k.powMod(S256Point.N.sub(Int.parse(2)), S256Point.N);
+        var bigR = S256Point.getG().mul(k);
+        var x = ((S256Field) bigR.getX()).getNum();
+        var r = x.mod(S256Point.N);
+        // the recovery id of the public key: parity of y and overflow of x
+        int recoveryId = (bigR.hasEvenY() ? 0 : 1) | (x.ge(S256Point.N) ? 2 : 0);
+        // 1/k mod N
+        var kInv = S256Inverse.modN(k);
         // s = (z+r*secret) / k
         var s = r.mul(this.secret).add(z).mul(kInv).mod(S256Point.N);
         if (s.gt(S256Point.N.div(Int.parse(2)))) {
+            // -s belongs to -R
             s = S256Point.N.sub(s);
+            recoveryId ^= 1;
         }
         // return an instance of Signature(r, s)
-        return new Signature(r, s);
+        return new Signature(r, s, recoveryId);
     }
 
     /**
      * <p>deterministicK.</p>
      *
+     * <p>The RFC 6979 nonce, generated by a reusable generator of the current thread.</p>
+     *
      * @param z .
      * @param counter .
      * @return a .
      */
     public Int deterministicK(Int z, int counter) {
-        byte[] k = Bytes.initFill(32, (byte) 0x00);
-        byte[] v = Bytes.initFill(32, (byte) 0x01);
-
         byte[] secretBytes = this.secret.toBytes(32);
         byte[] zBytes = z.toBytes(32);
 
         if (z.gt(S256Point.N)) {
             zBytes = z.sub(S256Point.N).toBytes(32);
         }
-        var cBytes = new byte[0];
-        if (counter > 0) {
-            var additional = Int.parse(counter);
-            cBytes = additional.toBytes(32);
-            cBytes = Bytes.changeOrder(cBytes);
-        }
-
-        Mac hmac = Hash.hmacS256Init(k);
-        hmac.update(v);
-        hmac.update(new byte[]{0x00});
-        hmac.update(secretBytes);
-        hmac.update(zBytes);
-        if (counter > 0) {
-            hmac.update(cBytes);
-        }
-        k = hmac.doFinal();
-
-        hmac = Hash.hmacS256Init(k);
-        v = hmac.doFinal(v);
-
-        hmac = Hash.hmacS256Init(k);
-        hmac.update(v);
-        hmac.update(new byte[]{0x01});
-        hmac.update(secretBytes);
-        hmac.update(zBytes);
-        if (counter > 0) {
-            hmac.update(cBytes);
-        }
-        k = hmac.doFinal();
-
-        hmac = Hash.hmacS256Init(k);
-        v = hmac.doFinal(v);
-
-        var one = Int.parse(1);
-        while (true) {
-            hmac = Hash.hmacS256Init(k);
-            v = hmac.doFinal(v);
-
-            var candidate = Hex.parse(v);
-            if (candidate.ge(one) && candidate.lt(S256Point.N)) {
-                return candidate;
-            }
-
-            hmac = Hash.hmacS256Init(k);
-            hmac.update(v);
-            k = hmac.doFinal(new byte[]{0x00});
-
-            hmac = Hash.hmacS256Init(k);
-            v = hmac.doFinal(v);
-        }
+        return Rfc6979.nonce(secretBytes, zBytes, counter);
     }
 
     /**
@@ -0,0 +1,137 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * A least recently used cache of decompressed public keys
+ *
+ * <p>Decompressing a 33 byte SEC key or lifting a 32 byte x-only key costs a square root in the field. The cache maps
+ * the serialized key to its immutable {@link S256Point}, used by {@link S256Point#parse(byte[])} and
+ * {@link S256Point#liftX(Int)}. It is synchronized and may be shared between threads. One-time points, like signature
+ * nonces, bypass it.</p>
+ */
+public final class PublicKeyCache {
+
+    private static final Logger log = Logger.getLogger(PublicKeyCache.class.getSimpleName());
+
+    /** Constant <code>DEFAULT_CAPACITY</code>, the number of keys of the default cache */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static volatile PublicKeyCache defaultCache = new PublicKeyCache(DEFAULT_CAPACITY);
+
+    private final Map<ByteBuffer, S256Point> points;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * <p>Constructor for PublicKeyCache.</p>
+     *
+     * @param capacity the maximum number of keys
+     */
+    public PublicKeyCache(int capacity) {
+        if (capacity < 1) {
+            String error = String.format("Capacity %s is smaller than 1", capacity);
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        this.points = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ByteBuffer, S256Point> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * <p>The cache used by parse and liftX, null if disabled.</p>
+     *
+     * @return .
+     */
+    public static PublicKeyCache getDefault() {
+        return defaultCache;
+    }
+
+    /**
+     * <p>Replace the cache used by parse and liftX, null disables it.</p>
+     *
+     * @param cache .
+     */
+    public static void setDefault(PublicKeyCache cache) {
+        defaultCache = cache;
+    }
+
+    /**
+     * <p>The point of a serialized key, null if not cached.</p>
+     *
+     * @param key a SEC or x-only key
+     * @return .
+     */
+    public S256Point get(byte[] key) {
+        S256Point point;
+        synchronized (this.points) {
+            point = this.points.get(ByteBuffer.wrap(key));
+        }
+        if (point == null) {
+            this.misses.increment();
+        } else {
+            this.hits.increment();
+        }
+        return point;
+    }
+
+    /**
+     * <p>Cache the point of a serialized key.</p>
+     *
+     * @param key   a SEC or x-only key, copied
+     * @param point .
+     */
+    public void put(byte[] key, S256Point point) {
+        synchronized (this.points) {
+            this.points.put(ByteBuffer.wrap(key.clone()), point);
+        }
+    }
+
+    /**
+     * <p>The number of cached keys.</p>
+     *
+     * @return .
+     */
+    public int size() {
+        synchronized (this.points) {
+            return this.points.size();
+        }
+    }
+
+    /**
+     * <p>Remove all keys and reset the counters.</p>
+     */
+    public void clear() {
+        synchronized (this.points) {
+            this.points.clear();
+        }
+        this.hits.reset();
+        this.misses.reset();
+    }
+
+    /**
+     * <p>The number of lookups which found the key.</p>
+     *
+     * @return .
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * <p>The number of lookups which did not find the key.</p>
+     *
+     * @return .
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+}
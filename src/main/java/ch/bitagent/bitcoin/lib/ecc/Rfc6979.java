@@ -0,0 +1,141 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import ch.bitagent.bitcoin.lib.helper.Hash;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * Deterministic nonces with the HMAC-DRBG of RFC 6979 and HMAC-SHA256
+ *
+ * <p>Every thread has its own generator with preallocated K, V and HMAC pads. HMAC is computed directly on a reused
+ * SHA-256 digest, so changing the key K only recomputes the inner and outer pads, instead of creating and
+ * initializing a new {@link javax.crypto.Mac}. The candidate nonce is compared with N on its bytes.</p>
+ *
+ * <a href="https://www.rfc-editor.org/rfc/rfc6979#section-3.2">RFC 6979 Generation of k</a>
+ */
+final class Rfc6979 {
+
+    private static final Logger log = Logger.getLogger(Rfc6979.class.getSimpleName());
+
+    private static final int BLOCK = 64;
+    private static final int SIZE = 32;
+    private static final byte[] ORDER = S256Point.N.toBytes(SIZE);
+
+    private static final ThreadLocal<Rfc6979> GENERATOR = ThreadLocal.withInitial(Rfc6979::new);
+
+    private final MessageDigest digest = Hash.getDigestSha256();
+    private final byte[] k = new byte[SIZE];
+    private final byte[] v = new byte[SIZE];
+    private final byte[] innerPad = new byte[BLOCK];
+    private final byte[] outerPad = new byte[BLOCK];
+    private final byte[] inner = new byte[SIZE];
+    private final byte[] extra = new byte[SIZE];
+
+    private Rfc6979() {
+    }
+
+    /**
+     * <p>The nonce k in [1, N) for a secret and message, with the counter as additional data if positive.</p>
+     *
+     * @param secret  32 bytes big endian
+     * @param z       32 bytes big endian
+     * @param counter .
+     * @return .
+     */
+    static Int nonce(byte[] secret, byte[] z, int counter) {
+        return GENERATOR.get().generate(secret, z, counter);
+    }
+
+    private Int generate(byte[] secret, byte[] z, int counter) {
+        // the counter as 32 bytes little endian
+        Arrays.fill(this.extra, (byte) 0x00);
+        for (int i = 0; i < 4; i++) {
+            this.extra[i] = (byte) (counter >>> (8 * i));
+        }
+        int extraLength = counter > 0 ? SIZE : 0;
+        Arrays.fill(this.k, (byte) 0x00);
+        Arrays.fill(this.v, (byte) 0x01);
+        this.rekey();
+        // K = HMAC_K(V || 0x00 || secret || z || extra), V = HMAC_K(V)
+        this.seed((byte) 0x00, secret, z, extraLength);
+        // K = HMAC_K(V || 0x01 || secret || z || extra), V = HMAC_K(V)
+        this.seed((byte) 0x01, secret, z, extraLength);
+        while (true) {
+            this.begin();
+            this.digest.update(this.v);
+            this.end(this.v);
+            if (this.isValid()) {
+                return Hex.parse(this.v);
+            }
+            // K = HMAC_K(V || 0x00), V = HMAC_K(V)
+            this.begin();
+            this.digest.update(this.v);
+            this.digest.update((byte) 0x00);
+            this.end(this.k);
+            this.rekey();
+            this.begin();
+            this.digest.update(this.v);
+            this.end(this.v);
+        }
+    }
+
+    private void seed(byte separator, byte[] secret, byte[] z, int extraLength) {
+        this.begin();
+        this.digest.update(this.v);
+        this.digest.update(separator);
+        this.digest.update(secret);
+        this.digest.update(z);
+        this.digest.update(this.extra, 0, extraLength);
+        this.end(this.k);
+        this.rekey();
+        this.begin();
+        this.digest.update(this.v);
+        this.end(this.v);
+    }
+
+    /**
+     * <p>The pads of the current key K, which is shorter than a block.</p>
+     */
+    private void rekey() {
+        Arrays.fill(this.innerPad, (byte) 0x36);
+        Arrays.fill(this.outerPad, (byte) 0x5c);
+        for (int i = 0; i < SIZE; i++) {
+            this.innerPad[i] ^= this.k[i];
+            this.outerPad[i] ^= this.k[i];
+        }
+    }
+
+    private void begin() {
+        this.digest.reset();
+        this.digest.update(this.innerPad);
+    }
+
+    /**
+     * <p>Finish the HMAC started with begin into out, which may be K or V.</p>
+     */
+    private void end(byte[] out) {
+        try {
+            this.digest.digest(this.inner, 0, SIZE);
+            this.digest.update(this.outerPad);
+            this.digest.update(this.inner);
+            this.digest.digest(out, 0, SIZE);
+        } catch (DigestException e) {
+            log.severe(e.getMessage());
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
+    /**
+     * <p>1 &lt;= V &lt; N</p>
+     */
+    private boolean isValid() {
+        int zero = 0;
+        for (byte b : this.v) {
+            zero |= b;
+        }
+        return zero != 0 && Arrays.compareUnsigned(this.v, ORDER) < 0;
+    }
+}
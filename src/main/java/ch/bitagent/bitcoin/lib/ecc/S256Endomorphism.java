@@ -0,0 +1,230 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import java.math.BigInteger;
+
+/**
+ * Variable base multiplication on secp256k1 with the GLV endomorphism and wNAF recoding
+ *
+ * <p>secp256k1 has the efficient endomorphism phi(x, y) = (beta * x, y) = lambda * (x, y). A scalar k is split into
+ * k1 + k2 * lambda with k1 and k2 of about 128 bits, so k * P = k1 * P + k2 * phi(P) needs only half the doublings.
+ * Both halves are recoded in width w NAF and share one doubling chain over a table of the odd multiples of P.</p>
+ *
+ * <p>u * G + v * P is computed the same way (Strauss-Shamir): all four halves share a single doubling chain,
+ * the odd multiples of G come from a wider table which is built once.</p>
+ *
+ * <a href="https://www.iacr.org/archive/crypto2001/21390189.pdf">Gallant, Lambert, Vanstone: Faster Point Multiplication on Elliptic Curves with Efficient Endomorphisms</a>
+ */
+final class S256Endomorphism {
+
+    /** Constant <code>WINDOW</code>, the wNAF width for a table built on the fly */
+    static final int WINDOW = 5;
+
+    /** Constant <code>G_WINDOW</code>, the wNAF width for the static table of the generator */
+    static final int G_WINDOW = 10;
+
+    /** Constant <code>LAMBDA</code>, a cube root of unity mod N */
+    static final BigInteger LAMBDA = new BigInteger("5363ad4cc05c30e0a5261c028812645a122e22ea20816678df02967c1b23bd72", 16);
+
+    /** Constant <code>BETA</code>, a cube root of unity mod P */
+    static final long[] BETA = S256FieldLimbs.parse(Hex.parse("7ae96a2b657c07106e64479eac3434e99cf0497512f58995c1396c28719501ee"));
+
+    private static final BigInteger N = S256Point.N.bigInt();
+    private static final BigInteger HALF_N = N.shiftRight(1);
+
+    // short basis of the lattice {(a, b) : a + b * lambda = 0 mod N}
+    private static final BigInteger A1 = new BigInteger("3086d221a7d46bcde86c90e49284eb15", 16);
+    private static final BigInteger MINUS_B1 = new BigInteger("e4437ed6010e88286f547fa90abfe4c3", 16);
+    private static final BigInteger A2 = new BigInteger("114ca50f7a8e2f3f657c1108d9d44cfd8", 16);
+    private static final BigInteger B2 = A1;
+
+    private S256Endomorphism() {
+    }
+
+    /**
+     * The odd multiples of G and phi(G), built when first used by the class loader.
+     */
+    private static final class Generator {
+        private static final long[][][] TABLE;
+        private static final long[][][] PHI_TABLE;
+
+        static {
+            var g = S256Point.getG();
+            TABLE = oddMultiples(((S256Field) g.getX()).limbs(), ((S256Field) g.getY()).limbs(), G_WINDOW);
+            PHI_TABLE = phi(TABLE);
+        }
+
+        private Generator() {
+        }
+    }
+
+    /**
+     * <p>Split a scalar k in [0, N) into k1 + k2 * lambda = k mod N with |k1|, |k2| of about 128 bits.</p>
+     *
+     * @param k .
+     * @return {k1, k2}
+     */
+    static BigInteger[] split(BigInteger k) {
+        // c1 = round(b2 * k / N), c2 = round(-b1 * k / N)
+        var c1 = B2.multiply(k).add(HALF_N).divide(N);
+        var c2 = MINUS_B1.multiply(k).add(HALF_N).divide(N);
+        // k1 = k - c1 * a1 - c2 * a2, k2 = -c1 * b1 - c2 * b2
+        var k1 = k.subtract(c1.multiply(A1)).subtract(c2.multiply(A2));
+        var k2 = c1.multiply(MINUS_B1).subtract(c2.multiply(B2));
+        return new BigInteger[]{k1, k2};
+    }
+
+    /**
+     * <p>The width w NAF of a non negative scalar: every nonzero digit is odd, below 2^(w-1) in absolute value
+     * and followed by at least w - 1 zero digits.</p>
+     *
+     * @param k .
+     * @param w .
+     * @return the digits, least significant first
+     */
+    static int[] wnaf(BigInteger k, int w) {
+        int len = k.bitLength() + 1;
+        var naf = new int[len];
+        int carry = 0;
+        int bit = 0;
+        while (bit < len) {
+            if ((k.testBit(bit) ? 1 : 0) == carry) {
+                bit++;
+                continue;
+            }
+            int now = Math.min(w, len - bit);
+            int word = carry;
+            for (int j = now - 1; j >= 0; j--) {
+                word += (k.testBit(bit + j) ? 1 : 0) << j;
+            }
+            carry = (word >> (w - 1)) & 1;
+            word -= carry << w;
+            naf[bit] = word;
+            bit += now;
+        }
+        return naf;
+    }
+
+    /**
+     * <p>The odd multiples 1, 3, 5 .. 2^(w-1) - 1 times an affine point, in affine coordinates.</p>
+     *
+     * @param ax .
+     * @param ay .
+     * @param w  .
+     * @return {xs, ys}
+     */
+    static long[][][] oddMultiples(long[] ax, long[] ay, int w) {
+        int count = 1 << (w - 2);
+        var points = new S256Jacobian[count];
+        var xs = new long[count][];
+        var ys = new long[count][];
+        var p = S256Jacobian.affine(ax, ay);
+        var twice = p.copy().dbl();
+        for (int i = 0; i < count; i++) {
+            points[i] = p.copy();
+            xs[i] = S256FieldLimbs.zero();
+            ys[i] = S256FieldLimbs.zero();
+            p.add(twice);
+        }
+        S256Jacobian.toAffine(points, xs, ys);
+        return new long[][][]{xs, ys};
+    }
+
+    /**
+     * <p>phi applied to a table of affine points, (beta * x, y).</p>
+     *
+     * @param table {xs, ys}
+     * @return {xs, ys}
+     */
+    static long[][][] phi(long[][][] table) {
+        var xs = new long[table[0].length][];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = S256FieldLimbs.zero();
+            S256FieldLimbs.mul(xs[i], table[0][i], BETA);
+            S256FieldLimbs.normalize(xs[i]);
+        }
+        return new long[][][]{xs, table[1]};
+    }
+
+    /**
+     * <p>k * (ax, ay) for an affine point and a scalar in [0, N).</p>
+     *
+     * @param ax .
+     * @param ay .
+     * @param k  .
+     * @return a new working point
+     */
+    static S256Jacobian mul(long[] ax, long[] ay, BigInteger k) {
+        var table = oddMultiples(ax, ay, WINDOW);
+        var ks = split(k);
+        return strauss(new long[][][][]{table, phi(table)}, ks, new int[]{WINDOW, WINDOW});
+    }
+
+    /**
+     * <p>u * G + v * (ax, ay) for an affine point and scalars in [0, N).</p>
+     *
+     * @param u  .
+     * @param ax .
+     * @param ay .
+     * @param v  .
+     * @return a new working point
+     */
+    static S256Jacobian mulAdd(BigInteger u, long[] ax, long[] ay, BigInteger v) {
+        var table = oddMultiples(ax, ay, WINDOW);
+        var us = split(u);
+        var vs = split(v);
+        return strauss(
+                new long[][][][]{Generator.TABLE, Generator.PHI_TABLE, table, phi(table)},
+                new BigInteger[]{us[0], us[1], vs[0], vs[1]},
+                new int[]{G_WINDOW, G_WINDOW, WINDOW, WINDOW});
+    }
+
+    /**
+     * <p>The sum of k_i * P_i in one doubling chain, each P_i given by a table of its odd multiples.</p>
+     *
+     * @param tables  {xs, ys} for each point
+     * @param ks      a signed scalar for each point
+     * @param windows the wNAF width of each table
+     * @return a new working point
+     */
+    private static S256Jacobian strauss(long[][][][] tables, BigInteger[] ks, int[] windows) {
+        var nafs = new int[ks.length][];
+        int len = 0;
+        for (int j = 0; j < ks.length; j++) {
+            nafs[j] = wnaf(ks[j].abs(), windows[j]);
+            len = Math.max(len, nafs[j].length);
+        }
+        var result = S256Jacobian.infinity();
+        var neg = S256FieldLimbs.zero();
+        for (int i = len - 1; i >= 0; i--) {
+            result.dbl();
+            for (int j = 0; j < ks.length; j++) {
+                if (i < nafs[j].length) {
+                    addDigit(result, tables[j], nafs[j][i], ks[j].signum() < 0, neg);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * <p>result += digit * P for a wNAF digit and a table of the odd multiples of P, or of -P if negate is set.</p>
+     *
+     * @param result .
+     * @param table  {xs, ys}
+     * @param digit  .
+     * @param negate .
+     * @param neg    scratch limbs
+     */
+    static void addDigit(S256Jacobian result, long[][][] table, int digit, boolean negate, long[] neg) {
+        if (digit == 0) {
+            return;
+        }
+        int index = Math.abs(digit) >> 1;
+        if ((digit < 0) != negate) {
+            S256FieldLimbs.neg(neg, table[1][index]);
+            result.addAffine(table[0][index], neg);
+        } else {
+            result.addAffine(table[0][index], table[1][index]);
+        }
+    }
+}
@@ -4,12 +4,19 @@ import java.math.BigInteger;
 
 /**
  * A finite field on a secp256k1 elliptic curve
+ *
+ * <p>The arithmetic runs on the fixed width limbs of {@link S256FieldLimbs} instead of BigInteger. The number of an
+ * element computed from limbs is only built when {@link #getNum()} is called.</p>
  */
 public class S256Field extends FieldElement {
 
     /** Constant <code>P</code> */
     public static final Int P = new Int(BigInteger.valueOf(2).pow(256).subtract(BigInteger.valueOf(2).pow(32)).subtract(BigInteger.valueOf(977)));
 
+    private final long[] limbs;
+    // computed from the limbs on first use, racy but Int is immutable
+    private Int num;
+
     /**
      * <p>Constructor for S256Field.</p>
      *
@@ -17,18 +24,124 @@ public class S256Field extends FieldElement {
      */
     public S256Field(Int num) {
         super(num, P);
+        this.limbs = S256FieldLimbs.parse(num);
+        this.num = num;
+    }
+
+    /**
+     * <p>Constructor for S256Field from limbs, which are taken over.</p>
+     *
+     * @param limbs weakly normalized limbs
+     */
+    S256Field(long[] limbs) {
+        super(P);
+        this.limbs = limbs;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Int getNum() {
+        var n = this.num;
+        if (n == null) {
+            n = S256FieldLimbs.toInt(S256FieldLimbs.normalize(S256FieldLimbs.copy(this.limbs)));
+            this.num = n;
+        }
+        return n;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean eq(PointOperators otherPoint) {
+        if (otherPoint instanceof S256Field) {
+            return S256FieldLimbs.eq(this.limbs, ((S256Field) otherPoint).limbs);
+        }
+        return super.eq(otherPoint);
+    }
+
+    /**
+     * <p>The limbs of this element, not to be modified.</p>
+     *
+     * @return .
+     */
+    long[] limbs() {
+        return this.limbs;
     }
 
     /** {@inheritDoc} */
     @Override
     public S256Field add(PointOperators otherPoint) {
-        return new S256Field(super.add(otherPoint).num);
+        if (otherPoint instanceof S256Field) {
+            var r = S256FieldLimbs.zero();
+            S256FieldLimbs.add(r, this.limbs, ((S256Field) otherPoint).limbs);
+            return new S256Field(r);
+        }
+        return new S256Field(super.add(otherPoint).getNum());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public S256Field sub(PointOperators otherPoint) {
+        if (otherPoint instanceof S256Field) {
+            var r = S256FieldLimbs.zero();
+            S256FieldLimbs.sub(r, this.limbs, ((S256Field) otherPoint).limbs);
+            return new S256Field(r);
+        }
+        return new S256Field(super.sub(otherPoint).getNum());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public S256Field mul(PointOperators otherPoint) {
+        if (otherPoint instanceof S256Field) {
+            var r = S256FieldLimbs.zero();
+            S256FieldLimbs.mul(r, this.limbs, ((S256Field) otherPoint).limbs);
+            return new S256Field(r);
+        }
+        return new S256Field(super.mul(otherPoint).getNum());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public S256Field mul(int coefficient) {
+        var r = S256FieldLimbs.zero();
+        if (coefficient >= 0) {
+            S256FieldLimbs.mul(r, this.limbs, coefficient);
+        } else {
+            // -(a * (-(coefficient + 1)) + a), which also holds for Integer.MIN_VALUE
+            S256FieldLimbs.mul(r, this.limbs, -(coefficient + 1));
+            S256FieldLimbs.add(r, r, this.limbs);
+            S256FieldLimbs.neg(r, r);
+        }
+        return new S256Field(r);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public S256Field pow(Int exponent) {
+        var r = S256FieldLimbs.zero();
+        var e = exponent.bigInt();
+        if (e.signum() < 0) {
+            if (S256FieldLimbs.isZero(this.limbs)) {
+                throw new ArithmeticException("BigInteger not invertible.");
+            }
+            S256FieldLimbs.inv(r, this.limbs);
+            S256FieldLimbs.pow(r, r, e.negate());
+        } else {
+            S256FieldLimbs.pow(r, this.limbs, e);
+        }
+        return new S256Field(r);
     }
 
     /** {@inheritDoc} */
     @Override
-    public S256Field pow(Int divisor) {
-        return new S256Field(super.pow(divisor).num);
+    public S256Field div(PointOperators otherPoint) {
+        if (otherPoint instanceof S256Field) {
+            var r = S256FieldLimbs.zero();
+            S256FieldLimbs.inv(r, ((S256Field) otherPoint).limbs);
+            S256FieldLimbs.mul(r, this.limbs, r);
+            return new S256Field(r);
+        }
+        return new S256Field(super.div(otherPoint).getNum());
     }
 
     /**
@@ -37,12 +150,14 @@ public class S256Field extends FieldElement {
      * @return a {@link ch.bitagent.bitcoin.lib.ecc.S256Field} object
      */
     public S256Field sqrt() {
-        return new S256Field(this.pow(P.add(Int.parse(1)).div(Int.parse(4))).num);
+        var r = S256FieldLimbs.zero();
+        S256FieldLimbs.sqrt(r, this.limbs);
+        return new S256Field(r);
     }
 
     /** {@inheritDoc} */
     @Override
     public String toString() {
-        return String.format("S256Field_%s", super.num.toHex());
+        return String.format("S256Field_%s", this.getNum().toHex());
     }
 }
@@ -0,0 +1,529 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import java.math.BigInteger;
+
+/**
+ * <p>Fixed width arithmetic modulo the secp256k1 prime p = 2^256 - 2^32 - 977</p>
+ *
+ * <p>A field element is a {@code long[10]} of 26 bit limbs (the top limb holds 22 bits), least significant limb first.
+ * Every operation returns a weakly normalized element (limbs of 26 bits plus at most a small carry), so results can
+ * be fed into further operations without tracking magnitudes. Only {@link #normalize(long[])} reduces fully below p.</p>
+ *
+ * <p>The reduction uses 2^256 = 0x1000003d1 (mod p), see
+ * <a href="https://github.com/bitcoin-core/secp256k1/blob/master/src/field_10x26_impl.h">libsecp256k1 field_10x26</a>.</p>
+ */
+final class S256FieldLimbs {
+
+    static final int LIMBS = 10;
+
+    private static final long M26 = 0x3FFFFFFL;
+    private static final long M22 = 0x3FFFFFL;
+
+    // 2^260 = 0x1000003d10 (mod p), split at the 26 bit limb boundary
+    private static final long R0 = 0x3D10L;
+    private static final long R1 = 0x400L;
+
+    // the limbs of p
+    private static final long P0 = 0x3FFFC2FL;
+    private static final long P1 = 0x3FFFFBFL;
+
+    private S256FieldLimbs() {
+    }
+
+    /**
+     * <p>A new zero element.</p>
+     *
+     * @return .
+     */
+    static long[] zero() {
+        return new long[LIMBS];
+    }
+
+    /**
+     * <p>A new element with a small value.</p>
+     *
+     * @param value a value below 2^26
+     * @return .
+     */
+    static long[] of(int value) {
+        var r = new long[LIMBS];
+        r[0] = value;
+        return r;
+    }
+
+    /**
+     * <p>Parse 32 big endian bytes.</p>
+     *
+     * @param bytes .
+     * @param off   .
+     * @return .
+     */
+    static long[] parse(byte[] bytes, int off) {
+        var r = new long[LIMBS];
+        for (int i = 0; i < 32; i++) {
+            long v = bytes[off + 31 - i] & 0xFFL;
+            int bit = 8 * i;
+            int limb = bit / 26;
+            int shift = bit % 26;
+            r[limb] |= (v << shift) & M26;
+            if (shift > 18) {
+                r[limb + 1] |= v >>> (26 - shift);
+            }
+        }
+        carry(r);
+        return r;
+    }
+
+    /**
+     * <p>Parse an Int in the range 0 to 2^256-1.</p>
+     *
+     * @param num .
+     * @return .
+     */
+    static long[] parse(Int num) {
+        return parse(num.toBytes(32), 0);
+    }
+
+    /**
+     * <p>Write a normalized element as 32 big endian bytes.</p>
+     *
+     * @param a   .
+     * @param out .
+     * @param off .
+     */
+    static void toBytes(long[] a, byte[] out, int off) {
+        for (int i = 0; i < 32; i++) {
+            int bit = 8 * i;
+            int limb = bit / 26;
+            int shift = bit % 26;
+            long v = a[limb] >>> shift;
+            if (shift > 18) {
+                v |= a[limb + 1] << (26 - shift);
+            }
+            out[off + 31 - i] = (byte) v;
+        }
+    }
+
+    /**
+     * <p>Convert a normalized element to an Int.</p>
+     *
+     * @param a .
+     * @return .
+     */
+    static Int toInt(long[] a) {
+        var bytes = new byte[32];
+        toBytes(a, bytes, 0);
+        return Int.parse(new BigInteger(1, bytes));
+    }
+
+    /**
+     * <p>Copy an element.</p>
+     *
+     * @param a .
+     * @return .
+     */
+    static long[] copy(long[] a) {
+        return a.clone();
+    }
+
+    /**
+     * <p>Propagate the carries of non negative limbs below 2^62 and fold everything above 2^256 back in.</p>
+     *
+     * @param r .
+     */
+    static void carry(long[] r) {
+        carry(r, r[0], r[1], r[2], r[3], r[4], r[5], r[6], r[7], r[8], r[9]);
+    }
+
+    /**
+     * <p>Reduce a weakly normalized element fully below p.</p>
+     *
+     * @param r .
+     * @return r
+     */
+    static long[] normalize(long[] r) {
+        long m;
+        do {
+            for (int i = 0; i < LIMBS - 1; i++) {
+                r[i + 1] += r[i] >>> 26;
+                r[i] &= M26;
+            }
+            m = r[9] >>> 22;
+            r[9] &= M22;
+            r[0] += m * 0x3D1L;
+            r[1] += m << 6;
+        } while (m != 0);
+        // r >= p iff r + 0x1000003d1 >= 2^256
+        var t = r.clone();
+        t[0] += 0x3D1L;
+        t[1] += 0x40L;
+        for (int i = 0; i < LIMBS - 1; i++) {
+            t[i + 1] += t[i] >>> 26;
+            t[i] &= M26;
+        }
+        if ((t[9] >>> 22) != 0) {
+            t[9] &= M22;
+            System.arraycopy(t, 0, r, 0, LIMBS);
+        }
+        return r;
+    }
+
+    /**
+     * <p>Is the element zero modulo p.</p>
+     *
+     * @param a .
+     * @return .
+     */
+    static boolean isZero(long[] a) {
+        var t = normalize(a.clone());
+        long z = 0;
+        for (long limb : t) {
+            z |= limb;
+        }
+        return z == 0;
+    }
+
+    /**
+     * <p>Is the element odd once reduced modulo p.</p>
+     *
+     * @param a .
+     * @return .
+     */
+    static boolean isOdd(long[] a) {
+        return (normalize(a.clone())[0] & 1) == 1;
+    }
+
+    /**
+     * <p>Are both elements equal modulo p.</p>
+     *
+     * @param a .
+     * @param b .
+     * @return .
+     */
+    static boolean eq(long[] a, long[] b) {
+        var t = new long[LIMBS];
+        sub(t, a, b);
+        return isZero(t);
+    }
+
+    /**
+     * <p>r = a + b</p>
+     *
+     * @param r .
+     * @param a .
+     * @param b .
+     */
+    static void add(long[] r, long[] a, long[] b) {
+        for (int i = 0; i < LIMBS; i++) {
+            r[i] = a[i] + b[i];
+        }
+        carry(r);
+    }
+
+    /**
+     * <p>r = a - b</p>
+     *
+     * @param r .
+     * @param a .
+     * @param b .
+     */
+    static void sub(long[] r, long[] a, long[] b) {
+        // add 4p limb by limb, which exceeds every limb of a weakly normalized b
+        r[0] = a[0] + 4 * P0 - b[0];
+        r[1] = a[1] + 4 * P1 - b[1];
+        for (int i = 2; i < LIMBS - 1; i++) {
+            r[i] = a[i] + 4 * M26 - b[i];
+        }
+        r[9] = a[9] + 4 * M22 - b[9];
+        carry(r);
+    }
+
+    /**
+     * <p>r = -a</p>
+     *
+     * @param r .
+     * @param a .
+     */
+    static void neg(long[] r, long[] a) {
+        sub(r, new long[LIMBS], a);
+    }
+
+    /**
+     * <p>r = a * k for a small non negative k</p>
+     *
+     * @param r .
+     * @param a .
+     * @param k .
+     */
+    static void mul(long[] r, long[] a, int k) {
+        for (int i = 0; i < LIMBS; i++) {
+            r[i] = a[i] * k;
+        }
+        carry(r);
+    }
+
+    /**
+     * <p>r = a * b</p>
+     *
+     * @param r .
+     * @param a .
+     * @param b .
+     */
+    static void mul(long[] r, long[] a, long[] b) {
+        final long a0 = a[0], a1 = a[1], a2 = a[2], a3 = a[3], a4 = a[4];
+        final long a5 = a[5], a6 = a[6], a7 = a[7], a8 = a[8], a9 = a[9];
+        final long b0 = b[0], b1 = b[1], b2 = b[2], b3 = b[3], b4 = b[4];
+        final long b5 = b[5], b6 = b[6], b7 = b[7], b8 = b[8], b9 = b[9];
+        long c0 = a0 * b0;
+        long c1 = a0 * b1 + a1 * b0;
+        long c2 = a0 * b2 + a1 * b1 + a2 * b0;
+        long c3 = a0 * b3 + a1 * b2 + a2 * b1 + a3 * b0;
+        long c4 = a0 * b4 + a1 * b3 + a2 * b2 + a3 * b1 + a4 * b0;
+        long c5 = a0 * b5 + a1 * b4 + a2 * b3 + a3 * b2 + a4 * b1 + a5 * b0;
+        long c6 = a0 * b6 + a1 * b5 + a2 * b4 + a3 * b3 + a4 * b2 + a5 * b1 + a6 * b0;
+        long c7 = a0 * b7 + a1 * b6 + a2 * b5 + a3 * b4 + a4 * b3 + a5 * b2 + a6 * b1 + a7 * b0;
+        long c8 = a0 * b8 + a1 * b7 + a2 * b6 + a3 * b5 + a4 * b4 + a5 * b3 + a6 * b2 + a7 * b1 + a8 * b0;
+        long c9 = a0 * b9 + a1 * b8 + a2 * b7 + a3 * b6 + a4 * b5 + a5 * b4 + a6 * b3 + a7 * b2 + a8 * b1 + a9 * b0;
+        long c10 = a1 * b9 + a2 * b8 + a3 * b7 + a4 * b6 + a5 * b5 + a6 * b4 + a7 * b3 + a8 * b2 + a9 * b1;
+        long c11 = a2 * b9 + a3 * b8 + a4 * b7 + a5 * b6 + a6 * b5 + a7 * b4 + a8 * b3 + a9 * b2;
+        long c12 = a3 * b9 + a4 * b8 + a5 * b7 + a6 * b6 + a7 * b5 + a8 * b4 + a9 * b3;
+        long c13 = a4 * b9 + a5 * b8 + a6 * b7 + a7 * b6 + a8 * b5 + a9 * b4;
+        long c14 = a5 * b9 + a6 * b8 + a7 * b7 + a8 * b6 + a9 * b5;
+        long c15 = a6 * b9 + a7 * b8 + a8 * b7 + a9 * b6;
+        long c16 = a7 * b9 + a8 * b8 + a9 * b7;
+        long c17 = a8 * b9 + a9 * b8;
+        long c18 = a9 * b9;
+        reduce(r, c0, c1, c2, c3, c4, c5, c6, c7, c8, c9,
+                c10, c11, c12, c13, c14, c15, c16, c17, c18);
+    }
+
+    /**
+     * <p>r = a * a</p>
+     *
+     * @param r .
+     * @param a .
+     */
+    static void sqr(long[] r, long[] a) {
+        final long a0 = a[0], a1 = a[1], a2 = a[2], a3 = a[3], a4 = a[4];
+        final long a5 = a[5], a6 = a[6], a7 = a[7], a8 = a[8], a9 = a[9];
+        final long d0 = a0 << 1, d1 = a1 << 1, d2 = a2 << 1, d3 = a3 << 1, d4 = a4 << 1;
+        final long d5 = a5 << 1, d6 = a6 << 1, d7 = a7 << 1, d8 = a8 << 1;
+        long c0 = a0 * a0;
+        long c1 = d0 * a1;
+        long c2 = d0 * a2 + a1 * a1;
+        long c3 = d0 * a3 + d1 * a2;
+        long c4 = d0 * a4 + d1 * a3 + a2 * a2;
+        long c5 = d0 * a5 + d1 * a4 + d2 * a3;
+        long c6 = d0 * a6 + d1 * a5 + d2 * a4 + a3 * a3;
+        long c7 = d0 * a7 + d1 * a6 + d2 * a5 + d3 * a4;
+        long c8 = d0 * a8 + d1 * a7 + d2 * a6 + d3 * a5 + a4 * a4;
+        long c9 = d0 * a9 + d1 * a8 + d2 * a7 + d3 * a6 + d4 * a5;
+        long c10 = d1 * a9 + d2 * a8 + d3 * a7 + d4 * a6 + a5 * a5;
+        long c11 = d2 * a9 + d3 * a8 + d4 * a7 + d5 * a6;
+        long c12 = d3 * a9 + d4 * a8 + d5 * a7 + a6 * a6;
+        long c13 = d4 * a9 + d5 * a8 + d6 * a7;
+        long c14 = d5 * a9 + d6 * a8 + a7 * a7;
+        long c15 = d6 * a9 + d7 * a8;
+        long c16 = d7 * a9 + a8 * a8;
+        long c17 = d8 * a9;
+        long c18 = a9 * a9;
+        reduce(r, c0, c1, c2, c3, c4, c5, c6, c7, c8, c9,
+                c10, c11, c12, c13, c14, c15, c16, c17, c18);
+    }
+
+    /**
+     * <p>r = a^(2^n)</p>
+     *
+     * @param r .
+     * @param a .
+     * @param n .
+     */
+    static void sqr(long[] r, long[] a, int n) {
+        sqr(r, a);
+        for (int i = 1; i < n; i++) {
+            sqr(r, r);
+        }
+    }
+
+    private static void reduce(long[] r, long c0, long c1, long c2, long c3, long c4, long c5, long c6, long c7, long c8, long c9,
+                               long c10, long c11, long c12, long c13, long c14, long c15, long c16, long c17, long c18) {
+        // bring the column sums to 26 bits each
+        c1 += c0 >>> 26;
+        c0 &= M26;
+        c2 += c1 >>> 26;
+        c1 &= M26;
+        c3 += c2 >>> 26;
+        c2 &= M26;
+        c4 += c3 >>> 26;
+        c3 &= M26;
+        c5 += c4 >>> 26;
+        c4 &= M26;
+        c6 += c5 >>> 26;
+        c5 &= M26;
+        c7 += c6 >>> 26;
+        c6 &= M26;
+        c8 += c7 >>> 26;
+        c7 &= M26;
+        c9 += c8 >>> 26;
+        c8 &= M26;
+        c10 += c9 >>> 26;
+        c9 &= M26;
+        c11 += c10 >>> 26;
+        c10 &= M26;
+        c12 += c11 >>> 26;
+        c11 &= M26;
+        c13 += c12 >>> 26;
+        c12 &= M26;
+        c14 += c13 >>> 26;
+        c13 &= M26;
+        c15 += c14 >>> 26;
+        c14 &= M26;
+        c16 += c15 >>> 26;
+        c15 &= M26;
+        c17 += c16 >>> 26;
+        c16 &= M26;
+        c18 += c17 >>> 26;
+        c17 &= M26;
+        long c19 = c18 >>> 26;
+        c18 &= M26;
+        // fold the limbs at and above 2^260 back in with 2^260 = R1 * 2^26 + R0
+        long top = c19 * R1;
+        carry(r, c0 + c10 * R0 + top * R0,
+                c1 + c11 * R0 + c10 * R1 + top * R1,
+                c2 + c12 * R0 + c11 * R1,
+                c3 + c13 * R0 + c12 * R1,
+                c4 + c14 * R0 + c13 * R1,
+                c5 + c15 * R0 + c14 * R1,
+                c6 + c16 * R0 + c15 * R1,
+                c7 + c17 * R0 + c16 * R1,
+                c8 + c18 * R0 + c17 * R1,
+                c9 + c19 * R0 + c18 * R1);
+    }
+
+    private static void carry(long[] r, long t0, long t1, long t2, long t3, long t4, long t5, long t6, long t7, long t8, long t9) {
+        t1 += t0 >>> 26;
+        t0 &= M26;
+        t2 += t1 >>> 26;
+        t1 &= M26;
+        t3 += t2 >>> 26;
+        t2 &= M26;
+        t4 += t3 >>> 26;
+        t3 &= M26;
+        t5 += t4 >>> 26;
+        t4 &= M26;
+        t6 += t5 >>> 26;
+        t5 &= M26;
+        t7 += t6 >>> 26;
+        t6 &= M26;
+        t8 += t7 >>> 26;
+        t7 &= M26;
+        t9 += t8 >>> 26;
+        t8 &= M26;
+        long m = t9 >>> 22;
+        t9 &= M22;
+        t0 += m * 0x3D1L;
+        t1 += m << 6;
+        t1 += t0 >>> 26;
+        t0 &= M26;
+        t2 += t1 >>> 26;
+        t1 &= M26;
+        r[0] = t0;
+        r[1] = t1;
+        r[2] = t2;
+        r[3] = t3;
+        r[4] = t4;
+        r[5] = t5;
+        r[6] = t6;
+        r[7] = t7;
+        r[8] = t8;
+        r[9] = t9;
+    }
+
+    /**
+     * <p>r = a^e for a non negative exponent</p>
+     *
+     * @param r .
+     * @param a .
+     * @param e .
+     */
+    static void pow(long[] r, long[] a, BigInteger e) {
+        var base = a.clone();
+        var t = of(1);
+        for (int i = e.bitLength() - 1; i >= 0; i--) {
+            sqr(t, t);
+            if (e.testBit(i)) {
+                mul(t, t, base);
+            }
+        }
+        System.arraycopy(t, 0, r, 0, LIMBS);
+    }
+
+    /**
+     * <p>The runs of ones 2^n - 1 for n in { 2, 3, 22, 223 } shared by the inversion and square root chains</p>
+     */
+    private static long[][] chain(long[] a) {
+        var x2 = new long[LIMBS];
+        sqr(x2, a);
+        mul(x2, x2, a);
+        var x3 = new long[LIMBS];
+        sqr(x3, x2);
+        mul(x3, x3, a);
+        var t = new long[LIMBS];
+        sqr(t, x3, 3);
+        mul(t, t, x3);
+        sqr(t, t, 3);
+        mul(t, t, x3);
+        sqr(t, t, 2);
+        var x11 = new long[LIMBS];
+        mul(x11, t, x2);
+        var x22 = new long[LIMBS];
+        sqr(x22, x11, 11);
+        mul(x22, x22, x11);
+        var x44 = new long[LIMBS];
+        sqr(x44, x22, 22);
+        mul(x44, x44, x22);
+        var x88 = new long[LIMBS];
+        sqr(x88, x44, 44);
+        mul(x88, x88, x44);
+        var x223 = new long[LIMBS];
+        sqr(x223, x88, 88);
+        mul(x223, x223, x88);
+        sqr(x223, x223, 44);
+        mul(x223, x223, x44);
+        sqr(x223, x223, 3);
+        mul(x223, x223, x3);
+        return new long[][]{x2, x22, x223};
+    }
+
+    /**
+     * <p>r = 1 / a with the safegcd of {@link S256Inverse} (zero for zero)</p>
+     *
+     * @param r .
+     * @param a .
+     */
+    static void inv(long[] r, long[] a) {
+        S256Inverse.field(r, a);
+    }
+
+    /**
+     * <p>r = a^((p+1)/4), a square root of a if a is a square</p>
+     *
+     * @param r .
+     * @param a .
+     * @return true if r * r = a
+     */
+    static boolean sqrt(long[] r, long[] a) {
+        var x = chain(a);
+        var t = new long[LIMBS];
+        sqr(t, x[2], 23);
+        mul(t, t, x[1]);
+        sqr(t, t, 6);
+        mul(t, t, x[0]);
+        sqr(t, t, 2);
+        var check = new long[LIMBS];
+        sqr(check, t);
+        var isSquare = eq(check, a);
+        System.arraycopy(t, 0, r, 0, LIMBS);
+        return isSquare;
+    }
+}
@@ -0,0 +1,274 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import java.math.BigInteger;
+
+/**
+ * Modular inversion modulo the secp256k1 group order N and field prime P
+ *
+ * <p>The inverse is computed with the safegcd divsteps of Bernstein and Yang on signed 30 bit limbs, a port of
+ * <a href="https://github.com/bitcoin-core/secp256k1/blob/master/src/modinv32_impl.h">libsecp256k1 modinv32</a>.
+ * It runs a fixed number of 20 * 30 divsteps without branches on the input, and costs a fraction of the 256
+ * squarings of an inversion by exponentiation. The inverse of 0 is 0.</p>
+ *
+ * <a href="https://gcd.cr.yp.to/safegcd-20190413.pdf">Bernstein, Yang: Fast constant-time gcd computation and modular inversion</a>
+ */
+public final class S256Inverse {
+
+    private static final int M30 = 0x3FFFFFFF;
+    private static final int LIMBS = 9;
+    private static final long M26 = 0x3FFFFFFL;
+
+    private static final Modulus ORDER = new Modulus(new BigInteger("fffffffffffffffffffffffffffffffebaaedce6af48a03bbfd25e8cd0364141", 16));
+    private static final Modulus PRIME = new Modulus(new BigInteger("fffffffffffffffffffffffffffffffffffffffffffffffffffffffefffffc2f", 16));
+
+    private S256Inverse() {
+    }
+
+    /**
+     * An odd modulus in signed 30 bit limbs and its inverse mod 2^30.
+     */
+    private static final class Modulus {
+        private final BigInteger value;
+        private final int[] limbs;
+        private final int inv30;
+
+        private Modulus(BigInteger value) {
+            this.value = value;
+            this.limbs = toLimbs(value);
+            this.inv30 = value.modInverse(BigInteger.ONE.shiftLeft(30)).intValue();
+        }
+    }
+
+    /**
+     * <p>a^-1 mod N</p>
+     *
+     * @param a a {@link ch.bitagent.bitcoin.lib.ecc.Int} object
+     * @return a {@link ch.bitagent.bitcoin.lib.ecc.Int} object
+     */
+    public static Int modN(Int a) {
+        return new Int(inverse(a.bigInt(), ORDER));
+    }
+
+    /**
+     * <p>a^-1 mod P</p>
+     *
+     * @param a a {@link ch.bitagent.bitcoin.lib.ecc.Int} object
+     * @return a {@link ch.bitagent.bitcoin.lib.ecc.Int} object
+     */
+    public static Int modP(Int a) {
+        return new Int(inverse(a.bigInt(), PRIME));
+    }
+
+    /**
+     * <p>r = a^-1 mod P on the limbs of {@link S256FieldLimbs}, r and a may be the same array.</p>
+     *
+     * @param r normalized output
+     * @param a weakly normalized input
+     */
+    static void field(long[] r, long[] a) {
+        var x = S256FieldLimbs.normalize(a.clone());
+        // 26 bit limbs to 30 bit limbs
+        var g = new int[LIMBS];
+        long acc = 0;
+        int bits = 0;
+        int j = 0;
+        for (long limb : x) {
+            acc |= limb << bits;
+            bits += 26;
+            while (bits >= 30) {
+                g[j++] = (int) acc & M30;
+                acc >>>= 30;
+                bits -= 30;
+            }
+        }
+        g[j] = (int) acc;
+        var d = modinv(g, PRIME);
+        // and back
+        acc = 0;
+        bits = 0;
+        j = 0;
+        for (int limb : d) {
+            acc |= (long) limb << bits;
+            bits += 30;
+            while (bits >= 26 && j < S256FieldLimbs.LIMBS) {
+                r[j++] = acc & M26;
+                acc >>>= 26;
+                bits -= 26;
+            }
+        }
+    }
+
+    private static BigInteger inverse(BigInteger a, Modulus m) {
+        return toBigInteger(modinv(toLimbs(a.mod(m.value)), m));
+    }
+
+    private static int[] toLimbs(BigInteger a) {
+        var limbs = new int[LIMBS];
+        for (int i = 0; i < LIMBS; i++) {
+            limbs[i] = a.shiftRight(30 * i).intValue() & M30;
+        }
+        return limbs;
+    }
+
+    private static BigInteger toBigInteger(int[] limbs) {
+        var r = BigInteger.ZERO;
+        for (int i = LIMBS - 1; i >= 0; i--) {
+            r = r.shiftLeft(30).or(BigInteger.valueOf(limbs[i]));
+        }
+        return r;
+    }
+
+    /**
+     * <p>The inverse of g in [0, m) as limbs in [0, 2^30), with zeta = -(delta + 1/2) starting at -1.</p>
+     */
+    private static int[] modinv(int[] g, Modulus m) {
+        var d = new int[LIMBS];
+        var e = new int[LIMBS];
+        e[0] = 1;
+        var f = m.limbs.clone();
+        var t = new int[4];
+        int zeta = -1;
+        // 590 divsteps are enough for 256 bit inputs
+        for (int i = 0; i < 20; i++) {
+            zeta = divsteps30(zeta, f[0], g[0], t);
+            updateDe(d, e, t, m);
+            updateFg(f, g, t);
+        }
+        // g is 0 now and f is +/- 1, d is +/- the inverse
+        normalize(d, f[LIMBS - 1], m);
+        return d;
+    }
+
+    /**
+     * <p>30 divsteps on the low bits of f and g, the transition matrix (scaled by 2^30) goes to t = {u, v, q, r}.</p>
+     */
+    private static int divsteps30(int zeta, int f0, int g0, int[] t) {
+        int u = 1;
+        int v = 0;
+        int q = 0;
+        int r = 1;
+        int f = f0;
+        int g = g0;
+        for (int i = 0; i < 30; i++) {
+            // masks for zeta < 0 and g odd
+            int c1 = zeta >> 31;
+            int c2 = -(g & 1);
+            // conditionally negated f, u, v
+            int x = (f ^ c1) - c1;
+            int y = (u ^ c1) - c1;
+            int z = (v ^ c1) - c1;
+            // conditionally add them to g, q, r
+            g += x & c2;
+            q += y & c2;
+            r += z & c2;
+            c1 &= c2;
+            // zeta becomes -zeta - 2 or zeta - 1
+            zeta = (zeta ^ c1) - 1;
+            // conditionally add g, q, r to f, u, v
+            f += g & c1;
+            u += q & c1;
+            v += r & c1;
+            g >>>= 1;
+            u <<= 1;
+            v <<= 1;
+        }
+        t[0] = u;
+        t[1] = v;
+        t[2] = q;
+        t[3] = r;
+        return zeta;
+    }
+
+    /**
+     * <p>[d, e] = t * [d, e] / 2^30 mod m, adding multiples of m to make the division exact.</p>
+     */
+    private static void updateDe(int[] d, int[] e, int[] t, Modulus m) {
+        int u = t[0];
+        int v = t[1];
+        int q = t[2];
+        int r = t[3];
+        // md, me start as [u, q] if d is negative plus [v, r] if e is negative
+        int sd = d[LIMBS - 1] >> 31;
+        int se = e[LIMBS - 1] >> 31;
+        int md = (u & sd) + (v & se);
+        int me = (q & sd) + (r & se);
+        int di = d[0];
+        int ei = e[0];
+        long cd = (long) u * di + (long) v * ei;
+        long ce = (long) q * di + (long) r * ei;
+        // correct md, me so that t * [d, e] + m * [md, me] has 30 zero bottom bits
+        md -= (m.inv30 * (int) cd + md) & M30;
+        me -= (m.inv30 * (int) ce + me) & M30;
+        cd += (long) m.limbs[0] * md;
+        ce += (long) m.limbs[0] * me;
+        cd >>= 30;
+        ce >>= 30;
+        for (int i = 1; i < LIMBS; i++) {
+            di = d[i];
+            ei = e[i];
+            cd += (long) u * di + (long) v * ei + (long) m.limbs[i] * md;
+            ce += (long) q * di + (long) r * ei + (long) m.limbs[i] * me;
+            d[i - 1] = (int) cd & M30;
+            cd >>= 30;
+            e[i - 1] = (int) ce & M30;
+            ce >>= 30;
+        }
+        d[LIMBS - 1] = (int) cd;
+        e[LIMBS - 1] = (int) ce;
+    }
+
+    /**
+     * <p>[f, g] = t * [f, g] / 2^30, the division is exact.</p>
+     */
+    private static void updateFg(int[] f, int[] g, int[] t) {
+        int u = t[0];
+        int v = t[1];
+        int q = t[2];
+        int r = t[3];
+        int fi = f[0];
+        int gi = g[0];
+        long cf = (long) u * fi + (long) v * gi;
+        long cg = (long) q * fi + (long) r * gi;
+        cf >>= 30;
+        cg >>= 30;
+        for (int i = 1; i < LIMBS; i++) {
+            fi = f[i];
+            gi = g[i];
+            cf += (long) u * fi + (long) v * gi;
+            cg += (long) q * fi + (long) r * gi;
+            f[i - 1] = (int) cf & M30;
+            cf >>= 30;
+            g[i - 1] = (int) cg & M30;
+            cg >>= 30;
+        }
+        f[LIMBS - 1] = (int) cf;
+        g[LIMBS - 1] = (int) cg;
+    }
+
+    /**
+     * <p>Bring d from (-2m, m) to [0, m), negated if sign is negative.</p>
+     */
+    private static void normalize(int[] d, int sign, Modulus m) {
+        // add m if d is negative, then negate if requested: (-m, m)
+        int condAdd = d[LIMBS - 1] >> 31;
+        int condNegate = sign >> 31;
+        for (int i = 0; i < LIMBS; i++) {
+            d[i] += m.limbs[i] & condAdd;
+            d[i] = (d[i] ^ condNegate) - condNegate;
+        }
+        propagate(d);
+        // add m again if still negative: [0, m)
+        condAdd = d[LIMBS - 1] >> 31;
+        for (int i = 0; i < LIMBS; i++) {
+            d[i] += m.limbs[i] & condAdd;
+        }
+        propagate(d);
+    }
+
+    private static void propagate(int[] d) {
+        for (int i = 0; i < LIMBS - 1; i++) {
+            d[i + 1] += d[i] >> 30;
+            d[i] &= M30;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import java.util.Arrays;
+
+import static ch.bitagent.bitcoin.lib.ecc.S256FieldLimbs.isZero;
+import static ch.bitagent.bitcoin.lib.ecc.S256FieldLimbs.mul;
+import static ch.bitagent.bitcoin.lib.ecc.S256FieldLimbs.sqr;
+import static ch.bitagent.bitcoin.lib.ecc.S256FieldLimbs.sub;
+
+/**
+ * <p>A mutable point on the secp256k1 curve in Jacobian coordinates (x / z^2, y / z^3)</p>
+ *
+ * <p>Doubling and addition need no field inversion, only the final conversion to affine coordinates does.
+ * An instance is a working register: it is modified in place and must not be shared between threads.</p>
+ *
+ * <a href="https://hyperelliptic.org/EFD/g1p/auto-shortw-jacobian-0.html">Jacobian coordinates for short Weierstrass curves with a=0</a>
+ */
+final class S256Jacobian {
+
+    final long[] x = S256FieldLimbs.zero();
+    final long[] y = S256FieldLimbs.zero();
+    final long[] z = S256FieldLimbs.zero();
+    boolean infinity;
+
+    private final long[] t1 = S256FieldLimbs.zero();
+    private final long[] t2 = S256FieldLimbs.zero();
+    private final long[] t3 = S256FieldLimbs.zero();
+    private final long[] t4 = S256FieldLimbs.zero();
+    private final long[] t5 = S256FieldLimbs.zero();
+    private final long[] t6 = S256FieldLimbs.zero();
+
+    private S256Jacobian() {
+    }
+
+    /**
+     * <p>The point at infinity.</p>
+     *
+     * @return .
+     */
+    static S256Jacobian infinity() {
+        var r = new S256Jacobian();
+        r.infinity = true;
+        return r;
+    }
+
+    /**
+     * <p>A point from affine coordinates.</p>
+     *
+     * @param ax .
+     * @param ay .
+     * @return .
+     */
+    static S256Jacobian affine(long[] ax, long[] ay) {
+        var r = new S256Jacobian();
+        System.arraycopy(ax, 0, r.x, 0, S256FieldLimbs.LIMBS);
+        System.arraycopy(ay, 0, r.y, 0, S256FieldLimbs.LIMBS);
+        r.z[0] = 1;
+        return r;
+    }
+
+    /**
+     * <p>A point from Jacobian coordinates.</p>
+     *
+     * @param jx .
+     * @param jy .
+     * @param jz .
+     * @return .
+     */
+    static S256Jacobian jacobian(long[] jx, long[] jy, long[] jz) {
+        var r = new S256Jacobian();
+        System.arraycopy(jx, 0, r.x, 0, S256FieldLimbs.LIMBS);
+        System.arraycopy(jy, 0, r.y, 0, S256FieldLimbs.LIMBS);
+        System.arraycopy(jz, 0, r.z, 0, S256FieldLimbs.LIMBS);
+        return r;
+    }
+
+    /**
+     * <p>Set this to another point.</p>
+     *
+     * @param o .
+     * @return this
+     */
+    S256Jacobian set(S256Jacobian o) {
+        System.arraycopy(o.x, 0, this.x, 0, S256FieldLimbs.LIMBS);
+        System.arraycopy(o.y, 0, this.y, 0, S256FieldLimbs.LIMBS);
+        System.arraycopy(o.z, 0, this.z, 0, S256FieldLimbs.LIMBS);
+        this.infinity = o.infinity;
+        return this;
+    }
+
+    /**
+     * <p>A copy of this point.</p>
+     *
+     * @return .
+     */
+    S256Jacobian copy() {
+        return new S256Jacobian().set(this);
+    }
+
+    /**
+     * <p>this = -this</p>
+     *
+     * @return this
+     */
+    S256Jacobian neg() {
+        S256FieldLimbs.neg(this.y, this.y);
+        return this;
+    }
+
+    /**
+     * <p>this = 2 * this (dbl-2009-l)</p>
+     *
+     * @return this
+     */
+    S256Jacobian dbl() {
+        if (this.infinity) {
+            return this;
+        }
+        // A = X1^2, B = Y1^2, C = B^2
+        sqr(t1, x);
+        sqr(t2, y);
+        sqr(t3, t2);
+        // D = 2 * ((X1 + B)^2 - A - C)
+        S256FieldLimbs.add(t4, x, t2);
+        sqr(t4, t4);
+        sub(t4, t4, t1);
+        sub(t4, t4, t3);
+        mul(t4, t4, 2);
+        // E = 3 * A, F = E^2
+        mul(t5, t1, 3);
+        sqr(t6, t5);
+        // Z3 = 2 * Y1 * Z1
+        mul(z, y, z);
+        mul(z, z, 2);
+        // X3 = F - 2 * D
+        mul(t1, t4, 2);
+        sub(x, t6, t1);
+        // Y3 = E * (D - X3) - 8 * C
+        sub(t4, t4, x);
+        mul(t4, t5, t4);
+        mul(t3, t3, 8);
+        sub(y, t4, t3);
+        return this;
+    }
+
+    /**
+     * <p>this = this + o (add-2007-bl without the shared Z optimization)</p>
+     *
+     * @param o .
+     * @return this
+     */
+    S256Jacobian add(S256Jacobian o) {
+        if (o.infinity) {
+            return this;
+        }
+        if (this.infinity) {
+            return this.set(o);
+        }
+        // U1 = X1 * Z2^2, U2 = X2 * Z1^2, S1 = Y1 * Z2^3, S2 = Y2 * Z1^3
+        sqr(t1, z);
+        sqr(t2, o.z);
+        mul(t3, x, t2);
+        mul(t4, o.x, t1);
+        mul(t5, y, o.z);
+        mul(t5, t5, t2);
+        mul(t6, o.y, z);
+        mul(t6, t6, t1);
+        // Z3 = Z1 * Z2 * H
+        mul(t1, z, o.z);
+        return this.finishAdd(t1);
+    }
+
+    /**
+     * <p>this = this + (ax, ay) for an affine point (madd-2007-bl)</p>
+     *
+     * @param ax .
+     * @param ay .
+     * @return this
+     */
+    S256Jacobian addAffine(long[] ax, long[] ay) {
+        if (this.infinity) {
+            System.arraycopy(ax, 0, this.x, 0, S256FieldLimbs.LIMBS);
+            System.arraycopy(ay, 0, this.y, 0, S256FieldLimbs.LIMBS);
+            Arrays.fill(this.z, 0);
+            this.z[0] = 1;
+            this.infinity = false;
+            return this;
+        }
+        // U1 = X1, U2 = X2 * Z1^2, S1 = Y1, S2 = Y2 * Z1^3
+        sqr(t1, z);
+        System.arraycopy(x, 0, t3, 0, S256FieldLimbs.LIMBS);
+        mul(t4, ax, t1);
+        System.arraycopy(y, 0, t5, 0, S256FieldLimbs.LIMBS);
+        mul(t6, ay, z);
+        mul(t6, t6, t1);
+        // Z3 = Z1 * H
+        System.arraycopy(z, 0, t1, 0, S256FieldLimbs.LIMBS);
+        return this.finishAdd(t1);
+    }
+
+    private S256Jacobian finishAdd(long[] zz) {
+        // H = U2 - U1, R = S2 - S1
+        sub(t4, t4, t3);
+        sub(t6, t6, t5);
+        if (isZero(t4)) {
+            if (isZero(t6)) {
+                return this.dbl();
+            }
+            this.infinity = true;
+            return this;
+        }
+        mul(z, zz, t4);
+        // HH = H^2, HHH = H * HH, V = U1 * HH
+        sqr(t1, t4);
+        mul(t2, t4, t1);
+        mul(t3, t3, t1);
+        // X3 = R^2 - HHH - 2 * V
+        sqr(x, t6);
+        sub(x, x, t2);
+        mul(t1, t3, 2);
+        sub(x, x, t1);
+        // Y3 = R * (V - X3) - S1 * HHH
+        sub(t3, t3, x);
+        mul(t3, t6, t3);
+        mul(t5, t5, t2);
+        sub(y, t3, t5);
+        return this;
+    }
+
+    /**
+     * <p>The normalized affine coordinates of a point which is not infinity.</p>
+     *
+     * @param ax the x coordinate output
+     * @param ay the y coordinate output
+     */
+    void toAffine(long[] ax, long[] ay) {
+        var zInv = S256FieldLimbs.zero();
+        S256FieldLimbs.inv(zInv, this.z);
+        toAffine(zInv, ax, ay);
+    }
+
+    /**
+     * <p>The normalized affine coordinates of many points which are not infinity, with a single field inversion
+     * (Montgomery's trick).</p>
+     *
+     * @param points .
+     * @param ax     the x coordinate outputs
+     * @param ay     the y coordinate outputs
+     */
+    static void toAffine(S256Jacobian[] points, long[][] ax, long[][] ay) {
+        int n = points.length;
+        if (n == 0) {
+            return;
+        }
+        // prefix products z_0 * ... * z_i
+        var prefix = new long[n][];
+        prefix[0] = points[0].z.clone();
+        for (int i = 1; i < n; i++) {
+            prefix[i] = S256FieldLimbs.zero();
+            mul(prefix[i], prefix[i - 1], points[i].z);
+        }
+        var inv = S256FieldLimbs.zero();
+        S256FieldLimbs.inv(inv, prefix[n - 1]);
+        var zInv = S256FieldLimbs.zero();
+        for (int i = n - 1; i > 0; i--) {
+            // 1 / z_i = (z_0 * ... * z_(i-1)) / (z_0 * ... * z_i)
+            mul(zInv, inv, prefix[i - 1]);
+            mul(inv, inv, points[i].z);
+            points[i].toAffine(zInv, ax[i], ay[i]);
+        }
+        points[0].toAffine(inv, ax[0], ay[0]);
+    }
+
+    /**
+     * <p>The normalized affine coordinates of a point which is not infinity, given the inverse of z.</p>
+     *
+     * @param zInv .
+     * @param ax   the x coordinate output
+     * @param ay   the y coordinate output
+     */
+    void toAffine(long[] zInv, long[] ax, long[] ay) {
+        var zInv2 = S256FieldLimbs.zero();
+        sqr(zInv2, zInv);
+        mul(ax, this.x, zInv2);
+        mul(zInv2, zInv2, zInv);
+        mul(ay, this.y, zInv2);
+        S256FieldLimbs.normalize(ax);
+        S256FieldLimbs.normalize(ay);
+    }
+}
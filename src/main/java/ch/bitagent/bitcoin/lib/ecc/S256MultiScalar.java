@@ -0,0 +1,163 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import java.math.BigInteger;
+
+/**
+ * Multi scalar multiplication k_1 * P_1 + .. + k_n * P_n with the bucket method of Pippenger
+ *
+ * <p>Every scalar is first split with the GLV endomorphism, so the sum runs over 2n points with scalars of about
+ * 128 bits. The scalars are recoded into signed digits of c bits. In each window every point is added into the bucket
+ * of the absolute value of its digit, negated for a negative digit, and the buckets are summed with a running sum,
+ * so a window costs about 2n + 2^c additions instead of n times c doublings. The window width c is chosen for the
+ * number of points.</p>
+ *
+ * <a href="https://github.com/bitcoin/bips/blob/master/bip-0340.mediawiki#batch-verification">BIP-0340 Batch Verification</a>
+ */
+final class S256MultiScalar {
+
+    private static final int MAX_WINDOW = 16;
+
+    private S256MultiScalar() {
+    }
+
+    /**
+     * <p>k_1 * P_1 + .. + k_n * P_n</p>
+     *
+     * @param points  .
+     * @param scalars scalars in [0, N)
+     * @return a new working point
+     */
+    static S256Jacobian mul(S256Point[] points, BigInteger[] scalars) {
+        int n = points.length;
+        var xs = new long[2 * n][];
+        var ys = new long[2 * n][];
+        var ks = new BigInteger[2 * n];
+        int m = 0;
+        int bits = 0;
+        for (int i = 0; i < n; i++) {
+            if (points[i].isInfinity() || scalars[i].signum() == 0) {
+                continue;
+            }
+            var x = ((S256Field) points[i].getX()).limbs();
+            var y = ((S256Field) points[i].getY()).limbs();
+            var split = S256Endomorphism.split(scalars[i]);
+            var phiX = S256FieldLimbs.zero();
+            S256FieldLimbs.mul(phiX, x, S256Endomorphism.BETA);
+            // k1 * P + k2 * phi(P), a negative half negates its point
+            m = add(xs, ys, ks, m, x, y, split[0]);
+            m = add(xs, ys, ks, m, phiX, y, split[1]);
+            bits = Math.max(bits, Math.max(split[0].abs().bitLength(), split[1].abs().bitLength()));
+        }
+        var result = S256Jacobian.infinity();
+        if (m == 0) {
+            return result;
+        }
+        int c = window(m, bits);
+        int windows = bits / c + 1;
+        var digits = new int[m][];
+        for (int i = 0; i < m; i++) {
+            digits[i] = recode(ks[i], c, windows);
+        }
+        var buckets = new S256Jacobian[1 << (c - 1)];
+        for (int j = 0; j < buckets.length; j++) {
+            buckets[j] = S256Jacobian.infinity();
+        }
+        var running = S256Jacobian.infinity();
+        var windowSum = S256Jacobian.infinity();
+        var negY = S256FieldLimbs.zero();
+        for (int w = windows - 1; w >= 0; w--) {
+            for (int d = 0; d < c; d++) {
+                result.dbl();
+            }
+            for (var bucket : buckets) {
+                bucket.infinity = true;
+            }
+            for (int i = 0; i < m; i++) {
+                int digit = digits[i][w];
+                if (digit > 0) {
+                    buckets[digit - 1].addAffine(xs[i], ys[i]);
+                } else if (digit < 0) {
+                    S256FieldLimbs.neg(negY, ys[i]);
+                    buckets[-digit - 1].addAffine(xs[i], negY);
+                }
+            }
+            // sum of j * bucket_j = sum over j of the running sums from the top
+            running.infinity = true;
+            windowSum.infinity = true;
+            for (int j = buckets.length - 1; j >= 0; j--) {
+                running.add(buckets[j]);
+                windowSum.add(running);
+            }
+            result.add(windowSum);
+        }
+        return result;
+    }
+
+    private static int add(long[][] xs, long[][] ys, BigInteger[] ks, int m, long[] x, long[] y, BigInteger k) {
+        if (k.signum() == 0) {
+            return m;
+        }
+        xs[m] = x;
+        if (k.signum() < 0) {
+            var negY = S256FieldLimbs.zero();
+            S256FieldLimbs.neg(negY, y);
+            ys[m] = negY;
+        } else {
+            ys[m] = y;
+        }
+        ks[m] = k.abs();
+        return m + 1;
+    }
+
+    /**
+     * <p>The window width with the fewest additions for m points and scalars of the given bits.</p>
+     *
+     * @param m    .
+     * @param bits .
+     * @return .
+     */
+    static int window(int m, int bits) {
+        int best = 1;
+        long bestCost = Long.MAX_VALUE;
+        for (int c = 1; c <= MAX_WINDOW; c++) {
+            long windows = bits / c + 1;
+            long cost = windows * (m + (1L << c)) + bits;
+            if (cost < bestCost) {
+                best = c;
+                bestCost = cost;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * <p>Signed digits of c bits in [-2^(c-1), 2^(c-1)], least significant first, for a scalar below 2^(windows*c-1).</p>
+     *
+     * @param k       .
+     * @param c       .
+     * @param windows .
+     * @return .
+     */
+    static int[] recode(BigInteger k, int c, int windows) {
+        var words = new long[(windows * c + 63) / 64 + 1];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = k.shiftRight(64 * i).longValue();
+        }
+        var digits = new int[windows];
+        int carry = 0;
+        long mask = (1L << c) - 1;
+        for (int w = 0; w < windows; w++) {
+            int from = w * c;
+            int word = from >>> 6;
+            int shift = from & 63;
+            long bits = words[word] >>> shift;
+            if (shift + c > 64) {
+                bits |= words[word + 1] << (64 - shift);
+            }
+            int digit = (int) (bits & mask) + carry;
+            carry = digit > (1 << (c - 1)) ? 1 : 0;
+            digits[w] = digit - (carry << c);
+        }
+        return digits;
+    }
+}
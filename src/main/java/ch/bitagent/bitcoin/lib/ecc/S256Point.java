@@ -6,15 +6,19 @@ import ch.bitagent.bitcoin.lib.helper.Bytes;
 import ch.bitagent.bitcoin.lib.helper.Hash;
 import ch.bitagent.bitcoin.lib.script.Script;
 
-import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.logging.Logger;
 
 /**
  * A point (public key) on a secp256k1 elliptic curve
+ *
+ * <p>The point is kept in Jacobian coordinates, the affine coordinates are computed on first use.</p>
  */
 public class S256Point extends Point {
 
+    private static final Logger log = Logger.getLogger(S256Point.class.getSimpleName());
+
     /**
      * Constant <code>N</code>
      */
@@ -23,11 +27,43 @@ public class S256Point extends Point {
 
     private static final Int GX = Hex.parse("79be667ef9dcbbac55a06295ce870b07029bfcdb2dce28d959f2815b16f81798");
     private static final Int GY = Hex.parse("483ada7726a3c4655da4fbfc0e1108a8fd17b448a68554199c47d08ffb10d4b8");
-    private static S256Point g;
 
     private static final Int A = Int.parse(0);
     private static final Int B = Int.parse(7);
 
+    private static final S256Field FIELD_A = new S256Field(A);
+    private static final S256Field FIELD_B = new S256Field(B);
+    private static final long[] ONE = S256FieldLimbs.of(1);
+
+    // initialized with the class, after the constants it depends on
+    private static final S256Point G = new S256Point(new S256Field(GX), new S256Field(GY));
+
+    /**
+     * Constant <code>GENERATOR_WINDOW</code>, the default window width of the generator table
+     */
+    public static final int GENERATOR_WINDOW = 8;
+
+    private static int generatorWindow = GENERATOR_WINDOW;
+    private static volatile S256PointTable generatorTable;
+
+    // Jacobian coordinates, never modified, null for the point at infinity
+    private final long[] jx;
+    private final long[] jy;
+    private final long[] jz;
+
+    // affine coordinates, converted on first use
+    private Affine affine;
+
+    private static final class Affine {
+        private final S256Field x;
+        private final S256Field y;
+
+        private Affine(S256Field x, S256Field y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
     /**
      * <p>Constructor for S256Point.</p>
      *
@@ -35,7 +71,69 @@ public class S256Point extends Point {
      * @param y a {@link ch.bitagent.bitcoin.lib.ecc.S256Field} object
      */
     public S256Point(S256Field x, S256Field y) {
-        super(x, y, new S256Field(A), new S256Field(B));
+        super(FIELD_A, FIELD_B);
+        if (x == null && y == null) {
+            this.jx = null;
+            this.jy = null;
+            this.jz = null;
+            return;
+        }
+        if (x == null || y == null) {
+            throw new IllegalStateException();
+        }
+        // y^2 = x^3 + 7
+        var left = S256FieldLimbs.zero();
+        S256FieldLimbs.sqr(left, y.limbs());
+        var right = S256FieldLimbs.zero();
+        S256FieldLimbs.sqr(right, x.limbs());
+        S256FieldLimbs.mul(right, right, x.limbs());
+        S256FieldLimbs.add(right, right, FIELD_B.limbs());
+        if (!S256FieldLimbs.eq(left, right)) {
+            String error = String.format("S256Point(0x%s,0x%s) is not on the curve", x.getNum().toHex(), y.getNum().toHex());
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        this.jx = x.limbs();
+        this.jy = y.limbs();
+        this.jz = ONE;
+        this.affine = new Affine(x, y);
+    }
+
+    /**
+     * <p>Constructor for a trusted result of the point arithmetic, which is not validated again.</p>
+     *
+     * @param jacobian a {@link ch.bitagent.bitcoin.lib.ecc.S256Jacobian} object
+     */
+    S256Point(S256Jacobian jacobian) {
+        super(FIELD_A, FIELD_B);
+        if (jacobian.infinity) {
+            this.jx = null;
+            this.jy = null;
+            this.jz = null;
+        } else {
+            this.jx = jacobian.x.clone();
+            this.jy = jacobian.y.clone();
+            this.jz = jacobian.z.clone();
+        }
+    }
+
+    private S256Point(Affine affine) {
+        super(FIELD_A, FIELD_B);
+        this.jx = affine.x.limbs();
+        this.jy = affine.y.limbs();
+        this.jz = ONE;
+        this.affine = affine;
+    }
+
+    /**
+     * <p>A point from trusted normalized affine coordinates, which are taken over and not validated again.</p>
+     *
+     * @param ax .
+     * @param ay .
+     * @return .
+     */
+    static S256Point fromAffine(long[] ax, long[] ay) {
+        return new S256Point(new Affine(new S256Field(ax), new S256Field(ay)));
     }
 
     /**
@@ -44,10 +142,126 @@ public class S256Point extends Point {
      * @return a {@link ch.bitagent.bitcoin.lib.ecc.S256Point} object
      */
     public static S256Point getG() {
-        if (S256Point.g == null) {
-            S256Point.g = new S256Point(new S256Field(GX), new S256Field(GY));
+        return S256Point.G;
+    }
+
+    /**
+     * <p>Set the window width of the precomputed generator table, trading memory for speed.</p>
+     *
+     * <p>The table holds ceil(256 / w) * (2^w - 1) points and a multiplication of the generator needs at most
+     * ceil(256 / w) additions. The table is built again on the next use.</p>
+     *
+     * @param window the window width in bits, 1 to 8
+     */
+    public static synchronized void setGeneratorWindow(int window) {
+        if (window < S256PointTable.MIN_WINDOW || window > S256PointTable.MAX_WINDOW) {
+            String error = String.format("Window %s is not between %s and %s", window, S256PointTable.MIN_WINDOW, S256PointTable.MAX_WINDOW);
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        S256Point.generatorWindow = window;
+        S256Point.generatorTable = null;
+    }
+
+    /**
+     * <p>The precomputed generator table, built on first use.</p>
+     *
+     * @return .
+     */
+    static S256PointTable getGeneratorTable() {
+        var table = S256Point.generatorTable;
+        if (table == null) {
+            synchronized (S256Point.class) {
+                table = S256Point.generatorTable;
+                if (table == null) {
+                    table = new S256PointTable(S256Point.G, S256Point.generatorWindow);
+                    S256Point.generatorTable = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * <p>Is this the point at infinity.</p>
+     *
+     * @return .
+     */
+    boolean isInfinity() {
+        return this.jx == null;
+    }
+
+    /**
+     * <p>A working copy in Jacobian coordinates.</p>
+     *
+     * @return .
+     */
+    S256Jacobian jacobian() {
+        if (this.isInfinity()) {
+            return S256Jacobian.infinity();
+        }
+        return S256Jacobian.jacobian(this.jx, this.jy, this.jz);
+    }
+
+    private Affine affine() {
+        var a = this.affine;
+        if (a == null && !this.isInfinity()) {
+            var ax = S256FieldLimbs.zero();
+            var ay = S256FieldLimbs.zero();
+            this.jacobian().toAffine(ax, ay);
+            a = new Affine(new S256Field(ax), new S256Field(ay));
+            this.affine = a;
+        }
+        return a;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PointOperators getX() {
+        var a = this.affine();
+        return a == null ? null : a.x;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PointOperators getY() {
+        var a = this.affine();
+        return a == null ? null : a.y;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean eq(Point otherPoint) {
+        if (!(otherPoint instanceof S256Point)) {
+            return super.eq(otherPoint);
+        }
+        var other = (S256Point) otherPoint;
+        if (this.isInfinity() || other.isInfinity()) {
+            return this.isInfinity() && other.isInfinity();
         }
-        return S256Point.g;
+        // x1 * z2^2 = x2 * z1^2 and y1 * z2^3 = y2 * z1^3
+        var z1z1 = S256FieldLimbs.zero();
+        S256FieldLimbs.sqr(z1z1, this.jz);
+        var z2z2 = S256FieldLimbs.zero();
+        S256FieldLimbs.sqr(z2z2, other.jz);
+        var left = S256FieldLimbs.zero();
+        S256FieldLimbs.mul(left, this.jx, z2z2);
+        var right = S256FieldLimbs.zero();
+        S256FieldLimbs.mul(right, other.jx, z1z1);
+        if (!S256FieldLimbs.eq(left, right)) {
+            return false;
+        }
+        S256FieldLimbs.mul(left, this.jy, z2z2);
+        S256FieldLimbs.mul(left, left, other.jz);
+        S256FieldLimbs.mul(right, other.jy, z1z1);
+        S256FieldLimbs.mul(right, right, this.jz);
+        return S256FieldLimbs.eq(left, right);
     }
 
     /**
@@ -55,13 +269,19 @@ public class S256Point extends Point {
      */
     @Override
     public S256Point add(Point other) {
-        Point point = super.add(other);
-        if (point.getX() == null) {
+        S256Point otherPoint;
+        if (other instanceof S256Point) {
+            otherPoint = (S256Point) other;
+        } else if (other.getX() == null) {
+            otherPoint = new S256Point(null, null);
+        } else {
+            otherPoint = new S256Point((S256Field) other.getX(), (S256Field) other.getY());
+        }
+        var sum = this.jacobian().add(otherPoint.jacobian());
+        if (sum.infinity) {
             return null;
         }
-        var x = new S256Field(getNum(point.getX()));
-        var y = new S256Field(getNum(point.getY()));
-        return new S256Point(x, y);
+        return new S256Point(sum);
     }
 
     /**
@@ -69,17 +289,54 @@ public class S256Point extends Point {
      */
     @Override
     public S256Point mul(Int coefficient) {
-        var coeff = coefficient.mod(N);
-        Point point = super.mul(coeff);
-        if (point.getX() == null && point.getY() == null) {
-            return new S256Point(null, null);
-        } else if (point.getX() != null) {
-            var x = new S256Field(getNum(point.getX()));
-            var y = new S256Field(getNum(point.getY()));
-            return new S256Point(x, y);
-        } else {
-            throw new IllegalStateException();
+        if (this == S256Point.G) {
+            return new S256Point(getGeneratorTable().mul(coefficient.mod(N)));
+        }
+        if (this.isInfinity()) {
+            return new S256Point(S256Jacobian.infinity());
+        }
+        var table = hotTable(this);
+        if (table != null) {
+            return new S256Point(table.mul(coefficient.mod(N)));
+        }
+        var a = this.affine();
+        return new S256Point(S256Endomorphism.mul(a.x.limbs(), a.y.limbs(), coefficient.mod(N).bigInt()));
+    }
+
+    /**
+     * <p>u * G + v * point in a single doubling chain (Strauss-Shamir).</p>
+     *
+     * <p>If point is registered in {@link HotKeyTables#getDefault()}, its table is used instead.</p>
+     *
+     * @param u     a {@link ch.bitagent.bitcoin.lib.ecc.Int} object
+     * @param point a {@link ch.bitagent.bitcoin.lib.ecc.S256Point} object
+     * @param v     a {@link ch.bitagent.bitcoin.lib.ecc.Int} object
+     * @return a {@link ch.bitagent.bitcoin.lib.ecc.S256Point} object, the point at infinity has no coordinates
+     */
+    public static S256Point mulAdd(Int u, S256Point point, Int v) {
+        if (point.isInfinity()) {
+            return S256Point.G.mul(u);
         }
+        var table = hotTable(point);
+        if (table != null) {
+            // two fixed base multiplications, no doubling at all
+            var r = getGeneratorTable().mul(u.mod(N));
+            r.add(table.mul(v.mod(N)));
+            return new S256Point(r);
+        }
+        var a = point.affine();
+        return new S256Point(S256Endomorphism.mulAdd(u.mod(N).bigInt(), a.x.limbs(), a.y.limbs(), v.mod(N).bigInt()));
+    }
+
+    /**
+     * <p>The table of a registered hot key, null if the point has none.</p>
+     */
+    private static S256PointTable hotTable(S256Point point) {
+        var tables = HotKeyTables.getDefault();
+        if (tables == null || tables.size() == 0) {
+            return null;
+        }
+        return tables.get(point);
     }
 
     /**
@@ -90,11 +347,14 @@ public class S256Point extends Point {
      * @return a boolean
      */
     public boolean verify(Int z, Signature signature) {
-        var sInv = signature.getS().powMod(N.sub(Int.parse(2)), N);
+        var sInv = S256Inverse.modN(signature.getS());
         var u = sInv.mul(z).mod(N);
         var v = sInv.mul(signature.getR()).mod(N);
-        var total = S256Point.getG().mul(u).add(this.mul(v));
-        return ((S256Field) total.getX()).num.eq(signature.getR());
+        var total = S256Point.mulAdd(u, this, v);
+        if (total.isInfinity()) {
+            return false;
+        }
+        return ((S256Field) total.getX()).getNum().eq(signature.getR());
     }
 
     /**
@@ -105,15 +365,15 @@ public class S256Point extends Point {
      */
     public byte[] sec(Boolean compressed) {
         compressed = Objects.requireNonNullElse(compressed, true);
-        byte[] x = ((S256Field) this.getX()).num.toBytes(32);
+        byte[] x = ((S256Field) this.getX()).getNum().toBytes(32);
         if (Boolean.TRUE.equals(compressed)) {
-            if (((S256Field) this.getY()).num.mod(Int.parse(2)).eq(Int.parse(0))) {
+            if (((S256Field) this.getY()).getNum().mod(Int.parse(2)).eq(Int.parse(0))) {
                 return Bytes.add(new byte[]{0x02}, x);
             } else {
                 return Bytes.add(new byte[]{0x03}, x);
             }
         } else {
-            return Bytes.add(new byte[][]{new byte[]{0x04}, x, ((S256Field) this.getY()).num.toBytes(32)});
+            return Bytes.add(new byte[][]{new byte[]{0x04}, x, ((S256Field) this.getY()).getNum().toBytes(32)});
         }
     }
 
@@ -168,47 +428,107 @@ public class S256Point extends Point {
      * @return a {@link ch.bitagent.bitcoin.lib.ecc.S256Point} object
      */
     public static S256Point parse(byte[] secBin) {
+        return parse(secBin, true);
+    }
+
+    /**
+     * returns a Point object from a SEC binary (not hex)
+     *
+     * <p>Single-use keys, like the inputs of a scanned block or a recovered nonce, are parsed without the cache.</p>
+     *
+     * @param secBin an array of {@link byte} objects
+     * @param cache  whether the default {@link PublicKeyCache} is used for a compressed key
+     * @return a {@link ch.bitagent.bitcoin.lib.ecc.S256Point} object
+     */
+    public static S256Point parse(byte[] secBin, boolean cache) {
         if (secBin[0] == 4) {
             // uncompressed
             var x = Hex.parse(Arrays.copyOfRange(secBin, 1, 33));
             var y = Hex.parse(Arrays.copyOfRange(secBin, 33, 65));
             return new S256Point(new S256Field(x), new S256Field(y));
         } else if (secBin[0] == 2 || secBin[0] == 3) {
-            // compressed
-            var x = new S256Field(Hex.parse(Arrays.copyOfRange(secBin, 1, 33)));
-            var alpha = x.pow(Int.parse(3)).add(new S256Field(B));
-            var beta = alpha.sqrt();
-            S256Field evenBeta;
-            S256Field oddBeta;
-            if (beta.num.mod(Int.parse(2)).eq(Int.parse(0))) {
-                evenBeta = beta;
-                oddBeta = new S256Field(S256Field.P.sub(beta.num));
-            } else {
-                evenBeta = new S256Field(S256Field.P.sub(beta.num));
-                oddBeta = beta;
+            // compressed, the square root is cached
+            var key = Arrays.copyOf(secBin, 33);
+            if (!cache) {
+                return parseCompressed(key);
             }
-            var isEven = secBin[0] == 2;
-            if (isEven) {
-                return new S256Point(x, evenBeta);
-            } else {
-                return new S256Point(x, oddBeta);
+            var keyCache = PublicKeyCache.getDefault();
+            var point = keyCache == null ? null : keyCache.get(key);
+            if (point == null) {
+                point = parseCompressed(key);
+                if (keyCache != null) {
+                    keyCache.put(key, point);
+                }
             }
+            return point;
         } else {
             throw new IllegalArgumentException("Invalid pubkey");
         }
     }
 
+    private static S256Point parseCompressed(byte[] secBin) {
+        var x = new S256Field(Hex.parse(Arrays.copyOfRange(secBin, 1, 33)));
+        var alpha = x.pow(Int.parse(3)).add(new S256Field(B));
+        var beta = alpha.sqrt();
+        S256Field evenBeta;
+        S256Field oddBeta;
+        if (beta.getNum().mod(Int.parse(2)).eq(Int.parse(0))) {
+            evenBeta = beta;
+            oddBeta = new S256Field(S256Field.P.sub(beta.getNum()));
+        } else {
+            evenBeta = new S256Field(S256Field.P.sub(beta.getNum()));
+            oddBeta = beta;
+        }
+        var isEven = secBin[0] == 2;
+        if (isEven) {
+            return new S256Point(x, evenBeta);
+        } else {
+            return new S256Point(x, oddBeta);
+        }
+    }
+
     public static S256Point liftX(Int x) {
+        return liftX(x, true);
+    }
+
+    /**
+     * <p>Lift an x coordinate to the point with even y, null if there is none.</p>
+     *
+     * <p>One-time points like a signature nonce R are lifted without the cache, they would only evict the keys that
+     * are used again.</p>
+     *
+     * @param x     .
+     * @param cache whether the default {@link PublicKeyCache} is used
+     * @return .
+     */
+    public static S256Point liftX(Int x, boolean cache) {
         if (x.ge(P)) {
             return null;
         }
-        var ySq = x.powMod(Int.parse(3), P).add(Int.parse(7)).mod(P);
-        var y = ySq.powMod(P.add(Int.parse(1)).div(Int.parse(4)), P);
-        if (y.powMod(Int.parse(2), P).ne(ySq)) {
-            return null;
+        if (!cache) {
+            return liftXUncached(x);
+        }
+        // the square root is cached
+        var key = x.toBytes(32);
+        var keyCache = PublicKeyCache.getDefault();
+        var point = keyCache == null ? null : keyCache.get(key);
+        if (point == null) {
+            point = liftXUncached(x);
+            if (point != null && keyCache != null) {
+                keyCache.put(key, point);
+            }
         }
+        return point;
+    }
+
+    private static S256Point liftXUncached(Int x) {
         var xField = new S256Field(x);
-        var yField = y.bigInt().and(BigInteger.ONE).compareTo(BigInteger.ZERO) == 0 ? new S256Field(y) : new S256Field(P.sub(y));
+        var ySq = xField.pow(Int.parse(3)).add(new S256Field(B));
+        var y = ySq.sqrt();
+        if (y.pow(Int.parse(2)).ne(ySq)) {
+            return null;
+        }
+        var yField = y.getNum().bigInt().testBit(0) ? new S256Field(P.sub(y.getNum())) : y;
         return new S256Point(xField, yField);
     }
 
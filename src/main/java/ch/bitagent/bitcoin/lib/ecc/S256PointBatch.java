@@ -0,0 +1,130 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Public keys of many secrets at once
+ *
+ * <p>The points are computed in Jacobian coordinates and converted to affine coordinates together, with a single
+ * field inversion for all of them (Montgomery's trick). Consecutive secrets need only one mixed addition of G per key
+ * instead of a multiplication. The returned points have their affine coordinates ready, so sec, hash160 and the
+ * addresses do not invert again.</p>
+ *
+ * <p>The streams compute chunks of {@value #CHUNK} keys in parallel and keep the order of the secrets, e.g.
+ * <code>S256PointBatch.stream(start, count).map(p -&gt; p.addressBech32P2wpkh(false))</code>.</p>
+ */
+public final class S256PointBatch {
+
+    /** Constant <code>CHUNK</code>, the number of keys converted with one inversion by the streams */
+    public static final int CHUNK = 1024;
+
+    private S256PointBatch() {
+    }
+
+    /**
+     * <p>secret * G for every secret.</p>
+     *
+     * @param secrets .
+     * @return .
+     */
+    public static S256Point[] mul(Int[] secrets) {
+        var table = S256Point.getGeneratorTable();
+        var points = new S256Jacobian[secrets.length];
+        for (int i = 0; i < secrets.length; i++) {
+            points[i] = table.mul(secrets[i].mod(S256Point.N));
+        }
+        return toPoints(points);
+    }
+
+    /**
+     * <p>(start + i) * G for i = 0 .. count - 1.</p>
+     *
+     * @param start .
+     * @param count .
+     * @return .
+     */
+    public static S256Point[] sequence(Int start, int count) {
+        if (count == 0) {
+            return new S256Point[0];
+        }
+        var points = new S256Jacobian[count];
+        var g = S256Point.getG();
+        var gx = ((S256Field) g.getX()).limbs();
+        var gy = ((S256Field) g.getY()).limbs();
+        var acc = S256Point.getGeneratorTable().mul(start.mod(S256Point.N));
+        points[0] = acc.copy();
+        for (int i = 1; i < count; i++) {
+            acc.addAffine(gx, gy);
+            points[i] = acc.copy();
+        }
+        return toPoints(points);
+    }
+
+    /**
+     * <p>The private keys of the secrets, with their points computed by {@link #mul(Int[])}.</p>
+     *
+     * @param secrets .
+     * @return .
+     */
+    public static PrivateKey[] privateKeys(Int[] secrets) {
+        var points = mul(secrets);
+        var keys = new PrivateKey[secrets.length];
+        for (int i = 0; i < secrets.length; i++) {
+            keys[i] = new PrivateKey(secrets[i], points[i]);
+        }
+        return keys;
+    }
+
+    /**
+     * <p>secret * G for every secret, as a parallel stream in the order of the secrets.</p>
+     *
+     * @param secrets .
+     * @return .
+     */
+    public static Stream<S256Point> stream(Int[] secrets) {
+        int chunks = (secrets.length + CHUNK - 1) / CHUNK;
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> mul(Arrays.copyOfRange(secrets, c * CHUNK, Math.min(secrets.length, (c + 1) * CHUNK))))
+                .flatMap(Arrays::stream);
+    }
+
+    /**
+     * <p>(start + i) * G for i = 0 .. count - 1, as a parallel stream in the order of i.</p>
+     *
+     * @param start .
+     * @param count .
+     * @return .
+     */
+    public static Stream<S256Point> stream(Int start, long count) {
+        long chunks = (count + CHUNK - 1) / CHUNK;
+        return LongStream.range(0, chunks).parallel()
+                .mapToObj(c -> sequence(start.add(Int.parse(c * CHUNK)), (int) Math.min(CHUNK, count - c * CHUNK)))
+                .flatMap(Arrays::stream);
+    }
+
+    private static S256Point[] toPoints(S256Jacobian[] points) {
+        // the point at infinity has no affine coordinates
+        var finite = Arrays.stream(points).filter(p -> !p.infinity).toArray(S256Jacobian[]::new);
+        var ax = new long[finite.length][];
+        var ay = new long[finite.length][];
+        for (int i = 0; i < finite.length; i++) {
+            ax[i] = S256FieldLimbs.zero();
+            ay[i] = S256FieldLimbs.zero();
+        }
+        S256Jacobian.toAffine(finite, ax, ay);
+        var result = new S256Point[points.length];
+        int j = 0;
+        for (int i = 0; i < points.length; i++) {
+            if (points[i].infinity) {
+                result[i] = new S256Point(points[i]);
+            } else {
+                result[i] = S256Point.fromAffine(ax[j], ay[j]);
+                j++;
+            }
+        }
+        return result;
+    }
+}
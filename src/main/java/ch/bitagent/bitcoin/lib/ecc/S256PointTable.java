@@ -0,0 +1,114 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import java.util.logging.Logger;
+
+/**
+ * A precomputed fixed window table for the multiplication of a fixed base point
+ *
+ * <p>For window width w the scalar is split into ceil(256 / w) digits of w bits. Window i holds the affine points
+ * d * 2^(w * i) * base for every digit d = 1 .. 2^w - 1, so a multiplication is one mixed addition per nonzero digit
+ * and needs no doubling at all. A wider window needs fewer additions but 2^w / w times more memory,
+ * w = 8 holds 8160 points (about 1.6 MB) and needs at most 32 additions.</p>
+ *
+ * <p>The table is immutable after construction and can be shared between threads.</p>
+ */
+final class S256PointTable {
+
+    private static final Logger log = Logger.getLogger(S256PointTable.class.getSimpleName());
+
+    /** Constant <code>MIN_WINDOW</code> */
+    static final int MIN_WINDOW = 1;
+    /** Constant <code>MAX_WINDOW</code> */
+    static final int MAX_WINDOW = 8;
+
+    private static final int BITS = 256;
+
+    private final int window;
+    private final int windows;
+    private final int digits;
+    private final long[][] xs;
+    private final long[][] ys;
+
+    /**
+     * <p>Constructor for S256PointTable.</p>
+     *
+     * @param base   the fixed base point, not infinity
+     * @param window the window width in bits
+     */
+    S256PointTable(S256Point base, int window) {
+        if (window < MIN_WINDOW || window > MAX_WINDOW) {
+            String error = String.format("Window %s is not between %s and %s", window, MIN_WINDOW, MAX_WINDOW);
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        if (base.isInfinity()) {
+            String error = "Point at infinity has no table";
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        this.window = window;
+        this.windows = (BITS + window - 1) / window;
+        this.digits = (1 << window) - 1;
+        this.xs = new long[this.windows * this.digits][];
+        this.ys = new long[this.windows * this.digits][];
+        var windowBase = base.jacobian();
+        var points = new S256Jacobian[this.digits];
+        var wx = new long[this.digits][];
+        var wy = new long[this.digits][];
+        for (int i = 0; i < this.windows; i++) {
+            // d * windowBase for d = 1 .. 2^w - 1, converted to affine with one inversion per window
+            var acc = windowBase.copy();
+            for (int d = 0; d < this.digits; d++) {
+                points[d] = acc.copy();
+                wx[d] = S256FieldLimbs.zero();
+                wy[d] = S256FieldLimbs.zero();
+                acc.add(windowBase);
+            }
+            S256Jacobian.toAffine(points, wx, wy);
+            System.arraycopy(wx, 0, this.xs, i * this.digits, this.digits);
+            System.arraycopy(wy, 0, this.ys, i * this.digits, this.digits);
+            // the last digit + base = 2^w * base
+            windowBase = acc;
+        }
+    }
+
+    /**
+     * <p>The window width in bits.</p>
+     *
+     * @return .
+     */
+    int getWindow() {
+        return this.window;
+    }
+
+    /**
+     * <p>coefficient * base</p>
+     *
+     * @param coefficient a scalar, already reduced mod N
+     * @return a new working point
+     */
+    S256Jacobian mul(Int coefficient) {
+        var k = coefficient.toBytes(32);
+        var result = S256Jacobian.infinity();
+        for (int i = 0; i < this.windows; i++) {
+            int d = digit(k, i * this.window, this.window);
+            if (d != 0) {
+                int index = i * this.digits + d - 1;
+                result.addAffine(this.xs[index], this.ys[index]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * <p>The bits from .. from + count - 1 of a big endian scalar, the least significant bit being 0.</p>
+     */
+    private static int digit(byte[] k, int from, int count) {
+        int d = 0;
+        for (int j = Math.min(from + count, BITS) - 1; j >= from; j--) {
+            int bit = (k[k.length - 1 - (j >>> 3)] >>> (j & 7)) & 1;
+            d = (d << 1) | bit;
+        }
+        return d;
+    }
+}
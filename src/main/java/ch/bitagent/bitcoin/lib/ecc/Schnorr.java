@@ -1,9 +1,11 @@
 package ch.bitagent.bitcoin.lib.ecc;
 
-import ch.bitagent.bitcoin.lib.helper.Bytes;
 import ch.bitagent.bitcoin.lib.helper.Hash;
 
+import java.math.BigInteger;
+import java.security.SecureRandom;
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * <p>Schnorr Signatures for secp256k1</p>
@@ -17,6 +19,8 @@ public class Schnorr {
 
     private static final int BYTES_LENGTH = 32;
 
+    private static final SecureRandom RANDOM = new SecureRandom();
+
     public static byte[] getNumBytes(PointOperators po) {
         return Point.getNum(po).toBytes(BYTES_LENGTH);
     }
@@ -24,40 +28,16 @@ public class Schnorr {
     /**
      * <p>sign</p>
      *
+     * <p>The signature is verified before it is returned, use a {@link SchnorrSigner} to sign many messages with one
+     * key.</p>
+     *
      * @param msg     .
      * @param seckey  .
      * @param auxRand .
      * @return .
      */
     public static byte[] sign(byte[] msg, byte[] seckey, byte[] auxRand) {
-        Int d0 = Hex.parse(seckey);
-        if (d0.lt(Int.parse(1)) || d0.gt(S256Point.N.sub(Int.parse(1)))) {
-            throw new IllegalArgumentException("The secret key must be an integer in the range 1..n-1.");
-        }
-        if (auxRand.length != BYTES_LENGTH) {
-            throw new IllegalArgumentException(String.format("aux_rand must be %s bytes instead of %s.", BYTES_LENGTH, auxRand.length));
-        }
-        var p = S256Point.getG().mul(d0);
-        var d = d0;
-        if (!p.hasEvenY()) {
-            d = S256Point.N.sub(d0);
-        }
-        var t = Bytes.xor(d.toBytes(BYTES_LENGTH), Hash.taggedHash("BIP0340/aux", auxRand));
-        Int k0 = Hex.parse(Hash.taggedHash("BIP0340/nonce", Bytes.add(new byte[][]{t, getNumBytes(p.getX()), msg}))).mod(S256Point.N);
-        if (k0.eq(Int.parse(0))) {
-            throw new IllegalStateException("Failure. This happens only with negligible probability.");
-        }
-        var r = S256Point.getG().mul(k0);
-        var k = k0;
-        if (!r.hasEvenY()) {
-            k = S256Point.N.sub(k0);
-        }
-        var e = Hex.parse(Hash.taggedHash("BIP0340/challenge", Bytes.add(new byte[][]{(getNumBytes(r.getX())), getNumBytes(p.getX()), msg}))).mod(S256Point.N);
-        var sig = Bytes.add(getNumBytes(r.getX()), e.mul(d).add(k).mod(S256Point.N).toBytes(BYTES_LENGTH));
-        if (!verify(msg, getNumBytes(p.getX()), sig)) {
-            throw new IllegalStateException("The created signature does not pass verification.");
-        }
-        return sig;
+        return new SchnorrSigner(seckey, true).sign(msg, auxRand);
     }
 
     /**
@@ -69,11 +49,10 @@ public class Schnorr {
      * @return .
      */
     public static boolean verify(byte[] msg, byte[] pubkey, byte[] sig) {
-        if (pubkey.length != BYTES_LENGTH) {
-            throw new IllegalArgumentException("'The public key must be a 32-byte array.'");
-        }
-        if (sig.length != 2 * BYTES_LENGTH) {
-            throw new IllegalArgumentException("The signature must be a 64-byte array.");
+        checkLengths(pubkey, sig);
+        var cache = SignatureCache.getDefault();
+        if (cache != null && cache.contains(msg, pubkey, sig)) {
+            return true;
         }
         var p = S256Point.liftX(Hex.parse(pubkey));
         if (p == null) {
@@ -87,9 +66,9 @@ public class Schnorr {
         if (s.ge(S256Point.N)) {
             return false;
         }
-        var e = Hex.parse(Hash.taggedHash("BIP0340/challenge", Bytes.add(new byte[][]{Arrays.copyOfRange(sig, 0, BYTES_LENGTH), pubkey, msg}))).mod(S256Point.N);
-        var rr = S256Point.getG().mul(s).add(p.mul(S256Point.N.sub(e)));
-        if (rr == null) {
+        var e = challenge(msg, pubkey, sig);
+        var rr = S256Point.mulAdd(s, p, S256Point.N.sub(e));
+        if (rr.isInfinity()) {
             return false;
         }
         if (!rr.hasEvenY()) {
@@ -98,6 +77,105 @@ public class Schnorr {
         if (Point.getNum(rr.getX()).ne(r)) {
             return false;
         }
+        if (cache != null) {
+            cache.add(msg, pubkey, sig);
+        }
         return true;
     }
+
+    /**
+     * <p>Verify many signatures at once, true if all of them are valid.</p>
+     *
+     * <p>With random a_1 = 1, a_2 .. a_u the batch checks
+     * (s_1 + a_2 s_2 + .. + a_u s_u) G = R_1 + a_2 R_2 + .. + a_u R_u + e_1 P_1 + (a_2 e_2) P_2 + .. + (a_u e_u) P_u
+     * with a single multi scalar multiplication.</p>
+     *
+     * @param msgs    .
+     * @param pubkeys .
+     * @param sigs    .
+     * @return .
+     */
+    public static boolean verifyBatch(List<byte[]> msgs, List<byte[]> pubkeys, List<byte[]> sigs) {
+        if (msgs.size() != pubkeys.size() || msgs.size() != sigs.size()) {
+            throw new IllegalArgumentException("The batch must have as many messages, public keys and signatures.");
+        }
+        int u = msgs.size();
+        var n = S256Point.N.bigInt();
+        // G, R_1 .. R_u, P_1 .. P_u
+        var points = new S256Point[2 * u + 1];
+        var scalars = new BigInteger[2 * u + 1];
+        points[0] = S256Point.getG();
+        var sum = BigInteger.ZERO;
+        for (int i = 0; i < u; i++) {
+            var pubkey = pubkeys.get(i);
+            var sig = sigs.get(i);
+            checkLengths(pubkey, sig);
+            var p = S256Point.liftX(Hex.parse(pubkey));
+            if (p == null) {
+                return false;
+            }
+            var r = Hex.parse(Arrays.copyOfRange(sig, 0, BYTES_LENGTH));
+            // the nonce is used once, keep it out of the key cache
+            var rr = S256Point.liftX(r, false);
+            if (rr == null) {
+                return false;
+            }
+            var s = Hex.parse(Arrays.copyOfRange(sig, BYTES_LENGTH, 2 * BYTES_LENGTH));
+            if (s.ge(S256Point.N)) {
+                return false;
+            }
+            var e = challenge(msgs.get(i), pubkey, sig).bigInt();
+            var a = i == 0 ? BigInteger.ONE : randomScalar();
+            sum = sum.add(a.multiply(s.bigInt()));
+            points[1 + i] = rr;
+            scalars[1 + i] = n.subtract(a);
+            points[1 + u + i] = p;
+            scalars[1 + u + i] = n.subtract(a.multiply(e).mod(n)).mod(n);
+        }
+        scalars[0] = sum.mod(n);
+        return S256MultiScalar.mul(points, scalars).infinity;
+    }
+
+    /**
+     * <p>The index of the first invalid signature, or -1 if the whole batch is valid.</p>
+     *
+     * <p>The batch is verified at once first, only a failed batch is verified one by one.</p>
+     *
+     * @param msgs    .
+     * @param pubkeys .
+     * @param sigs    .
+     * @return .
+     */
+    public static int findInvalid(List<byte[]> msgs, List<byte[]> pubkeys, List<byte[]> sigs) {
+        if (verifyBatch(msgs, pubkeys, sigs)) {
+            return -1;
+        }
+        for (int i = 0; i < msgs.size(); i++) {
+            if (!verify(msgs.get(i), pubkeys.get(i), sigs.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void checkLengths(byte[] pubkey, byte[] sig) {
+        if (pubkey.length != BYTES_LENGTH) {
+            throw new IllegalArgumentException("'The public key must be a 32-byte array.'");
+        }
+        if (sig.length != 2 * BYTES_LENGTH) {
+            throw new IllegalArgumentException("The signature must be a 64-byte array.");
+        }
+    }
+
+    private static Int challenge(byte[] msg, byte[] pubkey, byte[] sig) {
+        return Hex.parse(Hash.taggedHash("BIP0340/challenge", Arrays.copyOfRange(sig, 0, BYTES_LENGTH), pubkey, msg)).mod(S256Point.N);
+    }
+
+    private static BigInteger randomScalar() {
+        BigInteger a;
+        do {
+            a = new BigInteger(256, RANDOM);
+        } while (a.signum() == 0 || a.compareTo(S256Point.N.bigInt()) >= 0);
+        return a;
+    }
 }
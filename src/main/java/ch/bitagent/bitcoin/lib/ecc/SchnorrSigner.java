@@ -0,0 +1,98 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import ch.bitagent.bitcoin.lib.helper.Bytes;
+import ch.bitagent.bitcoin.lib.helper.Hash;
+
+/**
+ * <p>A Schnorr signer bound to one secret key</p>
+ *
+ * <p>The public key, the parity of its y coordinate and the secret negated for an odd y are computed once, so a
+ * signature costs a single multiplication of the generator for the nonce. Verifying every created signature is
+ * optional, it costs another multiplication and guards against faults in the computation.</p>
+ *
+ * <a href="https://github.com/bitcoin/bips/blob/master/bip-0340.mediawiki#default-signing">BIP-0340 Default Signing</a>
+ */
+public final class SchnorrSigner {
+
+    private static final int BYTES_LENGTH = 32;
+
+    private final Int d;
+    private final byte[] dBytes;
+    private final byte[] pubkey;
+    private final boolean verifySignatures;
+
+    /**
+     * <p>Constructor for SchnorrSigner, without verification of the created signatures.</p>
+     *
+     * @param seckey .
+     */
+    public SchnorrSigner(byte[] seckey) {
+        this(seckey, false);
+    }
+
+    /**
+     * <p>Constructor for SchnorrSigner.</p>
+     *
+     * @param seckey           .
+     * @param verifySignatures verify every created signature
+     */
+    public SchnorrSigner(byte[] seckey, boolean verifySignatures) {
+        Int d0 = Hex.parse(seckey);
+        if (d0.lt(Int.parse(1)) || d0.gt(S256Point.N.sub(Int.parse(1)))) {
+            throw new IllegalArgumentException("The secret key must be an integer in the range 1..n-1.");
+        }
+        var p = S256Point.getG().mul(d0);
+        this.d = p.hasEvenY() ? d0 : S256Point.N.sub(d0);
+        this.dBytes = this.d.toBytes(BYTES_LENGTH);
+        this.pubkey = Schnorr.getNumBytes(p.getX());
+        this.verifySignatures = verifySignatures;
+    }
+
+    /**
+     * <p>sign</p>
+     *
+     * @param msg     .
+     * @param auxRand .
+     * @return .
+     */
+    public byte[] sign(byte[] msg, byte[] auxRand) {
+        if (auxRand.length != BYTES_LENGTH) {
+            throw new IllegalArgumentException(String.format("aux_rand must be %s bytes instead of %s.", BYTES_LENGTH, auxRand.length));
+        }
+        var t = Bytes.xor(this.dBytes, Hash.taggedHash("BIP0340/aux", auxRand));
+        Int k0 = Hex.parse(Hash.taggedHash("BIP0340/nonce", t, this.pubkey, msg)).mod(S256Point.N);
+        if (k0.eq(Int.parse(0))) {
+            throw new IllegalStateException("Failure. This happens only with negligible probability.");
+        }
+        var r = S256Point.getG().mul(k0);
+        var k = k0;
+        if (!r.hasEvenY()) {
+            k = S256Point.N.sub(k0);
+        }
+        var rBytes = Schnorr.getNumBytes(r.getX());
+        var e = Hex.parse(Hash.taggedHash("BIP0340/challenge", rBytes, this.pubkey, msg)).mod(S256Point.N);
+        var sig = Bytes.add(rBytes, e.mul(this.d).add(k).mod(S256Point.N).toBytes(BYTES_LENGTH));
+        if (this.verifySignatures && !Schnorr.verify(msg, this.pubkey, sig)) {
+            throw new IllegalStateException("The created signature does not pass verification.");
+        }
+        return sig;
+    }
+
+    /**
+     * <p>The x-only public key.</p>
+     *
+     * @return .
+     */
+    public byte[] getPublicKey() {
+        return this.pubkey.clone();
+    }
+
+    /**
+     * <p>Are the created signatures verified.</p>
+     *
+     * @return .
+     */
+    public boolean isVerifySignatures() {
+        return this.verifySignatures;
+    }
+}
@@ -14,6 +14,7 @@ public class Signature {
 
     private final Int r;
     private final Int s;
+    private final int recoveryId;
 
     /**
      * <p>Constructor for Signature.</p>
@@ -22,8 +23,20 @@ public class Signature {
      * @param s a {@link ch.bitagent.bitcoin.lib.ecc.Int} object
      */
     public Signature(Int r, Int s) {
+        this(r, s, -1);
+    }
+
+    /**
+     * <p>Constructor for Signature with the recovery id of the public key.</p>
+     *
+     * @param r          a {@link ch.bitagent.bitcoin.lib.ecc.Int} object
+     * @param s          a {@link ch.bitagent.bitcoin.lib.ecc.Int} object
+     * @param recoveryId 0..3, or -1 if unknown
+     */
+    public Signature(Int r, Int s, int recoveryId) {
         this.r = r;
         this.s = s;
+        this.recoveryId = recoveryId;
     }
 
     /**
@@ -130,4 +143,14 @@ public class Signature {
     public Int getS() {
         return s;
     }
+
+    /**
+     * <p>The recovery id of the public key, bit 0 is the parity of y of the nonce point R and bit 1 is set if its x
+     * coordinate is not smaller than N. It is -1 if unknown, e.g. for a parsed signature.</p>
+     *
+     * @return .
+     */
+    public int getRecoveryId() {
+        return recoveryId;
+    }
 }
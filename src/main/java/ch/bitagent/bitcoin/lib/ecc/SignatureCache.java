@@ -0,0 +1,166 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import ch.bitagent.bitcoin.lib.helper.Hash;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * A cache of successful signature verifications, like the sigcache of Bitcoin Core
+ *
+ * <p>An entry is the salted SHA-256 of (sighash, pubkey, signature), so the cache holds no attacker chosen data and
+ * its slots can not be predicted from outside. The table has a fixed number of slots. An entry may live in one of
+ * {@value #WAYS} slots derived from its hash, a full set of slots evicts one of them at random. Lookups and inserts
+ * are lock free and may be called from many threads.</p>
+ *
+ * <p>Only valid signatures are added, a hit means the signature was verified before.</p>
+ */
+public final class SignatureCache {
+
+    private static final Logger log = Logger.getLogger(SignatureCache.class.getSimpleName());
+
+    /** Constant <code>DEFAULT_CAPACITY</code>, the number of slots of the default cache */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final int WAYS = 4;
+
+    private static volatile SignatureCache defaultCache = new SignatureCache(DEFAULT_CAPACITY);
+
+    private final byte[] salt = new byte[32];
+    private final AtomicReferenceArray<byte[]> slots;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * <p>Constructor for SignatureCache.</p>
+     *
+     * @param capacity the number of slots, about 60 bytes each when filled
+     */
+    public SignatureCache(int capacity) {
+        if (capacity < WAYS) {
+            String error = String.format("Capacity %s is smaller than %s", capacity, WAYS);
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        new SecureRandom().nextBytes(this.salt);
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * <p>The cache used by signature verification, null if disabled.</p>
+     *
+     * @return .
+     */
+    public static SignatureCache getDefault() {
+        return defaultCache;
+    }
+
+    /**
+     * <p>Replace the cache used by signature verification, null disables it.</p>
+     *
+     * @param cache .
+     */
+    public static void setDefault(SignatureCache cache) {
+        defaultCache = cache;
+    }
+
+    /**
+     * <p>Was this signature verified successfully before.</p>
+     *
+     * @param sighash   the signed message
+     * @param pubkey    the serialized public key
+     * @param signature the serialized signature
+     * @return .
+     */
+    public boolean contains(byte[] sighash, byte[] pubkey, byte[] signature) {
+        var entry = this.entry(sighash, pubkey, signature);
+        for (int way = 0; way < WAYS; way++) {
+            if (Arrays.equals(entry, this.slots.get(this.slot(entry, way)))) {
+                this.hits.increment();
+                return true;
+            }
+        }
+        this.misses.increment();
+        return false;
+    }
+
+    /**
+     * <p>Add a successfully verified signature.</p>
+     *
+     * @param sighash   the signed message
+     * @param pubkey    the serialized public key
+     * @param signature the serialized signature
+     */
+    public void add(byte[] sighash, byte[] pubkey, byte[] signature) {
+        var entry = this.entry(sighash, pubkey, signature);
+        for (int way = 0; way < WAYS; way++) {
+            int slot = this.slot(entry, way);
+            var current = this.slots.get(slot);
+            if (Arrays.equals(entry, current) || (current == null && this.slots.compareAndSet(slot, null, entry))) {
+                return;
+            }
+        }
+        this.slots.set(this.slot(entry, ThreadLocalRandom.current().nextInt(WAYS)), entry);
+    }
+
+    /**
+     * <p>Remove all entries and reset the counters.</p>
+     */
+    public void clear() {
+        for (int i = 0; i < this.slots.length(); i++) {
+            this.slots.set(i, null);
+        }
+        this.hits.reset();
+        this.misses.reset();
+    }
+
+    /**
+     * <p>The number of lookups which found the signature.</p>
+     *
+     * @return .
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * <p>The number of lookups which did not find the signature.</p>
+     *
+     * @return .
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * <p>hits / (hits + misses), 0 without lookups.</p>
+     *
+     * @return .
+     */
+    public double getHitRate() {
+        long h = this.getHits();
+        long total = h + this.getMisses();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    private byte[] entry(byte[] sighash, byte[] pubkey, byte[] signature) {
+        var digest = Hash.getDigestSha256();
+        digest.update(this.salt);
+        // length prefixed, so the parts can not shift into each other
+        for (byte[] part : new byte[][]{sighash, pubkey, signature}) {
+            digest.update(new byte[]{(byte) (part.length >>> 24), (byte) (part.length >>> 16), (byte) (part.length >>> 8), (byte) part.length});
+            digest.update(part);
+        }
+        return digest.digest();
+    }
+
+    private int slot(byte[] entry, int way) {
+        int i = 4 * way;
+        int h = (entry[i] & 0xff) << 24 | (entry[i + 1] & 0xff) << 16 | (entry[i + 2] & 0xff) << 8 | (entry[i + 3] & 0xff);
+        return Math.floorMod(h, this.slots.length());
+    }
+}
@@ -1,33 +1,201 @@
 package ch.bitagent.bitcoin.lib.ecc;
 
 import ch.bitagent.bitcoin.lib.helper.Bytes;
-import ch.bitagent.bitcoin.lib.helper.Hash;
+import ch.bitagent.bitcoin.lib.helper.Sha256Midstate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * <p>Taproot: SegWit version 1 spending rules</p>
  *
+ * <p>The output key Q = P + t * G of many internal keys P is computed in a batch: lift_x and the addition run on the
+ * field limbs, t * G uses the generator table, and all output keys are converted to affine coordinates with a single
+ * field inversion.</p>
+ *
  * <a href="https://github.com/bitcoin/bips/blob/master/bip-0341.mediawiki">BIP-0341</a>
  */
 public class Taproot {
 
+    private static final Logger log = Logger.getLogger(Taproot.class.getSimpleName());
+
+    /** Constant <code>CHUNK</code>, the number of keys tweaked with one inversion by the stream */
+    public static final int CHUNK = 1024;
+
+    private static final Sha256Midstate TAP_TWEAK = Sha256Midstate.tagged("TapTweak");
+    private static final byte[] P_BYTES = S256Point.P.toBytes(32);
+    private static final long[] SEVEN = S256FieldLimbs.of(7);
+
     private Taproot() {
     }
 
+    /**
+     * A tweaked x-only output key with the parity of its y coordinate
+     */
+    public static final class TweakedPubkey {
+        private final byte[] pubkey;
+        private final int parity;
+
+        private TweakedPubkey(byte[] pubkey, int parity) {
+            this.pubkey = pubkey;
+            this.parity = parity;
+        }
+
+        /**
+         * <p>The 32 byte x-only output key.</p>
+         *
+         * @return .
+         */
+        public byte[] getPubkey() {
+            return pubkey.clone();
+        }
+
+        /**
+         * <p>The parity of the y coordinate, 0 for even and 1 for odd, as in the control block.</p>
+         *
+         * @return .
+         */
+        public int getParity() {
+            return parity;
+        }
+    }
+
+    /**
+     * <p>The x-only output key of an internal key.</p>
+     *
+     * @param pubkey the 32 byte x-only internal key
+     * @param h      the merkle root of the script tree, empty for a key path only output
+     * @return the 32 byte x-only output key
+     */
     public static byte[] tweakPubkey(byte[] pubkey, byte[] h) {
-        var taggedHash = Hash.taggedHash("TapTweak", Bytes.add(pubkey, h));
-        var t = Hex.parse(taggedHash);
-        if (t.ge(S256Point.P)) {
-            throw new IllegalStateException();
+        return tweak(pubkey, h).getPubkey();
+    }
+
+    /**
+     * <p>The output key of an internal key, with its parity.</p>
+     *
+     * @param pubkey the 32 byte x-only internal key
+     * @param h      the merkle root of the script tree, empty for a key path only output
+     * @return .
+     */
+    public static TweakedPubkey tweak(byte[] pubkey, byte[] h) {
+        return tweak(List.of(pubkey), h).get(0);
+    }
+
+    /**
+     * <p>The output keys of many internal keys with the same merkle root, with one field inversion.</p>
+     *
+     * @param pubkeys the 32 byte x-only internal keys
+     * @param h       the merkle root of the script tree, empty for key path only outputs
+     * @return the output keys in the order of the internal keys
+     */
+    public static List<TweakedPubkey> tweak(List<byte[]> pubkeys, byte[] h) {
+        var table = S256Point.getGeneratorTable();
+        int n = pubkeys.size();
+        var points = new S256Jacobian[n];
+        for (int i = 0; i < n; i++) {
+            var pubkey = pubkeys.get(i);
+            var t = Hex.parse(TAP_TWEAK.hash(pubkey, h));
+            if (t.ge(S256Point.N)) {
+                throw new IllegalStateException("Failure. This happens only with negligible probability.");
+            }
+            var px = liftX(pubkey);
+            var py = S256FieldLimbs.zero();
+            if (!evenY(px, py)) {
+                String error = String.format("The public key %s is not on the curve", Bytes.byteArrayToHexString(pubkey));
+                log.severe(error);
+                throw new IllegalArgumentException(error);
+            }
+            // Q = P + t * G
+            points[i] = table.mul(t).addAffine(px, py);
+            if (points[i].infinity) {
+                throw new IllegalStateException("Failure. This happens only with negligible probability.");
+            }
+        }
+        var ax = new long[n][];
+        var ay = new long[n][];
+        for (int i = 0; i < n; i++) {
+            ax[i] = S256FieldLimbs.zero();
+            ay[i] = S256FieldLimbs.zero();
         }
-        var P = S256Point.liftX(Hex.parse(pubkey));
-        if (P == null) {
-            throw new IllegalStateException();
+        S256Jacobian.toAffine(points, ax, ay);
+        var result = new ArrayList<TweakedPubkey>(n);
+        for (int i = 0; i < n; i++) {
+            var x = new byte[32];
+            S256FieldLimbs.toBytes(ax[i], x, 0);
+            result.add(new TweakedPubkey(x, (int) (ay[i][0] & 1)));
+        }
+        return result;
+    }
+
+    /**
+     * <p>The output keys of a stream of internal keys, tweaked in chunks of {@value #CHUNK} keys.</p>
+     *
+     * <p>The stream is lazy and keeps the order, in parallel if the returned stream is made parallel.</p>
+     *
+     * @param pubkeys the 32 byte x-only internal keys
+     * @param h       the merkle root of the script tree, empty for key path only outputs
+     * @return .
+     */
+    public static Stream<TweakedPubkey> stream(Stream<byte[]> pubkeys, byte[] h) {
+        var keys = pubkeys.iterator();
+        var chunks = new Iterator<List<byte[]>>() {
+            @Override
+            public boolean hasNext() {
+                return keys.hasNext();
+            }
+
+            @Override
+            public List<byte[]> next() {
+                if (!keys.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                var chunk = new ArrayList<byte[]>(CHUNK);
+                while (keys.hasNext() && chunk.size() < CHUNK) {
+                    chunk.add(keys.next());
+                }
+                return chunk;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(chunks, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .flatMap(chunk -> tweak(chunk, h).stream())
+                .onClose(pubkeys::close);
+    }
+
+    private static long[] liftX(byte[] pubkey) {
+        if (pubkey.length != 32 || Arrays.compareUnsigned(pubkey, P_BYTES) >= 0) {
+            String error = String.format("The public key %s is not a 32 byte x coordinate", Bytes.byteArrayToHexString(pubkey));
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        return S256FieldLimbs.parse(pubkey, 0);
+    }
+
+    /**
+     * <p>The even y of x, false if x is not on the curve.</p>
+     */
+    private static boolean evenY(long[] x, long[] y) {
+        // y^2 = x^3 + 7
+        var c = S256FieldLimbs.zero();
+        S256FieldLimbs.sqr(c, x);
+        S256FieldLimbs.mul(c, c, x);
+        S256FieldLimbs.add(c, c, SEVEN);
+        if (!S256FieldLimbs.sqrt(y, c)) {
+            return false;
         }
-        var Q = P.add(S256Point.getG().mul(t));
-        if (Q.hasEvenY()) {
-            return new byte[0];
-        } else {
-            return Schnorr.getNumBytes(Q.getX());
+        S256FieldLimbs.normalize(y);
+        if ((y[0] & 1) == 1) {
+            S256FieldLimbs.neg(y, y);
+            S256FieldLimbs.normalize(y);
         }
+        return true;
     }
 }
@@ -147,8 +147,8 @@ public class Bech32 {
         try {
             var bech32Low = bech32.toLowerCase();
             if (bech32Low.length() > 90) {
-                if (bech32Low.startsWith("lnurl")) {
-                    // OK
+                if (bech32Low.startsWith("lnurl") || bech32Low.startsWith("sp1") || bech32Low.startsWith("tsp1")) {
+                    // OK, lnurl and silent payment addresses (BIP-0352) are longer
                 } else {
                     throw new IllegalArgumentException(String.format("overall max length (90) exceeded %s", bech32.length()));
                 }
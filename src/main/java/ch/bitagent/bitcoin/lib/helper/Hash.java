@@ -4,6 +4,8 @@ import ch.bitagent.bitcoin.lib.ecc.Int;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.logging.Logger;
@@ -25,11 +27,54 @@ public class Hash {
      */
     public static final Int SIGHASH_SINGLE = Int.parse(3);
 
-    private Hash() {
+    private static final String SHA_1 = "SHA-1";
+    private static final String SHA_256 = "SHA-256";
+    private static final String HMAC_SHA_256 = "HmacSHA256";
+    private static final String HMAC_SHA_512 = "HmacSHA512";
+
+    // only cloned, a clone is cheaper than a provider lookup
+    private static final MessageDigest SHA_256_PROTOTYPE = newDigest(SHA_256);
+    private static final Mac HMAC_SHA_256_PROTOTYPE = newMac(HMAC_SHA_256);
+    private static final Mac HMAC_SHA_512_PROTOTYPE = newMac(HMAC_SHA_512);
+
+    private static final ThreadLocal<ThreadState> STATE = ThreadLocal.withInitial(ThreadState::new);
+
+    /**
+     * The digest and MAC instances of a thread, every method uses them from start to end without calling another
+     */
+    private static final class ThreadState {
+        private final MessageDigest sha256 = newDigest(SHA_256);
+        private final Ripemd160 ripemd160 = new Ripemd160();
+        private final byte[] buffer = new byte[32];
+        private MessageDigest sha1;
+        private Mac hmacSha256;
+        private Mac hmacSha512;
+
+        private MessageDigest sha1() {
+            if (this.sha1 == null) {
+                this.sha1 = newDigest(SHA_1);
+            }
+            return this.sha1;
+        }
+
+        private Mac hmac(String algorithm, byte[] key) {
+            Mac mac;
+            if (HMAC_SHA_256.equals(algorithm)) {
+                mac = this.hmacSha256 == null ? this.hmacSha256 = newMac(algorithm) : this.hmacSha256;
+            } else {
+                mac = this.hmacSha512 == null ? this.hmacSha512 = newMac(algorithm) : this.hmacSha512;
+            }
+            try {
+                mac.init(new SecretKeySpec(key, algorithm));
+            } catch (Exception e) {
+                log.severe(e.getMessage());
+                throw new IllegalStateException(e.getMessage());
+            }
+            return mac;
+        }
     }
 
-    private static byte[] ripemd160(byte[] bytes) {
-        return Ripemd160.getHash(bytes);
+    private Hash() {
     }
 
     /**
@@ -39,24 +84,29 @@ public class Hash {
      * @return an array of {@link byte} objects
      */
     public static byte[] sha1(byte[] bytes) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-1");
-            return digest.digest(bytes);
-        } catch (NoSuchAlgorithmException e) {
-            log.severe(e.getMessage());
-            throw new IllegalStateException(e.getMessage());
-        }
+        return STATE.get().sha1().digest(bytes);
     }
 
+    /**
+     * <p>A new SHA-256 digest owned by the caller.</p>
+     *
+     * @return .
+     */
     public static MessageDigest getDigestSha256() {
         try {
-            return MessageDigest.getInstance("SHA-256");
-        } catch (NoSuchAlgorithmException e) {
-            log.severe(e.getMessage());
-            throw new IllegalStateException(e.getMessage());
+            return (MessageDigest) SHA_256_PROTOTYPE.clone();
+        } catch (CloneNotSupportedException e) {
+            return newDigest(SHA_256);
         }
     }
 
+    /**
+     * <p>The SHA-256 digest of the current thread, it must be reset when returned to the caller.</p>
+     */
+    static MessageDigest threadDigestSha256() {
+        return STATE.get().sha256;
+    }
+
     /**
      * <p>sha256.</p>
      *
@@ -64,7 +114,35 @@ public class Hash {
      * @return an array of {@link byte} objects
      */
     public static byte[] sha256(byte[] bytes) {
-        return getDigestSha256().digest(bytes);
+        return threadDigestSha256().digest(bytes);
+    }
+
+    /**
+     * <p>sha256 of len bytes from off, into the 32 bytes of out from outOff.</p>
+     *
+     * @param bytes  .
+     * @param off    .
+     * @param len    .
+     * @param out    .
+     * @param outOff .
+     */
+    public static void sha256(byte[] bytes, int off, int len, byte[] out, int outOff) {
+        var digest = threadDigestSha256();
+        digest.update(bytes, off, len);
+        digest(digest, out, outOff);
+    }
+
+    /**
+     * <p>sha256 of the remaining bytes of in, put into out.</p>
+     *
+     * @param in  .
+     * @param out at least 32 bytes remaining
+     */
+    public static void sha256(ByteBuffer in, ByteBuffer out) {
+        var state = STATE.get();
+        state.sha256.update(in);
+        digest(state.sha256, state.buffer, 0);
+        out.put(state.buffer);
     }
 
     /**
@@ -74,7 +152,42 @@ public class Hash {
      * @return an array of {@link byte} objects
      */
     public static byte[] hash160(byte[] bytes) {
-        return ripemd160(sha256(bytes));
+        var out = new byte[20];
+        hash160(bytes, 0, bytes.length, out, 0);
+        return out;
+    }
+
+    /**
+     * sha256 followed by ripemd160 of len bytes from off, into the 20 bytes of out from outOff
+     *
+     * <p>The SHA-256 digest stays in a per thread buffer and is hashed by the 32 byte path of RIPEMD-160, so nothing
+     * is allocated.</p>
+     *
+     * @param bytes  .
+     * @param off    .
+     * @param len    .
+     * @param out    .
+     * @param outOff .
+     */
+    public static void hash160(byte[] bytes, int off, int len, byte[] out, int outOff) {
+        var state = STATE.get();
+        state.sha256.update(bytes, off, len);
+        digest(state.sha256, state.buffer, 0);
+        state.ripemd160.digest32(state.buffer, 0, out, outOff);
+    }
+
+    /**
+     * sha256 followed by ripemd160 of the remaining bytes of in, put into out
+     *
+     * @param in  .
+     * @param out at least 20 bytes remaining
+     */
+    public static void hash160(ByteBuffer in, ByteBuffer out) {
+        var state = STATE.get();
+        state.sha256.update(in);
+        digest(state.sha256, state.buffer, 0);
+        state.ripemd160.digest32(state.buffer, 0, state.buffer, 0);
+        out.put(state.buffer, 0, 20);
     }
 
     /**
@@ -84,7 +197,7 @@ public class Hash {
      * @return an array of {@link byte} objects
      */
     public static byte[] hash256(byte[] bytes) {
-        var digest = getDigestSha256();
+        var digest = threadDigestSha256();
         return digest.digest(digest.digest(bytes));
     }
 
@@ -93,24 +206,127 @@ public class Hash {
     }
 
     /**
-     * <p>hmacS256Init.</p>
+     * two rounds of sha256 of len bytes from off, into the 32 bytes of out from outOff
      *
-     * @param key an array of {@link byte} objects
-     * @return a {@link javax.crypto.Mac} object
+     * @param bytes  .
+     * @param off    .
+     * @param len    .
+     * @param out    .
+     * @param outOff .
      */
-    public static Mac hmacS256Init(byte[] key) {
+    public static void hash256(byte[] bytes, int off, int len, byte[] out, int outOff) {
+        var digest = threadDigestSha256();
+        digest.update(bytes, off, len);
+        digest(digest, out, outOff);
+        digest.update(out, outOff, 32);
+        digest(digest, out, outOff);
+    }
+
+    /**
+     * two rounds of sha256 of the remaining bytes of in, put into out
+     *
+     * @param in  .
+     * @param out at least 32 bytes remaining
+     */
+    public static void hash256(ByteBuffer in, ByteBuffer out) {
+        var state = STATE.get();
+        state.sha256.update(in);
+        digest(state.sha256, state.buffer, 0);
+        state.sha256.update(state.buffer);
+        digest(state.sha256, state.buffer, 0);
+        out.put(state.buffer);
+    }
+
+    /**
+     * <p>HMAC-SHA256 of the parts with the key.</p>
+     *
+     * @param key   .
+     * @param parts .
+     * @return the 32 byte MAC
+     */
+    public static byte[] hmacSha256(byte[] key, byte[]... parts) {
+        return hmac(HMAC_SHA_256, key, parts);
+    }
+
+    /**
+     * <p>HMAC-SHA512 of the parts with the key.</p>
+     *
+     * @param key   .
+     * @param parts .
+     * @return the 64 byte MAC
+     */
+    public static byte[] hmacSha512(byte[] key, byte[]... parts) {
+        return hmac(HMAC_SHA_512, key, parts);
+    }
+
+    /**
+     * <p>HMAC-SHA512 of len bytes from off with the key, into the 64 bytes of out from outOff.</p>
+     *
+     * @param key    .
+     * @param bytes  .
+     * @param off    .
+     * @param len    .
+     * @param out    .
+     * @param outOff .
+     */
+    public static void hmacSha512(byte[] key, byte[] bytes, int off, int len, byte[] out, int outOff) {
+        var mac = STATE.get().hmac(HMAC_SHA_512, key);
+        mac.update(bytes, off, len);
         try {
-            String algorithm = "HmacSHA256";
-            SecretKeySpec secretKeySpec = new SecretKeySpec(key, algorithm);
-            Mac mac = Mac.getInstance(algorithm);
-            mac.init(secretKeySpec);
-            return mac;
+            mac.doFinal(out, outOff);
         } catch (Exception e) {
+            mac.reset();
             log.severe(e.getMessage());
             throw new IllegalStateException(e.getMessage());
         }
     }
 
+    private static byte[] hmac(String algorithm, byte[] key, byte[][] parts) {
+        var mac = STATE.get().hmac(algorithm, key);
+        for (byte[] part : parts) {
+            mac.update(part);
+        }
+        return mac.doFinal();
+    }
+
+    private static void digest(MessageDigest digest, byte[] out, int outOff) {
+        try {
+            digest.digest(out, outOff, 32);
+        } catch (DigestException e) {
+            digest.reset();
+            log.severe(e.getMessage());
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
+    private static MessageDigest newDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            log.severe(e.getMessage());
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
+    private static Mac newMac(String algorithm) {
+        try {
+            return Mac.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            log.severe(e.getMessage());
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
+    /**
+     * <p>hmacS256Init.</p>
+     *
+     * @param key an array of {@link byte} objects
+     * @return a {@link javax.crypto.Mac} object
+     */
+    public static Mac hmacS256Init(byte[] key) {
+        return initMac(HMAC_SHA_256_PROTOTYPE, HMAC_SHA_256, key);
+    }
+
     /**
      * <p>hmacS512Init.</p>
      *
@@ -118,11 +334,18 @@ public class Hash {
      * @return a {@link javax.crypto.Mac} object
      */
     public static Mac hmacS512Init(byte[] key) {
+        return initMac(HMAC_SHA_512_PROTOTYPE, HMAC_SHA_512, key);
+    }
+
+    private static Mac initMac(Mac prototype, String algorithm, byte[] key) {
         try {
-            String algorithm = "HmacSHA512";
-            SecretKeySpec secretKeySpec = new SecretKeySpec(key, algorithm);
-            Mac mac = Mac.getInstance(algorithm);
-            mac.init(secretKeySpec);
+            Mac mac;
+            try {
+                mac = (Mac) prototype.clone();
+            } catch (CloneNotSupportedException e) {
+                mac = newMac(algorithm);
+            }
+            mac.init(new SecretKeySpec(key, algorithm));
             return mac;
         } catch (Exception e) {
             log.severe(e.getMessage());
@@ -130,9 +353,25 @@ public class Hash {
         }
     }
 
+    /**
+     * <p>sha256(sha256(tag) || sha256(tag) || msg), resumed from the midstate of the tag.</p>
+     *
+     * @param tag .
+     * @param msg .
+     * @return .
+     */
     public static byte[] taggedHash(String tag, byte[] msg) {
-        var tagHash = Hash.sha256(tag.getBytes());
-        var tagged = Bytes.add(new byte[][]{tagHash, tagHash, msg});
-        return Hash.sha256(tagged);
+        return Sha256Midstate.tagged(tag).hash(msg);
+    }
+
+    /**
+     * <p>sha256(sha256(tag) || sha256(tag) || parts[0] || parts[1] || ..), resumed from the midstate of the tag.</p>
+     *
+     * @param tag   .
+     * @param parts the parts of the message
+     * @return .
+     */
+    public static byte[] taggedHash(String tag, byte[]... parts) {
+        return Sha256Midstate.tagged(tag).hash(parts);
     }
 }
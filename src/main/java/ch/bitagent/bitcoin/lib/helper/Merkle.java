@@ -1,6 +1,7 @@
 package ch.bitagent.bitcoin.lib.helper;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.logging.Logger;
 
@@ -23,7 +24,12 @@ public class Merkle {
      */
     public static byte[] merkleParent(byte[] hash0, byte[] hash1) {
         // return the hash256 of hash1 + hash2
-        return Hash.hash256(Bytes.add(hash0, hash1));
+        if (hash0.length != 32 || hash1.length != 32) {
+            return Hash.hash256(Bytes.add(hash0, hash1));
+        }
+        var parent = new byte[32];
+        Sha256.hash256(hash0, 0, hash1, 0, parent, 0);
+        return parent;
     }
 
     /**
@@ -44,6 +50,10 @@ public class Merkle {
         if (hashes.size() % 2 == 1) {
             hashes.add(hashes.get(hashes.size() - 1));
         }
+        // hash all pairs of 32 byte hashes as one batch
+        if (hashes.stream().allMatch(hash -> hash.length == 32)) {
+            return new ArrayList<>(Arrays.asList(Sha256.hash256Pairs(hashes.toArray(new byte[0][]))));
+        }
         // initialize next level
         var parentLevel = new ArrayList<byte[]>();
         // loop over every pair (use: for i in range(0, len(hashes), 2))
@@ -34,16 +34,32 @@ public class Murmur3 {
   private static final int N = 0xe6546b64;
 
   /**
-   * Murmur3 32-bit variant.
+   * <p>Murmur3 32-bit variant.</p>
+   *
+   * @param data .
+   * @param seed .
+   * @return the hash, to be read as unsigned
    */
-  private static int hash32(byte[] data, int seed) {
+  public static int hash32(byte[] data, int seed) {
+    return hash32(data, 0, data.length, seed);
+  }
+
+  /**
+   * <p>Murmur3 32-bit variant of length bytes of data from off.</p>
+   *
+   * @param data   .
+   * @param off    .
+   * @param length .
+   * @param seed   .
+   * @return the hash, to be read as unsigned
+   */
+  public static int hash32(byte[] data, int off, int length, int seed) {
     int hash = seed;
-    int length = data.length;
     final int nblocks = length >> 2;
 
     // body
     for (int i = 0; i < nblocks; i++) {
-      int i4 = i << 2;
+      int i4 = off + (i << 2);
       int k = (data[i4] & 0xff)
           | ((data[i4 + 1] & 0xff) << 8)
           | ((data[i4 + 2] & 0xff) << 16)
@@ -58,21 +74,23 @@ public class Murmur3 {
     }
 
     // tail
-    int idx = nblocks << 2;
-    int k1 = 0;
-    switch (length - idx) {
-      case 3:
-        k1 ^= data[idx + 2] << 16;
-      case 2:
-        k1 ^= data[idx + 1] << 8;
-      case 1:
-        k1 ^= data[idx];
+    int idx = off + (nblocks << 2);
+    // the tail bytes are unsigned, as in the reference implementation
+    int tail = length & 3;
+    if (tail != 0) {
+      int k1 = data[idx] & 0xff;
+      if (tail > 1) {
+        k1 |= (data[idx + 1] & 0xff) << 8;
+      }
+      if (tail > 2) {
+        k1 |= (data[idx + 2] & 0xff) << 16;
+      }
 
-        // mix functions
-        k1 *= C1;
-        k1 = Integer.rotateLeft(k1, R1);
-        k1 *= C2;
-        hash ^= k1;
+      // mix functions
+      k1 *= C1;
+      k1 = Integer.rotateLeft(k1, R1);
+      k1 *= C2;
+      hash ^= k1;
     }
 
     // finalization
@@ -1,88 +1,285 @@
 package ch.bitagent.bitcoin.lib.helper;
 
-import javax.crypto.Mac;
-import java.io.ByteArrayOutputStream;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
- * <p>Pbkdf2</p>
+ * <p>PBKDF2 with HMAC-SHA512, as used by BIP39 to derive the seed of a mnemonic sentence</p>
  *
- * <p>Copyright (c) 2012</p>
- * <p>Cole Barnes [cryptofreek{at}gmail{dot}com]</p>
- * <p><a href="https://cryptofreek.org/2012/11/29/pbkdf2-pure-java-implementation/">PBKDF2 – Pure Java Implementation</a></p>
+ * <p>The SHA-512 states after the inner and the outer padded key are computed once per password. Every iteration
+ * then hashes the 64 byte previous block from these states with exactly one compression each, on the 64 bit words
+ * of fixed per call buffers, so nothing is encoded, copied or allocated in the loop.</p>
+ *
+ * <a href="https://www.rfc-editor.org/rfc/rfc8018#section-5.2">RFC 8018 - PBKDF2</a>
  */
-public class Pbkdf2 {
+public final class Pbkdf2 {
+
+    private static final Logger log = Logger.getLogger(Pbkdf2.class.getSimpleName());
+
+    /** Constant <code>H_LEN</code>, the length of a HMAC-SHA512 in bytes */
+    public static final int H_LEN = 64;
+
+    private static final int BLOCK_LENGTH = 128;
+
+    private static final long[] IV = {
+            0x6a09e667f3bcc908L, 0xbb67ae8584caa73bL, 0x3c6ef372fe94f82bL, 0xa54ff53a5f1d36f1L,
+            0x510e527fade682d1L, 0x9b05688c2b3e6c1fL, 0x1f83d9abfb41bd6bL, 0x5be0cd19137e2179L};
+
+    private static final long[] K = {
+            0x428a2f98d728ae22L, 0x7137449123ef65cdL, 0xb5c0fbcfec4d3b2fL, 0xe9b5dba58189dbbcL,
+            0x3956c25bf348b538L, 0x59f111f1b605d019L, 0x923f82a4af194f9bL, 0xab1c5ed5da6d8118L,
+            0xd807aa98a3030242L, 0x12835b0145706fbeL, 0x243185be4ee4b28cL, 0x550c7dc3d5ffb4e2L,
+            0x72be5d74f27b896fL, 0x80deb1fe3b1696b1L, 0x9bdc06a725c71235L, 0xc19bf174cf692694L,
+            0xe49b69c19ef14ad2L, 0xefbe4786384f25e3L, 0x0fc19dc68b8cd5b5L, 0x240ca1cc77ac9c65L,
+            0x2de92c6f592b0275L, 0x4a7484aa6ea6e483L, 0x5cb0a9dcbd41fbd4L, 0x76f988da831153b5L,
+            0x983e5152ee66dfabL, 0xa831c66d2db43210L, 0xb00327c898fb213fL, 0xbf597fc7beef0ee4L,
+            0xc6e00bf33da88fc2L, 0xd5a79147930aa725L, 0x06ca6351e003826fL, 0x142929670a0e6e70L,
+            0x27b70a8546d22ffcL, 0x2e1b21385c26c926L, 0x4d2c6dfc5ac42aedL, 0x53380d139d95b3dfL,
+            0x650a73548baf63deL, 0x766a0abb3c77b2a8L, 0x81c2c92e47edaee6L, 0x92722c851482353bL,
+            0xa2bfe8a14cf10364L, 0xa81a664bbc423001L, 0xc24b8b70d0f89791L, 0xc76c51a30654be30L,
+            0xd192e819d6ef5218L, 0xd69906245565a910L, 0xf40e35855771202aL, 0x106aa07032bbd1b8L,
+            0x19a4c116b8d2d0c8L, 0x1e376c085141ab53L, 0x2748774cdf8eeb99L, 0x34b0bcb5e19b48a8L,
+            0x391c0cb3c5c95a63L, 0x4ed8aa4ae3418acbL, 0x5b9cca4f7763e373L, 0x682e6ff3d6b2b8a3L,
+            0x748f82ee5defb2fcL, 0x78a5636f43172f60L, 0x84c87814a1f0ab72L, 0x8cc702081a6439ecL,
+            0x90befffa23631e28L, 0xa4506cebde82bde9L, 0xbef9a3f7b2c67915L, 0xc67178f2e372532bL,
+            0xca273eceea26619cL, 0xd186b8c721c0c207L, 0xeada7dd6cde0eb1eL, 0xf57d4f7fee6ed178L,
+            0x06f067aa72176fbaL, 0x0a637dc5a2c898a6L, 0x113f9804bef90daeL, 0x1b710b35131c471bL,
+            0x28db77f523047d84L, 0x32caab7b40c72493L, 0x3c9ebe0a15c9bebcL, 0x431d67c49c100d4cL,
+            0x4cc5d4becb3e42b6L, 0x597f299cfc657e2aL, 0x5fcb6fab3ad6faecL, 0x6c44198c4a475817L};
+
+    // the bit length of a 64 byte message after a padded key block
+    private static final long HMAC_OF_64_BITS = (BLOCK_LENGTH + H_LEN) * 8L;
 
     private Pbkdf2() {
     }
 
-    /* START RFC 2898 IMPLEMENTATION */
+    /**
+     * <p>PBKDF2-HMAC-SHA512 of UTF-8 strings.</p>
+     *
+     * @param P     the password
+     * @param S     the salt
+     * @param c     the number of iterations
+     * @param dkLen the length of the derived key in bytes
+     * @return .
+     */
     public static byte[] derive(String P, String S, int c, int dkLen) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-
-        try {
-            int hLen = 20;
-
-            if (dkLen > ((Math.pow(2, 32)) - 1) * hLen) {
-                throw new IllegalArgumentException("derived key too long");
-            } else {
-                int l = (int) Math.ceil((double) dkLen / (double) hLen);
-                for (int i = 1; i <= l; i++) {
-                    byte[] T = F(P, S, c, i);
-                    baos.write(T);
+        return hmacSha512(P.getBytes(StandardCharsets.UTF_8), S.getBytes(StandardCharsets.UTF_8), c, dkLen);
+    }
+
+    /**
+     * <p>PBKDF2-HMAC-SHA512.</p>
+     *
+     * @param password .
+     * @param salt     .
+     * @param c        the number of iterations, at least 1
+     * @param dkLen    the length of the derived key in bytes
+     * @return .
+     */
+    public static byte[] hmacSha512(byte[] password, byte[] salt, int c, int dkLen) {
+        if (c < 1 || dkLen < 0) {
+            String error = String.format("Invalid iteration count %s or derived key length %s", c, dkLen);
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        var inner = new long[8];
+        var outer = new long[8];
+        var w = new long[80];
+        padKey(password, inner, outer, w);
+
+        var dk = new byte[dkLen];
+        var s = new long[8];
+        var u = new long[8];
+        var t = new long[8];
+        var message = Arrays.copyOf(salt, salt.length + 4);
+        for (int i = 1, off = 0; off < dkLen; i++, off += H_LEN) {
+            // U_1 = PRF(P, S || INT(i))
+            message[salt.length] = (byte) (i >>> 24);
+            message[salt.length + 1] = (byte) (i >>> 16);
+            message[salt.length + 2] = (byte) (i >>> 8);
+            message[salt.length + 3] = (byte) i;
+            System.arraycopy(inner, 0, s, 0, 8);
+            hashTail(s, message, w);
+            System.arraycopy(s, 0, w, 0, 8);
+            System.arraycopy(outer, 0, u, 0, 8);
+            compressOf64(u, w);
+            System.arraycopy(u, 0, t, 0, 8);
+            // U_j = PRF(P, U_{j-1}), T_i = U_1 ^ U_2 ^ .. ^ U_c
+            for (int j = 1; j < c; j++) {
+                System.arraycopy(u, 0, w, 0, 8);
+                System.arraycopy(inner, 0, s, 0, 8);
+                compressOf64(s, w);
+                System.arraycopy(s, 0, w, 0, 8);
+                System.arraycopy(outer, 0, u, 0, 8);
+                compressOf64(u, w);
+                for (int k = 0; k < 8; k++) {
+                    t[k] ^= u[k];
+                }
+            }
+            for (int k = 0; k < 8 && off + 8 * k < dkLen; k++) {
+                for (int b = 0; b < 8 && off + 8 * k + b < dkLen; b++) {
+                    dk[off + 8 * k + b] = (byte) (t[k] >>> (56 - 8 * b));
                 }
             }
-        } catch (Exception e) {
-            throw new IllegalStateException(e.getMessage());
         }
-
-        byte[] baDerived = new byte[dkLen];
-        System.arraycopy(baos.toByteArray(), 0, baDerived, 0, baDerived.length);
-
-        return baDerived;
+        return dk;
     }
 
-    private static byte[] F(String P, String S, int c, int i) {
-        byte[] U_LAST = null;
-        byte[] U_XOR = null;
-
-        Mac mac = Hash.hmacS512Init(P.getBytes(StandardCharsets.UTF_8));
+    /**
+     * <p>PBKDF2-HMAC-SHA512 of many passwords with the same salt, in parallel on the common pool.</p>
+     *
+     * @param passwords .
+     * @param salt      .
+     * @param c         the number of iterations, at least 1
+     * @param dkLen     the length of the derived keys in bytes
+     * @return the derived keys in the order of the passwords
+     */
+    public static List<byte[]> hmacSha512(List<byte[]> passwords, byte[] salt, int c, int dkLen) {
+        return IntStream.range(0, passwords.size()).parallel()
+                .mapToObj(i -> hmacSha512(passwords.get(i), salt, c, dkLen))
+                .collect(Collectors.toList());
+    }
 
-        for (int j = 0; j < c; j++) {
-            if (j == 0) {
-                byte[] baS = S.getBytes(StandardCharsets.UTF_8);
-                byte[] baI = INT(i);
-                byte[] baU = new byte[baS.length + baI.length];
+    /**
+     * <p>The states after the key xor ipad and the key xor opad.</p>
+     */
+    private static void padKey(byte[] password, long[] inner, long[] outer, long[] w) {
+        var key = password;
+        if (key.length > BLOCK_LENGTH) {
+            try {
+                key = MessageDigest.getInstance("SHA-512").digest(key);
+            } catch (NoSuchAlgorithmException e) {
+                log.severe(e.getMessage());
+                throw new IllegalStateException(e.getMessage());
+            }
+        }
+        var block = Arrays.copyOf(key, BLOCK_LENGTH);
+        System.arraycopy(IV, 0, inner, 0, 8);
+        System.arraycopy(IV, 0, outer, 0, 8);
+        for (int k = 0; k < 16; k++) {
+            w[k] = word(block, 8 * k) ^ 0x3636363636363636L;
+        }
+        compress(inner, w);
+        for (int k = 0; k < 16; k++) {
+            w[k] = word(block, 8 * k) ^ 0x5c5c5c5c5c5c5c5cL;
+        }
+        compress(outer, w);
+        Arrays.fill(block, (byte) 0);
+    }
 
-                System.arraycopy(baS, 0, baU, 0, baS.length);
-                System.arraycopy(baI, 0, baU, baS.length, baI.length);
+    /**
+     * <p>Hashes the message and its padding into the state after one key block, the digest is left in the state.</p>
+     */
+    private static void hashTail(long[] s, byte[] message, long[] w) {
+        long bits = (BLOCK_LENGTH + (long) message.length) * 8;
+        int padded = (message.length + 17 + BLOCK_LENGTH - 1) / BLOCK_LENGTH * BLOCK_LENGTH;
+        var block = Arrays.copyOf(message, padded);
+        block[message.length] = (byte) 0x80;
+        for (int b = 0; b < 8; b++) {
+            block[padded - 1 - b] = (byte) (bits >>> (8 * b));
+        }
+        for (int off = 0; off < padded; off += BLOCK_LENGTH) {
+            for (int k = 0; k < 16; k++) {
+                w[k] = word(block, off + 8 * k);
+            }
+            compress(s, w);
+        }
+    }
 
-                U_XOR = mac.doFinal(baU);
-                U_LAST = U_XOR;
-                mac.reset();
-            } else {
-                byte[] baU = mac.doFinal(U_LAST);
-                mac.reset();
+    /**
+     * <p>One compression of the 64 byte message in w[0..7] with its constant padding after one key block.</p>
+     */
+    private static void compressOf64(long[] s, long[] w) {
+        w[8] = 0x8000000000000000L;
+        w[9] = 0;
+        w[10] = 0;
+        w[11] = 0;
+        w[12] = 0;
+        w[13] = 0;
+        w[14] = 0;
+        w[15] = HMAC_OF_64_BITS;
+        compress(s, w);
+    }
 
-                for (int k = 0; k < U_XOR.length; k++) {
-                    U_XOR[k] = (byte) (U_XOR[k] ^ baU[k]);
-                }
+    private static long word(byte[] b, int off) {
+        return ((b[off] & 0xffL) << 56) | ((b[off + 1] & 0xffL) << 48) | ((b[off + 2] & 0xffL) << 40) | ((b[off + 3] & 0xffL) << 32)
+                | ((b[off + 4] & 0xffL) << 24) | ((b[off + 5] & 0xffL) << 16) | ((b[off + 6] & 0xffL) << 8) | (b[off + 7] & 0xffL);
+    }
 
-                U_LAST = baU;
-            }
+    /**
+     * <p>The SHA-512 compression of the block in w[0..15], w[16..79] is overwritten.</p>
+     */
+    private static void compress(long[] s, long[] w) {
+        for (int t = 16; t < 80; t++) {
+            long x = w[t - 15];
+            long y = w[t - 2];
+            long s0 = Long.rotateRight(x, 1) ^ Long.rotateRight(x, 8) ^ (x >>> 7);
+            long s1 = Long.rotateRight(y, 19) ^ Long.rotateRight(y, 61) ^ (y >>> 6);
+            w[t] = w[t - 16] + s0 + w[t - 7] + s1;
+        }
+        long a = s[0];
+        long b = s[1];
+        long c = s[2];
+        long d = s[3];
+        long e = s[4];
+        long f = s[5];
+        long g = s[6];
+        long h = s[7];
+        // eight rounds per pass, the variables rotate by renaming instead of moving
+        for (int t = 0; t < 80; t += 8) {
+            h += sigma1(e) + ch(e, f, g) + K[t] + w[t];
+            d += h;
+            h += sigma0(a) + maj(a, b, c);
+            g += sigma1(d) + ch(d, e, f) + K[t + 1] + w[t + 1];
+            c += g;
+            g += sigma0(h) + maj(h, a, b);
+            f += sigma1(c) + ch(c, d, e) + K[t + 2] + w[t + 2];
+            b += f;
+            f += sigma0(g) + maj(g, h, a);
+            e += sigma1(b) + ch(b, c, d) + K[t + 3] + w[t + 3];
+            a += e;
+            e += sigma0(f) + maj(f, g, h);
+            d += sigma1(a) + ch(a, b, c) + K[t + 4] + w[t + 4];
+            h += d;
+            d += sigma0(e) + maj(e, f, g);
+            c += sigma1(h) + ch(h, a, b) + K[t + 5] + w[t + 5];
+            g += c;
+            c += sigma0(d) + maj(d, e, f);
+            b += sigma1(g) + ch(g, h, a) + K[t + 6] + w[t + 6];
+            f += b;
+            b += sigma0(c) + maj(c, d, e);
+            a += sigma1(f) + ch(f, g, h) + K[t + 7] + w[t + 7];
+            e += a;
+            a += sigma0(b) + maj(b, c, d);
         }
+        s[0] += a;
+        s[1] += b;
+        s[2] += c;
+        s[3] += d;
+        s[4] += e;
+        s[5] += f;
+        s[6] += g;
+        s[7] += h;
+    }
+
+    private static long sigma0(long x) {
+        return Long.rotateRight(x, 28) ^ Long.rotateRight(x, 34) ^ Long.rotateRight(x, 39);
+    }
 
-        return U_XOR;
+    private static long sigma1(long x) {
+        return Long.rotateRight(x, 14) ^ Long.rotateRight(x, 18) ^ Long.rotateRight(x, 41);
     }
 
-    private static byte[] INT(int i) {
-        ByteBuffer bb = ByteBuffer.allocate(4);
-        bb.order(ByteOrder.BIG_ENDIAN);
-        bb.putInt(i);
+    private static long ch(long x, long y, long z) {
+        return (x & y) ^ (~x & z);
+    }
 
-        return bb.array();
+    private static long maj(long x, long y, long z) {
+        return (x & y) | (z & (x | y));
     }
-    /* END RFC 2898 IMPLEMENTATION */
 }
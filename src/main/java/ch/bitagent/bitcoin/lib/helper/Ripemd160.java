@@ -8,6 +8,10 @@ import static java.lang.Integer.rotateLeft;
 /**
  * <p>Ripemd160 class.</p>
  *
+ * <p>An instance is a reusable hash state with update and digest into a buffer of the caller, it allocates nothing
+ * after construction and is not thread safe. A 32 byte message, as the SHA-256 digest of HASH160, is hashed with a
+ * single compression and a constant padding.</p>
+ *
  * Bitcoin cryptography library
  * Copyright (c) Project Nayuki
  *
@@ -18,38 +22,20 @@ public class Ripemd160 {
 
     private static final int BLOCK_LEN = 64;  // In bytes
 
-    private static final int[] KL = {0x00000000, 0x5A827999, 0x6ED9EBA1, 0x8F1BBCDC, 0xA953FD4E};  // Round constants for left line
-    private static final int[] KR = {0x50A28BE6, 0x5C4DD124, 0x6D703EF3, 0x7A6D76E9, 0x00000000};  // Round constants for right line
-
-    private static final int[] RL = {  // Message schedule for left line
-            0,  1,  2,  3,  4,  5,  6,  7,  8,  9, 10, 11, 12, 13, 14, 15,
-            7,  4, 13,  1, 10,  6, 15,  3, 12,  0,  9,  5,  2, 14, 11,  8,
-            3, 10, 14,  4,  9, 15,  8,  1,  2,  7,  0,  6, 13, 11,  5, 12,
-            1,  9, 11, 10,  0,  8, 12,  4, 13,  3,  7, 15, 14,  5,  6,  2,
-            4,  0,  5,  9,  7, 12,  2, 10, 14,  1,  3,  8, 11,  6, 15, 13};
-
-    private static final int[] RR = {  // Message schedule for right line
-            5, 14,  7,  0,  9,  2, 11,  4, 13,  6, 15,  8,  1, 10,  3, 12,
-            6, 11,  3,  7,  0, 13,  5, 10, 14, 15,  8, 12,  4,  9,  1,  2,
-            15,  5,  1,  3,  7, 14,  6,  9, 11,  8, 12,  2, 10,  0,  4, 13,
-            8,  6,  4,  1,  3, 11, 15,  0,  5, 12,  2, 13,  9,  7, 10, 14,
-            12, 15, 10,  4,  1,  5,  8,  7,  6,  2, 13, 14,  0,  3,  9, 11};
-
-    private static final int[] SL = {  // Left-rotation for left line
-            11, 14, 15, 12,  5,  8,  7,  9, 11, 13, 14, 15,  6,  7,  9,  8,
-            7,  6,  8, 13, 11,  9,  7, 15,  7, 12, 15,  9, 11,  7, 13, 12,
-            11, 13,  6,  7, 14,  9, 13, 15, 14,  8, 13,  6,  5, 12,  7,  5,
-            11, 12, 14, 15, 14, 15,  9,  8,  9, 14,  5,  6,  8,  6,  5, 12,
-            9, 15,  5, 11,  6,  8, 13, 12,  5, 12, 13, 14, 11,  8,  5,  6};
-
-    private static final int[] SR = {  // Left-rotation for right line
-            8,  9,  9, 11, 13, 15, 15,  5,  7,  7,  8, 11, 14, 14, 12,  6,
-            9, 13, 15,  7, 12,  8,  9, 11,  7,  7, 12,  7,  6, 15, 13, 11,
-            9,  7, 15, 11,  8,  6,  6, 14, 12, 13,  5, 14, 13, 13,  7,  5,
-            15,  5,  8, 11, 14, 14,  6, 14,  6,  9, 12,  9, 12,  5, 15,  8,
-            8,  5, 12,  9, 12,  5, 14,  6,  8, 13,  6,  5, 15, 13, 11, 11};
-
-    private Ripemd160() {}  // Not instantiable
+    private static final int DIGEST_LEN = 20;  // In bytes
+
+    private final int[] state = new int[5];
+    private final int[] schedule = new int[16];
+    private final byte[] block = new byte[BLOCK_LEN];
+    private int blockLen;
+    private long length;
+
+    /**
+     * Creates a hash state for a new message.
+     */
+    public Ripemd160() {
+        reset();
+    }
 
     /**
      * Computes and returns a 20-byte (160-bit) hash of the specified binary message.
@@ -60,85 +46,477 @@ public class Ripemd160 {
      * @throws java.lang.NullPointerException if the message is {@code null}
      */
     public static byte[] getHash(byte[] msg) {
-        // Compress whole message blocks
         Objects.requireNonNull(msg);
-        int[] state = {0x67452301, 0xEFCDAB89, 0x98BADCFE, 0x10325476, 0xC3D2E1F0};
-        int off = msg.length / BLOCK_LEN * BLOCK_LEN;
-        compress(state, msg, off);
+        var result = new byte[DIGEST_LEN];
+        new Ripemd160().update(msg, 0, msg.length).digest(result, 0);
+        return result;
+    }
 
+    /**
+     * Starts a new message.
+     */
+    public void reset() {
+        state[0] = 0x67452301;
+        state[1] = 0xEFCDAB89;
+        state[2] = 0x98BADCFE;
+        state[3] = 0x10325476;
+        state[4] = 0xC3D2E1F0;
+        blockLen = 0;
+        length = 0;
+    }
+
+    /**
+     * Adds len bytes of msg from off to the message.
+     *
+     * @param msg .
+     * @param off .
+     * @param len .
+     * @return this
+     */
+    public Ripemd160 update(byte[] msg, int off, int len) {
+        Objects.checkFromIndexSize(off, len, msg.length);
+        length += len;
+        if (blockLen > 0) {
+            int n = Math.min(len, BLOCK_LEN - blockLen);
+            System.arraycopy(msg, off, block, blockLen, n);
+            blockLen += n;
+            off += n;
+            len -= n;
+            if (blockLen < BLOCK_LEN) {
+                return this;
+            }
+            compress(block, 0);
+            blockLen = 0;
+        }
+        for (; len >= BLOCK_LEN; off += BLOCK_LEN, len -= BLOCK_LEN) {
+            compress(msg, off);
+        }
+        System.arraycopy(msg, off, block, 0, len);
+        blockLen = len;
+        return this;
+    }
+
+    /**
+     * Writes the 20-byte hash of the message to out at off and starts a new message.
+     *
+     * @param out .
+     * @param off .
+     */
+    public void digest(byte[] out, int off) {
         // Final blocks, padding, and length
-        byte[] block = new byte[BLOCK_LEN];
-        System.arraycopy(msg, off, block, 0, msg.length - off);
-        off = msg.length % block.length;
-        block[off] = (byte)0x80;
-        off++;
-        if (off + 8 > block.length) {
-            compress(state, block, block.length);
+        Arrays.fill(block, blockLen, BLOCK_LEN, (byte)0);
+        block[blockLen] = (byte)0x80;
+        if (blockLen + 1 + 8 > BLOCK_LEN) {
+            compress(block, 0);
             Arrays.fill(block, (byte)0);
         }
-        long len = (long)msg.length << 3;
+        long len = length << 3;
         for (int i = 0; i < 8; i++)
-            block[block.length - 8 + i] = (byte)(len >>> (i * 8));
-        compress(state, block, block.length);
+            block[BLOCK_LEN - 8 + i] = (byte)(len >>> (i * 8));
+        compress(block, 0);
+        writeState(out, off);
+        reset();
+    }
+
+    /**
+     * Writes the 20-byte hash of the 32-byte message in msg at off to out at outOff, with a single compression.
+     * The state is left for a new message.
+     *
+     * @param msg    .
+     * @param off    .
+     * @param out    .
+     * @param outOff .
+     */
+    public void digest32(byte[] msg, int off, byte[] out, int outOff) {
+        reset();
+        load(msg, off, 8);
+        // 0x80 after the message, the length of 256 bits at the end
+        schedule[8] = 0x80;
+        for (int j = 9; j < 16; j++)
+            schedule[j] = 0;
+        schedule[14] = 256;
+        rounds();
+        writeState(out, outOff);
+        reset();
+    }
 
+    private void writeState(byte[] out, int off) {
         // Int32 array to bytes in little endian
-        byte[] result = new byte[state.length * 4];
-        for (int i = 0; i < result.length; i++)
-            result[i] = (byte)(state[i / 4] >>> (i % 4 * 8));
-        return result;
+        for (int i = 0; i < DIGEST_LEN; i++)
+            out[off + i] = (byte)(state[i / 4] >>> (i % 4 * 8));
     }
 
-    private static void compress(int[] state, byte[] blocks, int len) {
-        if (len % BLOCK_LEN != 0)
-            throw new IllegalArgumentException();
-        for (int i = 0; i < len; i += BLOCK_LEN) {
-
-            // Message schedule
-            int[] schedule = new int[16];
-            for (int j = 0; j < BLOCK_LEN; j++)
-                schedule[j / 4] |= (blocks[i + j] & 0xFF) << (j % 4 * 8);
-
-            // The 80 rounds
-            int al = state[0];
-            int ar = state[0];
-            int bl = state[1];
-            int br = state[1];
-            int cl = state[2];
-            int cr = state[2];
-            int dl = state[3];
-            int dr = state[3];
-            int el = state[4];
-            int er = state[4];
-            for (int j = 0; j < 80; j++) {
-                int temp;
-                temp = rotateLeft(al + f(j, bl, cl, dl) + schedule[RL[j]] + KL[j / 16], SL[j]) + el;
-                al = el;
-                el = dl;
-                dl = rotateLeft(cl, 10);
-                cl = bl;
-                bl = temp;
-                temp = rotateLeft(ar + f(79 - j, br, cr, dr) + schedule[RR[j]] + KR[j / 16], SR[j]) + er;
-                ar = er;
-                er = dr;
-                dr = rotateLeft(cr, 10);
-                cr = br;
-                br = temp;
-            }
-            int temp = state[1] + cl + dr;
-            state[1] = state[2] + dl + er;
-            state[2] = state[3] + el + ar;
-            state[3] = state[4] + al + br;
-            state[4] = state[0] + bl + cr;
-            state[0] = temp;
+    private void load(byte[] msg, int off, int words) {
+        for (int j = 0; j < words; j++) {
+            int o = off + 4 * j;
+            schedule[j] = (msg[o] & 0xFF) | (msg[o + 1] & 0xFF) << 8 | (msg[o + 2] & 0xFF) << 16 | (msg[o + 3] & 0xFF) << 24;
         }
     }
 
-    private static int f(int i, int x, int y, int z) {
-        assert 0 <= i && i < 80;
-        if (i < 16) return x ^ y ^ z;
-        if (i < 32) return (x & y) | (~x & z);
-        if (i < 48) return (x | ~y) ^ z;
-        if (i < 64) return (x & z) | (y & ~z);
-        return x ^ (y | ~z);
+    private void compress(byte[] msg, int off) {
+        // Message schedule
+        load(msg, off, 16);
+        rounds();
+    }
+
+    private void rounds() {
+        // The 80 rounds of both lines unrolled, the registers change their roles instead of being moved
+        int x0 = schedule[0];
+        int x1 = schedule[1];
+        int x2 = schedule[2];
+        int x3 = schedule[3];
+        int x4 = schedule[4];
+        int x5 = schedule[5];
+        int x6 = schedule[6];
+        int x7 = schedule[7];
+        int x8 = schedule[8];
+        int x9 = schedule[9];
+        int x10 = schedule[10];
+        int x11 = schedule[11];
+        int x12 = schedule[12];
+        int x13 = schedule[13];
+        int x14 = schedule[14];
+        int x15 = schedule[15];
+        int al = state[0];
+        int ar = state[0];
+        int bl = state[1];
+        int br = state[1];
+        int cl = state[2];
+        int cr = state[2];
+        int dl = state[3];
+        int dr = state[3];
+        int el = state[4];
+        int er = state[4];
+        // rounds 0 to 15
+        al = rotateLeft(al + (bl ^ cl ^ dl) + x0, 11) + el;
+        cl = rotateLeft(cl, 10);
+        ar = rotateLeft(ar + (br ^ (cr | ~dr)) + x5 + 0x50A28BE6, 8) + er;
+        cr = rotateLeft(cr, 10);
+        el = rotateLeft(el + (al ^ bl ^ cl) + x1, 14) + dl;
+        bl = rotateLeft(bl, 10);
+        er = rotateLeft(er + (ar ^ (br | ~cr)) + x14 + 0x50A28BE6, 9) + dr;
+        br = rotateLeft(br, 10);
+        dl = rotateLeft(dl + (el ^ al ^ bl) + x2, 15) + cl;
+        al = rotateLeft(al, 10);
+        dr = rotateLeft(dr + (er ^ (ar | ~br)) + x7 + 0x50A28BE6, 9) + cr;
+        ar = rotateLeft(ar, 10);
+        cl = rotateLeft(cl + (dl ^ el ^ al) + x3, 12) + bl;
+        el = rotateLeft(el, 10);
+        cr = rotateLeft(cr + (dr ^ (er | ~ar)) + x0 + 0x50A28BE6, 11) + br;
+        er = rotateLeft(er, 10);
+        bl = rotateLeft(bl + (cl ^ dl ^ el) + x4, 5) + al;
+        dl = rotateLeft(dl, 10);
+        br = rotateLeft(br + (cr ^ (dr | ~er)) + x9 + 0x50A28BE6, 13) + ar;
+        dr = rotateLeft(dr, 10);
+        al = rotateLeft(al + (bl ^ cl ^ dl) + x5, 8) + el;
+        cl = rotateLeft(cl, 10);
+        ar = rotateLeft(ar + (br ^ (cr | ~dr)) + x2 + 0x50A28BE6, 15) + er;
+        cr = rotateLeft(cr, 10);
+        el = rotateLeft(el + (al ^ bl ^ cl) + x6, 7) + dl;
+        bl = rotateLeft(bl, 10);
+        er = rotateLeft(er + (ar ^ (br | ~cr)) + x11 + 0x50A28BE6, 15) + dr;
+        br = rotateLeft(br, 10);
+        dl = rotateLeft(dl + (el ^ al ^ bl) + x7, 9) + cl;
+        al = rotateLeft(al, 10);
+        dr = rotateLeft(dr + (er ^ (ar | ~br)) + x4 + 0x50A28BE6, 5) + cr;
+        ar = rotateLeft(ar, 10);
+        cl = rotateLeft(cl + (dl ^ el ^ al) + x8, 11) + bl;
+        el = rotateLeft(el, 10);
+        cr = rotateLeft(cr + (dr ^ (er | ~ar)) + x13 + 0x50A28BE6, 7) + br;
+        er = rotateLeft(er, 10);
+        bl = rotateLeft(bl + (cl ^ dl ^ el) + x9, 13) + al;
+        dl = rotateLeft(dl, 10);
+        br = rotateLeft(br + (cr ^ (dr | ~er)) + x6 + 0x50A28BE6, 7) + ar;
+        dr = rotateLeft(dr, 10);
+        al = rotateLeft(al + (bl ^ cl ^ dl) + x10, 14) + el;
+        cl = rotateLeft(cl, 10);
+        ar = rotateLeft(ar + (br ^ (cr | ~dr)) + x15 + 0x50A28BE6, 8) + er;
+        cr = rotateLeft(cr, 10);
+        el = rotateLeft(el + (al ^ bl ^ cl) + x11, 15) + dl;
+        bl = rotateLeft(bl, 10);
+        er = rotateLeft(er + (ar ^ (br | ~cr)) + x8 + 0x50A28BE6, 11) + dr;
+        br = rotateLeft(br, 10);
+        dl = rotateLeft(dl + (el ^ al ^ bl) + x12, 6) + cl;
+        al = rotateLeft(al, 10);
+        dr = rotateLeft(dr + (er ^ (ar | ~br)) + x1 + 0x50A28BE6, 14) + cr;
+        ar = rotateLeft(ar, 10);
+        cl = rotateLeft(cl + (dl ^ el ^ al) + x13, 7) + bl;
+        el = rotateLeft(el, 10);
+        cr = rotateLeft(cr + (dr ^ (er | ~ar)) + x10 + 0x50A28BE6, 14) + br;
+        er = rotateLeft(er, 10);
+        bl = rotateLeft(bl + (cl ^ dl ^ el) + x14, 9) + al;
+        dl = rotateLeft(dl, 10);
+        br = rotateLeft(br + (cr ^ (dr | ~er)) + x3 + 0x50A28BE6, 12) + ar;
+        dr = rotateLeft(dr, 10);
+        al = rotateLeft(al + (bl ^ cl ^ dl) + x15, 8) + el;
+        cl = rotateLeft(cl, 10);
+        ar = rotateLeft(ar + (br ^ (cr | ~dr)) + x12 + 0x50A28BE6, 6) + er;
+        cr = rotateLeft(cr, 10);
+        // rounds 16 to 31
+        el = rotateLeft(el + ((al & bl) | (~al & cl)) + x7 + 0x5A827999, 7) + dl;
+        bl = rotateLeft(bl, 10);
+        er = rotateLeft(er + ((ar & cr) | (br & ~cr)) + x6 + 0x5C4DD124, 9) + dr;
+        br = rotateLeft(br, 10);
+        dl = rotateLeft(dl + ((el & al) | (~el & bl)) + x4 + 0x5A827999, 6) + cl;
+        al = rotateLeft(al, 10);
+        dr = rotateLeft(dr + ((er & br) | (ar & ~br)) + x11 + 0x5C4DD124, 13) + cr;
+        ar = rotateLeft(ar, 10);
+        cl = rotateLeft(cl + ((dl & el) | (~dl & al)) + x13 + 0x5A827999, 8) + bl;
+        el = rotateLeft(el, 10);
+        cr = rotateLeft(cr + ((dr & ar) | (er & ~ar)) + x3 + 0x5C4DD124, 15) + br;
+        er = rotateLeft(er, 10);
+        bl = rotateLeft(bl + ((cl & dl) | (~cl & el)) + x1 + 0x5A827999, 13) + al;
+        dl = rotateLeft(dl, 10);
+        br = rotateLeft(br + ((cr & er) | (dr & ~er)) + x7 + 0x5C4DD124, 7) + ar;
+        dr = rotateLeft(dr, 10);
+        al = rotateLeft(al + ((bl & cl) | (~bl & dl)) + x10 + 0x5A827999, 11) + el;
+        cl = rotateLeft(cl, 10);
+        ar = rotateLeft(ar + ((br & dr) | (cr & ~dr)) + x0 + 0x5C4DD124, 12) + er;
+        cr = rotateLeft(cr, 10);
+        el = rotateLeft(el + ((al & bl) | (~al & cl)) + x6 + 0x5A827999, 9) + dl;
+        bl = rotateLeft(bl, 10);
+        er = rotateLeft(er + ((ar & cr) | (br & ~cr)) + x13 + 0x5C4DD124, 8) + dr;
+        br = rotateLeft(br, 10);
+        dl = rotateLeft(dl + ((el & al) | (~el & bl)) + x15 + 0x5A827999, 7) + cl;
+        al = rotateLeft(al, 10);
+        dr = rotateLeft(dr + ((er & br) | (ar & ~br)) + x5 + 0x5C4DD124, 9) + cr;
+        ar = rotateLeft(ar, 10);
+        cl = rotateLeft(cl + ((dl & el) | (~dl & al)) + x3 + 0x5A827999, 15) + bl;
+        el = rotateLeft(el, 10);
+        cr = rotateLeft(cr + ((dr & ar) | (er & ~ar)) + x10 + 0x5C4DD124, 11) + br;
+        er = rotateLeft(er, 10);
+        bl = rotateLeft(bl + ((cl & dl) | (~cl & el)) + x12 + 0x5A827999, 7) + al;
+        dl = rotateLeft(dl, 10);
+        br = rotateLeft(br + ((cr & er) | (dr & ~er)) + x14 + 0x5C4DD124, 7) + ar;
+        dr = rotateLeft(dr, 10);
+        al = rotateLeft(al + ((bl & cl) | (~bl & dl)) + x0 + 0x5A827999, 12) + el;
+        cl = rotateLeft(cl, 10);
+        ar = rotateLeft(ar + ((br & dr) | (cr & ~dr)) + x15 + 0x5C4DD124, 7) + er;
+        cr = rotateLeft(cr, 10);
+        el = rotateLeft(el + ((al & bl) | (~al & cl)) + x9 + 0x5A827999, 15) + dl;
+        bl = rotateLeft(bl, 10);
+        er = rotateLeft(er + ((ar & cr) | (br & ~cr)) + x8 + 0x5C4DD124, 12) + dr;
+        br = rotateLeft(br, 10);
+        dl = rotateLeft(dl + ((el & al) | (~el & bl)) + x5 + 0x5A827999, 9) + cl;
+        al = rotateLeft(al, 10);
+        dr = rotateLeft(dr + ((er & br) | (ar & ~br)) + x12 + 0x5C4DD124, 7) + cr;
+        ar = rotateLeft(ar, 10);
+        cl = rotateLeft(cl + ((dl & el) | (~dl & al)) + x2 + 0x5A827999, 11) + bl;
+        el = rotateLeft(el, 10);
+        cr = rotateLeft(cr + ((dr & ar) | (er & ~ar)) + x4 + 0x5C4DD124, 6) + br;
+        er = rotateLeft(er, 10);
+        bl = rotateLeft(bl + ((cl & dl) | (~cl & el)) + x14 + 0x5A827999, 7) + al;
+        dl = rotateLeft(dl, 10);
+        br = rotateLeft(br + ((cr & er) | (dr & ~er)) + x9 + 0x5C4DD124, 15) + ar;
+        dr = rotateLeft(dr, 10);
+        al = rotateLeft(al + ((bl & cl) | (~bl & dl)) + x11 + 0x5A827999, 13) + el;
+        cl = rotateLeft(cl, 10);
+        ar = rotateLeft(ar + ((br & dr) | (cr & ~dr)) + x1 + 0x5C4DD124, 13) + er;
+        cr = rotateLeft(cr, 10);
+        el = rotateLeft(el + ((al & bl) | (~al & cl)) + x8 + 0x5A827999, 12) + dl;
+        bl = rotateLeft(bl, 10);
+        er = rotateLeft(er + ((ar & cr) | (br & ~cr)) + x2 + 0x5C4DD124, 11) + dr;
+        br = rotateLeft(br, 10);
+        // rounds 32 to 47
+        dl = rotateLeft(dl + ((el | ~al) ^ bl) + x3 + 0x6ED9EBA1, 11) + cl;
+        al = rotateLeft(al, 10);
+        dr = rotateLeft(dr + ((er | ~ar) ^ br) + x15 + 0x6D703EF3, 9) + cr;
+        ar = rotateLeft(ar, 10);
+        cl = rotateLeft(cl + ((dl | ~el) ^ al) + x10 + 0x6ED9EBA1, 13) + bl;
+        el = rotateLeft(el, 10);
+        cr = rotateLeft(cr + ((dr | ~er) ^ ar) + x5 + 0x6D703EF3, 7) + br;
+        er = rotateLeft(er, 10);
+        bl = rotateLeft(bl + ((cl | ~dl) ^ el) + x14 + 0x6ED9EBA1, 6) + al;
+        dl = rotateLeft(dl, 10);
+        br = rotateLeft(br + ((cr | ~dr) ^ er) + x1 + 0x6D703EF3, 15) + ar;
+        dr = rotateLeft(dr, 10);
+        al = rotateLeft(al + ((bl | ~cl) ^ dl) + x4 + 0x6ED9EBA1, 7) + el;
+        cl = rotateLeft(cl, 10);
+        ar = rotateLeft(ar + ((br | ~cr) ^ dr) + x3 + 0x6D703EF3, 11) + er;
+        cr = rotateLeft(cr, 10);
+        el = rotateLeft(el + ((al | ~bl) ^ cl) + x9 + 0x6ED9EBA1, 14) + dl;
+        bl = rotateLeft(bl, 10);
+        er = rotateLeft(er + ((ar | ~br) ^ cr) + x7 + 0x6D703EF3, 8) + dr;
+        br = rotateLeft(br, 10);
+        dl = rotateLeft(dl + ((el | ~al) ^ bl) + x15 + 0x6ED9EBA1, 9) + cl;
+        al = rotateLeft(al, 10);
+        dr = rotateLeft(dr + ((er | ~ar) ^ br) + x14 + 0x6D703EF3, 6) + cr;
+        ar = rotateLeft(ar, 10);
+        cl = rotateLeft(cl + ((dl | ~el) ^ al) + x8 + 0x6ED9EBA1, 13) + bl;
+        el = rotateLeft(el, 10);
+        cr = rotateLeft(cr + ((dr | ~er) ^ ar) + x6 + 0x6D703EF3, 6) + br;
+        er = rotateLeft(er, 10);
+        bl = rotateLeft(bl + ((cl | ~dl) ^ el) + x1 + 0x6ED9EBA1, 15) + al;
+        dl = rotateLeft(dl, 10);
+        br = rotateLeft(br + ((cr | ~dr) ^ er) + x9 + 0x6D703EF3, 14) + ar;
+        dr = rotateLeft(dr, 10);
+        al = rotateLeft(al + ((bl | ~cl) ^ dl) + x2 + 0x6ED9EBA1, 14) + el;
+        cl = rotateLeft(cl, 10);
+        ar = rotateLeft(ar + ((br | ~cr) ^ dr) + x11 + 0x6D703EF3, 12) + er;
+        cr = rotateLeft(cr, 10);
+        el = rotateLeft(el + ((al | ~bl) ^ cl) + x7 + 0x6ED9EBA1, 8) + dl;
+        bl = rotateLeft(bl, 10);
+        er = rotateLeft(er + ((ar | ~br) ^ cr) + x8 + 0x6D703EF3, 13) + dr;
+        br = rotateLeft(br, 10);
+        dl = rotateLeft(dl + ((el | ~al) ^ bl) + x0 + 0x6ED9EBA1, 13) + cl;
+        al = rotateLeft(al, 10);
+        dr = rotateLeft(dr + ((er | ~ar) ^ br) + x12 + 0x6D703EF3, 5) + cr;
+        ar = rotateLeft(ar, 10);
+        cl = rotateLeft(cl + ((dl | ~el) ^ al) + x6 + 0x6ED9EBA1, 6) + bl;
+        el = rotateLeft(el, 10);
+        cr = rotateLeft(cr + ((dr | ~er) ^ ar) + x2 + 0x6D703EF3, 14) + br;
+        er = rotateLeft(er, 10);
+        bl = rotateLeft(bl + ((cl | ~dl) ^ el) + x13 + 0x6ED9EBA1, 5) + al;
+        dl = rotateLeft(dl, 10);
+        br = rotateLeft(br + ((cr | ~dr) ^ er) + x10 + 0x6D703EF3, 13) + ar;
+        dr = rotateLeft(dr, 10);
+        al = rotateLeft(al + ((bl | ~cl) ^ dl) + x11 + 0x6ED9EBA1, 12) + el;
+        cl = rotateLeft(cl, 10);
+        ar = rotateLeft(ar + ((br | ~cr) ^ dr) + x0 + 0x6D703EF3, 13) + er;
+        cr = rotateLeft(cr, 10);
+        el = rotateLeft(el + ((al | ~bl) ^ cl) + x5 + 0x6ED9EBA1, 7) + dl;
+        bl = rotateLeft(bl, 10);
+        er = rotateLeft(er + ((ar | ~br) ^ cr) + x4 + 0x6D703EF3, 7) + dr;
+        br = rotateLeft(br, 10);
+        dl = rotateLeft(dl + ((el | ~al) ^ bl) + x12 + 0x6ED9EBA1, 5) + cl;
+        al = rotateLeft(al, 10);
+        dr = rotateLeft(dr + ((er | ~ar) ^ br) + x13 + 0x6D703EF3, 5) + cr;
+        ar = rotateLeft(ar, 10);
+        // rounds 48 to 63
+        cl = rotateLeft(cl + ((dl & al) | (el & ~al)) + x1 + 0x8F1BBCDC, 11) + bl;
+        el = rotateLeft(el, 10);
+        cr = rotateLeft(cr + ((dr & er) | (~dr & ar)) + x8 + 0x7A6D76E9, 15) + br;
+        er = rotateLeft(er, 10);
+        bl = rotateLeft(bl + ((cl & el) | (dl & ~el)) + x9 + 0x8F1BBCDC, 12) + al;
+        dl = rotateLeft(dl, 10);
+        br = rotateLeft(br + ((cr & dr) | (~cr & er)) + x6 + 0x7A6D76E9, 5) + ar;
+        dr = rotateLeft(dr, 10);
+        al = rotateLeft(al + ((bl & dl) | (cl & ~dl)) + x11 + 0x8F1BBCDC, 14) + el;
+        cl = rotateLeft(cl, 10);
+        ar = rotateLeft(ar + ((br & cr) | (~br & dr)) + x4 + 0x7A6D76E9, 8) + er;
+        cr = rotateLeft(cr, 10);
+        el = rotateLeft(el + ((al & cl) | (bl & ~cl)) + x10 + 0x8F1BBCDC, 15) + dl;
+        bl = rotateLeft(bl, 10);
+        er = rotateLeft(er + ((ar & br) | (~ar & cr)) + x1 + 0x7A6D76E9, 11) + dr;
+        br = rotateLeft(br, 10);
+        dl = rotateLeft(dl + ((el & bl) | (al & ~bl)) + x0 + 0x8F1BBCDC, 14) + cl;
+        al = rotateLeft(al, 10);
+        dr = rotateLeft(dr + ((er & ar) | (~er & br)) + x3 + 0x7A6D76E9, 14) + cr;
+        ar = rotateLeft(ar, 10);
+        cl = rotateLeft(cl + ((dl & al) | (el & ~al)) + x8 + 0x8F1BBCDC, 15) + bl;
+        el = rotateLeft(el, 10);
+        cr = rotateLeft(cr + ((dr & er) | (~dr & ar)) + x11 + 0x7A6D76E9, 14) + br;
+        er = rotateLeft(er, 10);
+        bl = rotateLeft(bl + ((cl & el) | (dl & ~el)) + x12 + 0x8F1BBCDC, 9) + al;
+        dl = rotateLeft(dl, 10);
+        br = rotateLeft(br + ((cr & dr) | (~cr & er)) + x15 + 0x7A6D76E9, 6) + ar;
+        dr = rotateLeft(dr, 10);
+        al = rotateLeft(al + ((bl & dl) | (cl & ~dl)) + x4 + 0x8F1BBCDC, 8) + el;
+        cl = rotateLeft(cl, 10);
+        ar = rotateLeft(ar + ((br & cr) | (~br & dr)) + x0 + 0x7A6D76E9, 14) + er;
+        cr = rotateLeft(cr, 10);
+        el = rotateLeft(el + ((al & cl) | (bl & ~cl)) + x13 + 0x8F1BBCDC, 9) + dl;
+        bl = rotateLeft(bl, 10);
+        er = rotateLeft(er + ((ar & br) | (~ar & cr)) + x5 + 0x7A6D76E9, 6) + dr;
+        br = rotateLeft(br, 10);
+        dl = rotateLeft(dl + ((el & bl) | (al & ~bl)) + x3 + 0x8F1BBCDC, 14) + cl;
+        al = rotateLeft(al, 10);
+        dr = rotateLeft(dr + ((er & ar) | (~er & br)) + x12 + 0x7A6D76E9, 9) + cr;
+        ar = rotateLeft(ar, 10);
+        cl = rotateLeft(cl + ((dl & al) | (el & ~al)) + x7 + 0x8F1BBCDC, 5) + bl;
+        el = rotateLeft(el, 10);
+        cr = rotateLeft(cr + ((dr & er) | (~dr & ar)) + x2 + 0x7A6D76E9, 12) + br;
+        er = rotateLeft(er, 10);
+        bl = rotateLeft(bl + ((cl & el) | (dl & ~el)) + x15 + 0x8F1BBCDC, 6) + al;
+        dl = rotateLeft(dl, 10);
+        br = rotateLeft(br + ((cr & dr) | (~cr & er)) + x13 + 0x7A6D76E9, 9) + ar;
+        dr = rotateLeft(dr, 10);
+        al = rotateLeft(al + ((bl & dl) | (cl & ~dl)) + x14 + 0x8F1BBCDC, 8) + el;
+        cl = rotateLeft(cl, 10);
+        ar = rotateLeft(ar + ((br & cr) | (~br & dr)) + x9 + 0x7A6D76E9, 12) + er;
+        cr = rotateLeft(cr, 10);
+        el = rotateLeft(el + ((al & cl) | (bl & ~cl)) + x5 + 0x8F1BBCDC, 6) + dl;
+        bl = rotateLeft(bl, 10);
+        er = rotateLeft(er + ((ar & br) | (~ar & cr)) + x7 + 0x7A6D76E9, 5) + dr;
+        br = rotateLeft(br, 10);
+        dl = rotateLeft(dl + ((el & bl) | (al & ~bl)) + x6 + 0x8F1BBCDC, 5) + cl;
+        al = rotateLeft(al, 10);
+        dr = rotateLeft(dr + ((er & ar) | (~er & br)) + x10 + 0x7A6D76E9, 15) + cr;
+        ar = rotateLeft(ar, 10);
+        cl = rotateLeft(cl + ((dl & al) | (el & ~al)) + x2 + 0x8F1BBCDC, 12) + bl;
+        el = rotateLeft(el, 10);
+        cr = rotateLeft(cr + ((dr & er) | (~dr & ar)) + x14 + 0x7A6D76E9, 8) + br;
+        er = rotateLeft(er, 10);
+        // rounds 64 to 79
+        bl = rotateLeft(bl + (cl ^ (dl | ~el)) + x4 + 0xA953FD4E, 9) + al;
+        dl = rotateLeft(dl, 10);
+        br = rotateLeft(br + (cr ^ dr ^ er) + x12, 8) + ar;
+        dr = rotateLeft(dr, 10);
+        al = rotateLeft(al + (bl ^ (cl | ~dl)) + x0 + 0xA953FD4E, 15) + el;
+        cl = rotateLeft(cl, 10);
+        ar = rotateLeft(ar + (br ^ cr ^ dr) + x15, 5) + er;
+        cr = rotateLeft(cr, 10);
+        el = rotateLeft(el + (al ^ (bl | ~cl)) + x5 + 0xA953FD4E, 5) + dl;
+        bl = rotateLeft(bl, 10);
+        er = rotateLeft(er + (ar ^ br ^ cr) + x10, 12) + dr;
+        br = rotateLeft(br, 10);
+        dl = rotateLeft(dl + (el ^ (al | ~bl)) + x9 + 0xA953FD4E, 11) + cl;
+        al = rotateLeft(al, 10);
+        dr = rotateLeft(dr + (er ^ ar ^ br) + x4, 9) + cr;
+        ar = rotateLeft(ar, 10);
+        cl = rotateLeft(cl + (dl ^ (el | ~al)) + x7 + 0xA953FD4E, 6) + bl;
+        el = rotateLeft(el, 10);
+        cr = rotateLeft(cr + (dr ^ er ^ ar) + x1, 12) + br;
+        er = rotateLeft(er, 10);
+        bl = rotateLeft(bl + (cl ^ (dl | ~el)) + x12 + 0xA953FD4E, 8) + al;
+        dl = rotateLeft(dl, 10);
+        br = rotateLeft(br + (cr ^ dr ^ er) + x5, 5) + ar;
+        dr = rotateLeft(dr, 10);
+        al = rotateLeft(al + (bl ^ (cl | ~dl)) + x2 + 0xA953FD4E, 13) + el;
+        cl = rotateLeft(cl, 10);
+        ar = rotateLeft(ar + (br ^ cr ^ dr) + x8, 14) + er;
+        cr = rotateLeft(cr, 10);
+        el = rotateLeft(el + (al ^ (bl | ~cl)) + x10 + 0xA953FD4E, 12) + dl;
+        bl = rotateLeft(bl, 10);
+        er = rotateLeft(er + (ar ^ br ^ cr) + x7, 6) + dr;
+        br = rotateLeft(br, 10);
+        dl = rotateLeft(dl + (el ^ (al | ~bl)) + x14 + 0xA953FD4E, 5) + cl;
+        al = rotateLeft(al, 10);
+        dr = rotateLeft(dr + (er ^ ar ^ br) + x6, 8) + cr;
+        ar = rotateLeft(ar, 10);
+        cl = rotateLeft(cl + (dl ^ (el | ~al)) + x1 + 0xA953FD4E, 12) + bl;
+        el = rotateLeft(el, 10);
+        cr = rotateLeft(cr + (dr ^ er ^ ar) + x2, 13) + br;
+        er = rotateLeft(er, 10);
+        bl = rotateLeft(bl + (cl ^ (dl | ~el)) + x3 + 0xA953FD4E, 13) + al;
+        dl = rotateLeft(dl, 10);
+        br = rotateLeft(br + (cr ^ dr ^ er) + x13, 6) + ar;
+        dr = rotateLeft(dr, 10);
+        al = rotateLeft(al + (bl ^ (cl | ~dl)) + x8 + 0xA953FD4E, 14) + el;
+        cl = rotateLeft(cl, 10);
+        ar = rotateLeft(ar + (br ^ cr ^ dr) + x14, 5) + er;
+        cr = rotateLeft(cr, 10);
+        el = rotateLeft(el + (al ^ (bl | ~cl)) + x11 + 0xA953FD4E, 11) + dl;
+        bl = rotateLeft(bl, 10);
+        er = rotateLeft(er + (ar ^ br ^ cr) + x0, 15) + dr;
+        br = rotateLeft(br, 10);
+        dl = rotateLeft(dl + (el ^ (al | ~bl)) + x6 + 0xA953FD4E, 8) + cl;
+        al = rotateLeft(al, 10);
+        dr = rotateLeft(dr + (er ^ ar ^ br) + x3, 13) + cr;
+        ar = rotateLeft(ar, 10);
+        cl = rotateLeft(cl + (dl ^ (el | ~al)) + x15 + 0xA953FD4E, 5) + bl;
+        el = rotateLeft(el, 10);
+        cr = rotateLeft(cr + (dr ^ er ^ ar) + x9, 11) + br;
+        er = rotateLeft(er, 10);
+        bl = rotateLeft(bl + (cl ^ (dl | ~el)) + x13 + 0xA953FD4E, 6) + al;
+        dl = rotateLeft(dl, 10);
+        br = rotateLeft(br + (cr ^ dr ^ er) + x11, 11) + ar;
+        dr = rotateLeft(dr, 10);
+        int temp = state[1] + cl + dr;
+        state[1] = state[2] + dl + er;
+        state[2] = state[3] + el + ar;
+        state[3] = state[4] + al + br;
+        state[4] = state[0] + bl + cr;
+        state[0] = temp;
     }
 }
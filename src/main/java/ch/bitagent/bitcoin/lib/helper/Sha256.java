@@ -0,0 +1,134 @@
+package ch.bitagent.bitcoin.lib.helper;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * Double SHA-256 of the fixed size inputs of bitcoin, merkle parents of 64 bytes and block headers of 80 bytes
+ *
+ * <p>The inputs are read from and the digest is written to arrays of the caller, at any offset. Every thread uses
+ * its own message digest, so no provider is looked up and no array is allocated. The digest of the JDK runs on the
+ * SHA instructions of the CPU where available, which is several times faster than a compression function in
+ * Java.</p>
+ *
+ * <p>Batches of independent messages, e.g. a level of a merkle tree, are hashed in parallel on the common pool from
+ * {@value #PARALLEL} messages on.</p>
+ */
+public final class Sha256 {
+
+    private static final Logger log = Logger.getLogger(Sha256.class.getSimpleName());
+
+    /** Constant <code>PARALLEL</code>, the batch size from which the messages are hashed in parallel */
+    public static final int PARALLEL = 1024;
+
+    private Sha256() {
+    }
+
+    /**
+     * <p>sha256(sha256(left || right)) of two 32 byte hashes, e.g. a merkle parent.</p>
+     *
+     * @param left     .
+     * @param leftOff  the offset of the 32 bytes in left
+     * @param right    .
+     * @param rightOff the offset of the 32 bytes in right
+     * @param out      .
+     * @param outOff   the offset of the 32 byte digest in out, out may be one of the inputs
+     */
+    public static void hash256(byte[] left, int leftOff, byte[] right, int rightOff, byte[] out, int outOff) {
+        var digest = Hash.threadDigestSha256();
+        digest.update(left, leftOff, 32);
+        digest.update(right, rightOff, 32);
+        finish(digest, out, outOff);
+    }
+
+    /**
+     * <p>sha256(sha256(in)) of 64 bytes.</p>
+     *
+     * @param in     .
+     * @param inOff  the offset of the 64 bytes in in
+     * @param out    .
+     * @param outOff the offset of the 32 byte digest in out
+     */
+    public static void hash256Of64(byte[] in, int inOff, byte[] out, int outOff) {
+        var digest = Hash.threadDigestSha256();
+        digest.update(in, inOff, 64);
+        finish(digest, out, outOff);
+    }
+
+    /**
+     * <p>sha256(sha256(in)) of 80 bytes, e.g. a block header.</p>
+     *
+     * @param in     .
+     * @param inOff  the offset of the 80 bytes in in
+     * @param out    .
+     * @param outOff the offset of the 32 byte digest in out
+     */
+    public static void hash256Of80(byte[] in, int inOff, byte[] out, int outOff) {
+        var digest = Hash.threadDigestSha256();
+        digest.update(in, inOff, 80);
+        finish(digest, out, outOff);
+    }
+
+    /**
+     * <p>sha256(sha256(input)) of every input.</p>
+     *
+     * @param inputs independent messages of any length
+     * @return the 32 byte digests in the order of the inputs
+     */
+    public static byte[][] hash256(byte[][] inputs) {
+        var outputs = new byte[inputs.length][32];
+        range(inputs.length).forEach(i -> {
+            var input = inputs[i];
+            if (input.length == 64) {
+                hash256Of64(input, 0, outputs[i], 0);
+            } else if (input.length == 80) {
+                hash256Of80(input, 0, outputs[i], 0);
+            } else {
+                var digest = Hash.threadDigestSha256();
+                digest.update(input);
+                finish(digest, outputs[i], 0);
+            }
+        });
+        return outputs;
+    }
+
+    /**
+     * <p>sha256(sha256(hashes[2i] || hashes[2i+1])) of every pair of 32 byte hashes, e.g. the parents of a level of a
+     * merkle tree.</p>
+     *
+     * @param hashes an even number of 32 byte hashes
+     * @return the 32 byte digests of the pairs
+     */
+    public static byte[][] hash256Pairs(byte[][] hashes) {
+        if (hashes.length % 2 != 0) {
+            String error = String.format("Cannot pair %s hashes", hashes.length);
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+        var outputs = new byte[hashes.length / 2][32];
+        range(outputs.length).forEach(i -> hash256(hashes[2 * i], 0, hashes[2 * i + 1], 0, outputs[i], 0));
+        return outputs;
+    }
+
+    private static IntStream range(int count) {
+        var range = IntStream.range(0, count);
+        return count >= PARALLEL ? range.parallel() : range;
+    }
+
+    /**
+     * <p>The first digest and the second hash of it, both written to out.</p>
+     */
+    private static void finish(MessageDigest digest, byte[] out, int outOff) {
+        try {
+            digest.digest(out, outOff, 32);
+            digest.update(out, outOff, 32);
+            digest.digest(out, outOff, 32);
+        } catch (DigestException e) {
+            digest.reset();
+            log.severe(e.getMessage());
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package ch.bitagent.bitcoin.lib.helper;
+
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * The SHA-256 state after a prefix of whole 64 byte blocks
+ *
+ * <p>Hashing a message which starts with the prefix resumes from a clone of the state instead of compressing the
+ * prefix again. A tagged hash sha256(sha256(tag) || sha256(tag) || msg) has a prefix of exactly one block, the
+ * midstates of the tags of BIP340, BIP341 and BIP342 are precomputed and all other tags are kept once used. The same
+ * works for the first block of a block header or a constant BIP143 prefix.</p>
+ *
+ * <p>A midstate is immutable and may be shared between threads.</p>
+ */
+public final class Sha256Midstate {
+
+    private static final Logger log = Logger.getLogger(Sha256Midstate.class.getSimpleName());
+
+    /** Constant <code>BLOCK_LENGTH</code>, the SHA-256 block length in bytes */
+    public static final int BLOCK_LENGTH = 64;
+
+    private static final Map<String, Sha256Midstate> TAGS = new ConcurrentHashMap<>();
+
+    static {
+        for (String tag : new String[]{
+                "BIP0340/aux", "BIP0340/nonce", "BIP0340/challenge",
+                "TapLeaf", "TapBranch", "TapTweak", "TapSighash"}) {
+            TAGS.put(tag, tagMidstate(tag));
+        }
+    }
+
+    // only cloned, never updated after construction
+    private final MessageDigest digest;
+    private final long length;
+
+    private Sha256Midstate(MessageDigest digest, long length) {
+        this.digest = digest;
+        this.length = length;
+    }
+
+    /**
+     * <p>The state after the prefix.</p>
+     *
+     * @param prefix whole 64 byte blocks
+     * @return .
+     */
+    public static Sha256Midstate of(byte[] prefix) {
+        return of(prefix, 0, prefix.length);
+    }
+
+    /**
+     * <p>The state after len bytes of prefix from off.</p>
+     *
+     * @param prefix .
+     * @param off    .
+     * @param len    a multiple of 64
+     * @return .
+     */
+    public static Sha256Midstate of(byte[] prefix, int off, int len) {
+        checkBlocks(len);
+        var digest = Hash.getDigestSha256();
+        digest.update(prefix, off, len);
+        return new Sha256Midstate(digest, len);
+    }
+
+    /**
+     * <p>The state after sha256(tag) || sha256(tag).</p>
+     *
+     * @param tag .
+     * @return .
+     */
+    public static Sha256Midstate tagged(String tag) {
+        return TAGS.computeIfAbsent(tag, Sha256Midstate::tagMidstate);
+    }
+
+    /**
+     * <p>The state after these and further blocks.</p>
+     *
+     * @param blocks whole 64 byte blocks
+     * @return a new midstate
+     */
+    public Sha256Midstate extend(byte[] blocks) {
+        checkBlocks(blocks.length);
+        var resumed = this.resume();
+        resumed.update(blocks);
+        return new Sha256Midstate(resumed, this.length + blocks.length);
+    }
+
+    /**
+     * <p>The number of bytes hashed into this state.</p>
+     *
+     * @return .
+     */
+    public long getLength() {
+        return this.length;
+    }
+
+    /**
+     * <p>A digest in this state, to be updated with the rest of the message.</p>
+     *
+     * @return a new digest
+     */
+    public MessageDigest resume() {
+        try {
+            return (MessageDigest) this.digest.clone();
+        } catch (CloneNotSupportedException e) {
+            log.severe(e.getMessage());
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
+    /**
+     * <p>sha256(prefix || parts[0] || parts[1] || ..)</p>
+     *
+     * @param parts the rest of the message
+     * @return .
+     */
+    public byte[] hash(byte[]... parts) {
+        var resumed = this.resume();
+        for (byte[] part : parts) {
+            resumed.update(part);
+        }
+        return resumed.digest();
+    }
+
+    /**
+     * <p>sha256(sha256(prefix || parts[0] || parts[1] || ..))</p>
+     *
+     * @param parts the rest of the message
+     * @return .
+     */
+    public byte[] hash256(byte[]... parts) {
+        var resumed = this.resume();
+        for (byte[] part : parts) {
+            resumed.update(part);
+        }
+        // after digest the clone starts over from the initial state
+        return resumed.digest(resumed.digest());
+    }
+
+    private static Sha256Midstate tagMidstate(String tag) {
+        var tagHash = Hash.sha256(tag.getBytes());
+        return of(Bytes.add(tagHash, tagHash));
+    }
+
+    private static void checkBlocks(int length) {
+        if (length % BLOCK_LENGTH != 0) {
+            String error = String.format("The length %s is not a multiple of %s", length, BLOCK_LENGTH);
+            log.severe(error);
+            throw new IllegalArgumentException(error);
+        }
+    }
+}
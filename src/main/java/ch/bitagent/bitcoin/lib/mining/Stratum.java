@@ -5,6 +5,7 @@ import ch.bitagent.bitcoin.lib.ecc.Int;
 import ch.bitagent.bitcoin.lib.helper.Bytes;
 import ch.bitagent.bitcoin.lib.helper.Hash;
 import ch.bitagent.bitcoin.lib.helper.Properties;
+import ch.bitagent.bitcoin.lib.helper.Sha256;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
@@ -27,6 +28,8 @@ public class Stratum {
 
     public static final Hex DIFFICULTY_1 = Hex.parse("00000000ffff0000000000000000000000000000000000000000000000000000");
 
+    private static final String BLOCKHEADER_PADDING = "000000800000000000000000000000000000000000000000000000000000000000000000000000000000000080020000";
+
     public static Socket socket() {
         var socket0 = Properties.getStratumRpcSockets().get(0).split(":");
         return Stratum.newSocket(socket0[0], Integer.parseInt(socket0[1]));
@@ -111,14 +114,41 @@ public class Stratum {
         var coinbase = coinb1 + extranonce1 + extranonce2 + coinb2;
         var merkleRootBytes = Hash.hash256(digest, Bytes.hexStringToByteArray(coinbase));
         for (byte[] branch : merkleBranchByteArray) {
-            merkleRootBytes = Hash.hash256(digest, Bytes.add(merkleRootBytes, branch));
+            Sha256.hash256(merkleRootBytes, 0, branch, 0, merkleRootBytes, 0);
         }
         return Bytes.byteArrayToHexString(Bytes.changeOrder(merkleRootBytes));
     }
 
     public static Hex hash(String version, String prevhash, String merkleRoot, String nbits, String ntime, String nonce) {
-        var blockheader = version + prevhash + merkleRoot + nbits + ntime + nonce + "000000800000000000000000000000000000000000000000000000000000000000000000000000000000000080020000";
-        return Hex.parse(Hash.hash256(Bytes.hexStringToByteArray(blockheader)));
+        return Hex.parse(Hash.hash256(blockheader(version, prevhash, merkleRoot, nbits, ntime, nonce)));
+    }
+
+    /**
+     * <p>The hashes of a job for many nonces, hashed as one batch.</p>
+     *
+     * @param version    .
+     * @param prevhash   .
+     * @param merkleRoot .
+     * @param nbits      .
+     * @param ntime      .
+     * @param nonces     .
+     * @return the hashes in the order of the nonces
+     */
+    public static Hex[] hash(String version, String prevhash, String merkleRoot, String nbits, String ntime, String[] nonces) {
+        var blockheaders = new byte[nonces.length][];
+        for (int i = 0; i < nonces.length; i++) {
+            blockheaders[i] = blockheader(version, prevhash, merkleRoot, nbits, ntime, nonces[i]);
+        }
+        var digests = Sha256.hash256(blockheaders);
+        var hashes = new Hex[nonces.length];
+        for (int i = 0; i < nonces.length; i++) {
+            hashes[i] = Hex.parse(digests[i]);
+        }
+        return hashes;
+    }
+
+    private static byte[] blockheader(String version, String prevhash, String merkleRoot, String nbits, String ntime, String nonce) {
+        return Bytes.hexStringToByteArray(version + prevhash + merkleRoot + nbits + ntime + nonce + BLOCKHEADER_PADDING);
     }
 
     public static JSONArray miningSubscribe(PrintWriter writer, BufferedReader reader) {
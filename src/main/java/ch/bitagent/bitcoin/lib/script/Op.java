@@ -4,6 +4,7 @@ import ch.bitagent.bitcoin.lib.ecc.Hex;
 import ch.bitagent.bitcoin.lib.ecc.Int;
 import ch.bitagent.bitcoin.lib.ecc.S256Point;
 import ch.bitagent.bitcoin.lib.ecc.Signature;
+import ch.bitagent.bitcoin.lib.ecc.SignatureCache;
 import ch.bitagent.bitcoin.lib.helper.Bytes;
 import ch.bitagent.bitcoin.lib.helper.Hash;
 import ch.bitagent.bitcoin.lib.helper.Helper;
@@ -301,6 +302,12 @@ public class Op {
         //    der_signature = stack.pop()[:-1]
         var derSignatureWithHashType = stack.pop();
         var derSignature = Arrays.copyOf(derSignatureWithHashType, derSignatureWithHashType.length - 1);
+        // a signature verified before needs no parsing and no EC math
+        var cache = SignatureCache.getDefault();
+        if (cache != null && cache.contains(z.toBytes(32), secPubkey, derSignature)) {
+            stack.push(encodeNum(1));
+            return true;
+        }
         // parse the serialized pubkey and signature into objects
         S256Point point;
         Signature sig;
@@ -314,6 +321,9 @@ public class Op {
         // verify the signature using S256Point.verify()
         // push an encoded 1 or 0 depending on whether the signature verified
         if (point.verify(z, sig)) {
+            if (cache != null) {
+                cache.add(z.toBytes(32), secPubkey, derSignature);
+            }
             stack.push(encodeNum(1));
         } else {
             stack.push(encodeNum(0));
@@ -346,32 +356,37 @@ public class Op {
         }
         // OP_CHECKMULTISIG bug
         stack.pop();
-        // parse all the points
-        var points = new ArrayList<S256Point>();
-        for (byte[] secPubkey : secPubkeys) {
-            points.add(S256Point.parse(secPubkey));
-        }
-        // parse all the signatures
-        var sigs = new ArrayList<Signature>();
-        for (byte[] derSignature : derSignatures) {
-            sigs.add(Signature.parse(derSignature));
-        }
+        var cache = SignatureCache.getDefault();
+        var sighash = z.toBytes(32);
+        var key = 0;
         // loop through the signatures
-        for (Signature sig : sigs) {
-            // if we have no more points, signatures are no good
-            if (points.isEmpty()) {
-                log.severe("signatures no good or not in right order");
-                return false;
-            }
+        for (byte[] derSignature : derSignatures) {
             // we loop until we find the point which works with this signature
-            for (S256Point point : points) {
-                // get the current point from the list of points
-                points.remove(point);
-                // # we check if this signature goes with the current point
-                if (point.verify(z, sig)) {
-                    break;
+            var matched = false;
+            Signature sig = null;
+            while (!matched && key < secPubkeys.size()) {
+                var secPubkey = secPubkeys.get(key++);
+                // a cached triple was verified before, the key and signature are parsed only on a miss
+                if (cache != null && cache.contains(sighash, secPubkey, derSignature)) {
+                    matched = true;
+                } else {
+                    if (sig == null) {
+                        sig = Signature.parse(derSignature);
+                    }
+                    if (S256Point.parse(secPubkey).verify(z, sig)) {
+                        if (cache != null) {
+                            cache.add(sighash, secPubkey, derSignature);
+                        }
+                        matched = true;
+                    }
                 }
             }
+            // the keys ran out before one verified this signature
+            if (!matched) {
+                log.severe("signatures no good or not in right order");
+                stack.push(encodeNum(0));
+                return true;
+            }
         }
         // the signatures are valid, so push a 1 to the stack
         stack.add(encodeNum(1));
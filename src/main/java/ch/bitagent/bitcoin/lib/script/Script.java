@@ -381,6 +381,17 @@ public class Script {
                 && cmds.get(1).isElement() && cmds.get(1).getElement().length == 32;
     }
 
+    /**
+     * <p>isP2trScriptPubkey.</p>
+     *
+     * @return a boolean
+     */
+    public boolean isP2trScriptPubkey() {
+        return cmds.size() == 2
+                && OpCodeNames.OP_81_1.equals(cmds.get(0).getOpCode())
+                && cmds.get(1).isElement() && cmds.get(1).getElement().length == 32;
+    }
+
     /**
      * <p>isP2wshStack.</p>
      *
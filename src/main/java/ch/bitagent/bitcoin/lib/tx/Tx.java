@@ -13,10 +13,16 @@ import ch.bitagent.bitcoin.lib.script.ScriptCmd;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
@@ -370,21 +376,23 @@ public class Tx implements Message {
         return Hex.parse(h256);
     }
 
-    private byte[] hashPrevouts() {
+    private synchronized byte[] hashPrevouts() {
         if (this._hashPrevouts == null) {
-            var allPrevouts = new byte[0];
-            var allSequence = new byte[0];
+            var allPrevouts = new ByteArrayOutputStream();
+            var allSequence = ByteBuffer.allocate(4 * this.txIns.size());
             for (TxIn txIn : this.txIns) {
-                allPrevouts = Bytes.add(new byte[][]{allPrevouts, txIn.getPrevTx().toBytesLittleEndian(), txIn.getPrevIndex().toBytesLittleEndian(4)});
-                allSequence = Bytes.add(allSequence, txIn.getSequence().toBytesLittleEndian(4));
+                allPrevouts.writeBytes(txIn.getPrevTx().toBytesLittleEndian());
+                allPrevouts.writeBytes(txIn.getPrevIndex().toBytesLittleEndian(4));
+                allSequence.put(txIn.getSequence().toBytesLittleEndian(4));
             }
-            this._hashPrevouts = Hash.hash256(allPrevouts);
-            this._hashSequence = Hash.hash256(allSequence);
+            this._hashPrevouts = Hash.hash256(allPrevouts.toByteArray());
+            this._hashSequence = new byte[32];
+            Hash.hash256(allSequence.flip(), ByteBuffer.wrap(this._hashSequence));
         }
         return this._hashPrevouts;
     }
 
-    private byte[] hashSequence() {
+    private synchronized byte[] hashSequence() {
         if (this._hashSequence == null) {
             // this should calculate self._hash_prevouts
             this.hashPrevouts();
@@ -392,13 +400,13 @@ public class Tx implements Message {
         return this._hashSequence;
     }
 
-    private byte[] hashOutputs() {
+    private synchronized byte[] hashOutputs() {
         if (this._hashOutputs == null) {
-            var allOutputs = new byte[0];
+            var allOutputs = new ByteArrayOutputStream();
             for (TxOut txOut : this.txOuts) {
-                allOutputs = Bytes.add(allOutputs, txOut.serialize());
+                allOutputs.writeBytes(txOut.serialize());
             }
-            this._hashOutputs = Hash.hash256(allOutputs);
+            this._hashOutputs = Hash.hash256(allOutputs.toByteArray());
         }
         return this._hashOutputs;
     }
@@ -514,6 +522,71 @@ public class Tx implements Message {
         return true;
     }
 
+    /**
+     * Verify this transaction, the inputs are verified concurrently
+     *
+     * @param cache    .
+     * @param executor runs the verification of the inputs, e.g. a {@link java.util.concurrent.ForkJoinPool}
+     * @return a boolean
+     */
+    public boolean verify(Map<String, String> cache, Executor executor) {
+        // check that we're not creating money
+        if (this.fee(cache).lt(Int.parse(0))) {
+            return false;
+        }
+        // check that each input has a valid ScriptSig
+        var invalid = this.findInvalidInput(cache, executor);
+        if (invalid >= 0) {
+            log.warning(String.format("TxIn %s has no valid signature - %s", invalid, this.txIns.get(invalid)));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of the first input without a valid signature, or -1 if all inputs are valid
+     *
+     * <p>The inputs are verified concurrently on the executor. Once an input failed, the inputs after it not yet
+     * started are skipped. The smallest failed index is returned, as by a sequential check, whatever the order the
+     * inputs finish in. The cache is shared by the inputs and synchronized while they run.</p>
+     *
+     * @param cache    .
+     * @param executor runs the verification of the inputs
+     * @return the index of the failed input or -1
+     */
+    public int findInvalidInput(Map<String, String> cache, Executor executor) {
+        var sharedCache = cache == null ? null : Collections.synchronizedMap(cache);
+        var failed = new AtomicInteger(Integer.MAX_VALUE);
+        var futures = new CompletableFuture<?>[this.txIns.size()];
+        for (int i = 0; i < this.txIns.size(); i++) {
+            final int inputIndex = i;
+            futures[i] = CompletableFuture.runAsync(() -> {
+                // an earlier input failed, this one can not change the result
+                if (failed.get() < inputIndex) {
+                    return;
+                }
+                try {
+                    if (!this.verifyInput(inputIndex, sharedCache)) {
+                        failed.accumulateAndGet(inputIndex, Math::min);
+                    }
+                } catch (RuntimeException e) {
+                    failed.accumulateAndGet(inputIndex, Math::min);
+                    throw e;
+                }
+            }, executor);
+        }
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        var index = failed.get();
+        return index == Integer.MAX_VALUE ? -1 : index;
+    }
+
     /**
      * Signs the input using the private key
      *
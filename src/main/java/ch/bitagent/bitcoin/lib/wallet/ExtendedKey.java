@@ -176,14 +176,8 @@ public class ExtendedKey {
             var publicKeyPoint = privateKey.getPoint();
             var derivedFingerprint = Arrays.copyOfRange(publicKeyPoint.hash160(true), 0, 4);
             var derivedChildNumber = indexInt.toBytes(4);
-            var hmac = Hash.hmacS512Init(this.chainCode);
-            if (indexInt.ge(HARDENED_INDEX)) {
-                hmac.update(privateKey.getSecret().toBytes(33));
-            } else {
-                hmac.update(publicKeyPoint.sec(true));
-            }
-            hmac.update(indexInt.toBytes(4));
-            var i = hmac.doFinal();
+            var data = indexInt.ge(HARDENED_INDEX) ? privateKey.getSecret().toBytes(33) : publicKeyPoint.sec(true);
+            var i = Hash.hmacSha512(this.chainCode, data, derivedChildNumber);
             var derivedChainCode = Arrays.copyOfRange(i, 32, i.length);
             var iLeft = Arrays.copyOfRange(i, 0, 32);
             var iLeftHex = Hex.parse(iLeft);
@@ -208,11 +202,7 @@ public class ExtendedKey {
             var publicKey = S256Point.parse(this.key);
             var derivedFingerprint = Arrays.copyOfRange(publicKey.hash160(true), 0, 4);
             var derivedChildNumber = indexInt.toBytes(4);
-            var hmac = Hash.hmacS512Init(this.chainCode);
-            var publicKeySec = publicKey.sec(true);
-            hmac.update(publicKeySec);
-            hmac.update(indexInt.toBytes(4));
-            var i = hmac.doFinal();
+            var i = Hash.hmacSha512(this.chainCode, publicKey.sec(true), derivedChildNumber);
             var derivedChainCode = Arrays.copyOfRange(i, 32, i.length);
             var iLeft = Arrays.copyOfRange(i, 0, 32);
             var iLeftPoint = PrivateKey.parse(iLeft).getPoint();
@@ -9,6 +9,10 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.logging.Logger;
 
 /**
@@ -44,7 +48,11 @@ public class Message {
             // A low R signature will have less than 71 bytes when encoded to DER
             signature = privateKey.sign(z, ++counter);
         }
-        byte recoveryId = findRecoveryId(z, signature, privateKey.getPoint());
+        // the recovery id is known from the nonce point, no need to try all four
+        int recoveryId = signature.getRecoveryId();
+        if (recoveryId < 0) {
+            throw new IllegalStateException("Could not construct a recoverable key. This should never happen.");
+        }
         if (electrum) {
             recoveryId -= 8;
         }
@@ -96,6 +104,45 @@ public class Message {
         return key.eq(publicKey);
     }
 
+    /**
+     * <p>Verify many signed messages concurrently.</p>
+     *
+     * <p>The result has one entry per message, a malformed signature is not valid.</p>
+     *
+     * @param publicKeys    .
+     * @param signaturesB64 .
+     * @param messages      .
+     * @param electrum      .
+     * @param executor      runs the verifications, e.g. a {@link java.util.concurrent.ForkJoinPool}
+     * @return .
+     */
+    public static boolean[] verify(List<S256Point> publicKeys, List<String> signaturesB64, List<String> messages, boolean electrum, Executor executor) {
+        if (publicKeys.size() != signaturesB64.size() || publicKeys.size() != messages.size()) {
+            throw new IllegalArgumentException("The batch must have as many public keys, signatures and messages.");
+        }
+        var valid = new boolean[messages.size()];
+        var futures = new CompletableFuture<?>[messages.size()];
+        for (int i = 0; i < messages.size(); i++) {
+            final int index = i;
+            futures[i] = CompletableFuture.runAsync(() -> {
+                try {
+                    valid[index] = verify(publicKeys.get(index), signaturesB64.get(index), messages.get(index), electrum);
+                } catch (IllegalArgumentException e) {
+                    valid[index] = false;
+                }
+            }, executor);
+        }
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return valid;
+    }
+
     private static byte[] formatMessageForSigning(String message) {
         try {
             ByteArrayOutputStream bos = new ByteArrayOutputStream();
@@ -112,21 +159,6 @@ public class Message {
         }
     }
 
-    private static byte findRecoveryId(Int message, Signature sig, S256Point p) {
-        byte recId = -1;
-        for (byte i = 0; i < 4; i++) {
-            S256Point k = recoverFromSignature(i, sig, message);
-            if (k != null && k.eq(p)) {
-                recId = i;
-                break;
-            }
-        }
-        if (recId == -1) {
-            throw new IllegalStateException("Could not construct a recoverable key. This should never happen.");
-        }
-        return recId;
-    }
-
     private static S256Point recoverFromSignature(int recId, Signature sig, Int message) {
         if (recId < 0) {
             throw new IllegalArgumentException("recId must be positive");
@@ -136,33 +168,37 @@ public class Message {
         }
 
         var n = S256Point.N;
+        if (sig.getR().lt(Int.parse(1)) || sig.getR().ge(n) || sig.getS().lt(Int.parse(1)) || sig.getS().ge(n)) {
+            return null;
+        }
         var i = Int.parse(recId / 2);
         var x = sig.getR().add(i.mul(n));
         var prime = S256Point.P;
         if (x.ge(prime)) {
             return null;
         }
+        // every point on the curve has order n, R * n needs no check
         S256Point R = decompressKey(x, (recId & 1) == 1);
-        if (R.mul(n).getX() != null) {
-            return null;
-        }
         var e = message;
 
         // Q = mi(r) * (sR - eG)
-        // Q = (mi(r) * s ** R) + (mi(r) * -e ** G)
+        // Q = (mi(r) * -e) * G + (mi(r) * s) * R in one multiplication
         var eInv = Int.parse(0).sub(e).mod(n); // -e
-        var rInv = Int.parse(sig.getR().bigInt().modInverse(n.bigInt())); // mi(r)
+        var rInv = S256Inverse.modN(sig.getR()); // mi(r)
         var srInv = rInv.mul(sig.getS()).mod(n); // mi(r) * s
         var eInvrInv = rInv.mul(eInv).mod(n); // mi(r) * -e
-        var q1 = R.mul(srInv);
-        var q2 = S256Point.getG().mul(eInvrInv);
-        return q1.add(q2);
+        var q = S256Point.mulAdd(eInvrInv, R, srInv);
+        if (q.getX() == null) {
+            return null;
+        }
+        return q;
     }
 
     private static S256Point decompressKey(Int xBN, boolean yBit) {
         byte[] compEnc = xBN.toBytes(33);
         compEnc[0] = (byte) (yBit ? 0x03 : 0x02);
-        return S256Point.parse(compEnc);
+        // R is used once, keep it out of the key cache
+        return S256Point.parse(compEnc, false);
     }
 
     private static int getSigningTypeConstant(String addressType) {
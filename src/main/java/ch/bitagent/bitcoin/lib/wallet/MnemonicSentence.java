@@ -5,10 +5,14 @@ import ch.bitagent.bitcoin.lib.ecc.Int;
 import ch.bitagent.bitcoin.lib.ecc.PrivateKey;
 import ch.bitagent.bitcoin.lib.helper.*;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 /**
  * <p>MnemonicSentence</p>
@@ -27,6 +31,20 @@ public class MnemonicSentence {
     private MnemonicSentence() {
     }
 
+    /**
+     * The english wordlist, loaded once on first use, by index and by word
+     */
+    private static final class English {
+        private static final String[] WORDS = Helper.loadWordlist(RESOURCE_ENGLISH).toArray(new String[0]);
+        private static final Map<String, Integer> INDEX = new HashMap<>(2 * WORDS.length);
+
+        static {
+            for (int i = 0; i < WORDS.length; i++) {
+                INDEX.put(WORDS[i], i);
+            }
+        }
+    }
+
     /**
      * Create a new entopy using a random generated number.
      *
@@ -55,13 +73,11 @@ public class MnemonicSentence {
         var entropyBin = Hex.parse(entropy).toBin();
         var entropyBinZ = Helper.zfill(entropy.length * 8, entropyBin);
         var concatenatedBin = entropyBinZ + createEntropyChecksum(entropy);
-        var wordlist = Helper.loadWordlist(RESOURCE_ENGLISH);
-
         var mnemonicList = new ArrayList<String>();
         for (int i = 0; i < concatenatedBin.length() / 11; i++) {
             String group11Bin = concatenatedBin.substring(i * 11, (i + 1) * 11);
             int wordIndex = Integer.parseInt(group11Bin, 2);
-            mnemonicList.add(wordlist.get(wordIndex));
+            mnemonicList.add(English.WORDS[wordIndex]);
         }
         return String.join(" ", mnemonicList);
     }
@@ -77,10 +93,9 @@ public class MnemonicSentence {
 
         int concatenatedBinLength = mnemonicArray.length * 11;
         boolean[] concatenatedBin = new boolean[concatenatedBinLength];
-        var wordlist = Helper.loadWordlist(RESOURCE_ENGLISH);
 
         for (int i = 0; i < mnemonicArray.length; i++) {
-            int wordIndex = getWordIndex(wordlist, mnemonicArray[i]);
+            int wordIndex = getWordIndex(mnemonicArray[i]);
             for (int j = 0; j < 11; ++j) {
                 concatenatedBin[(i * 11) + j] = (wordIndex & (1 << (10 - j))) != 0;
             }
@@ -117,19 +132,36 @@ public class MnemonicSentence {
     }
 
     public static byte[] mnemonicToSeed(String mnemonicSentence, String passphrase) {
-        var mnemonicArray = getMnemonicArray(mnemonicSentence);
+        return Pbkdf2.hmacSha512(mnemonicToPassword(mnemonicSentence), passphraseToSalt(passphrase), PBKDF2_ROUNDS, DERIVED_KEY_LENGTH);
+    }
 
-        var wordlist = Helper.loadWordlist(RESOURCE_ENGLISH);
+    /**
+     * mnemonicToSeed of many mnemonic sentences with the same passphrase, in parallel
+     *
+     * @param mnemonicSentences .
+     * @param passphrase        .
+     * @return the seeds in the order of the mnemonic sentences
+     */
+    public static List<byte[]> mnemonicToSeed(List<String> mnemonicSentences, String passphrase) {
+        var passwords = mnemonicSentences.stream()
+                .map(MnemonicSentence::mnemonicToPassword)
+                .collect(Collectors.toList());
+        return Pbkdf2.hmacSha512(passwords, passphraseToSalt(passphrase), PBKDF2_ROUNDS, DERIVED_KEY_LENGTH);
+    }
+
+    private static byte[] mnemonicToPassword(String mnemonicSentence) {
+        var mnemonicArray = getMnemonicArray(mnemonicSentence);
         for (int i = 0; i < mnemonicArray.length; i++) {
-            getWordIndex(wordlist, mnemonicArray[i]);
+            getWordIndex(mnemonicArray[i]);
         }
+        return String.join(" ", mnemonicArray).getBytes(StandardCharsets.UTF_8);
+    }
 
+    private static byte[] passphraseToSalt(String passphrase) {
         if (passphrase == null) {
             passphrase = "";
         }
-        passphrase = "mnemonic" + passphrase;
-
-        return Pbkdf2.derive(String.join(" ", mnemonicArray), passphrase, PBKDF2_ROUNDS, DERIVED_KEY_LENGTH);
+        return ("mnemonic" + passphrase).getBytes(StandardCharsets.UTF_8);
     }
 
     private static String[] getMnemonicArray(String mnemonicSentence) {
@@ -140,9 +172,9 @@ public class MnemonicSentence {
         return mnemonicArray;
     }
 
-    private static int getWordIndex(ArrayList<String> wordlist, String mnemonicWord) {
-        int wordIndex = Collections.binarySearch(wordlist, mnemonicWord);
-        if (wordIndex < 0) {
+    private static int getWordIndex(String mnemonicWord) {
+        Integer wordIndex = English.INDEX.get(mnemonicWord);
+        if (wordIndex == null) {
             throw new IllegalArgumentException(String.format("Unable to find '%s' in word list.", mnemonicWord));
         }
         return wordIndex;
@@ -150,8 +182,7 @@ public class MnemonicSentence {
 
     public static boolean isWordValid(String mnemonicWord) {
         try {
-            var wordlist = Helper.loadWordlist(RESOURCE_ENGLISH);
-            getWordIndex(wordlist, mnemonicWord);
+            getWordIndex(mnemonicWord);
             return true;
         } catch (Exception e) {
             return false;
@@ -161,9 +192,8 @@ public class MnemonicSentence {
     public static boolean isSentenceValid(String mnemonicSentence) {
         try {
             var mnemonicArray = getMnemonicArray(mnemonicSentence);
-            var wordlist = Helper.loadWordlist(RESOURCE_ENGLISH);
             for (int i = 0; i < mnemonicArray.length; i++) {
-                getWordIndex(wordlist, mnemonicArray[i]);
+                getWordIndex(mnemonicArray[i]);
             }
             return true;
         } catch (Exception e) {
@@ -176,9 +206,7 @@ public class MnemonicSentence {
             log.warning(String.format("Provided seed should have length of %s, not %s.", DERIVED_KEY_LENGTH, seed.length));
         }
 
-        var bitcoinSeedMac = Hash.hmacS512Init("Bitcoin seed".getBytes());
-        bitcoinSeedMac.update(seed);
-        var bitcoinSeed = bitcoinSeedMac.doFinal();
+        var bitcoinSeed = Hash.hmacSha512("Bitcoin seed".getBytes(), seed);
 
         var xkey = xkeyPrefix.toBytes(); // Version
         xkey = Bytes.add(xkey, Bytes.initFill(9, (byte) 0x00)); // Depth, parent fingerprint and child number
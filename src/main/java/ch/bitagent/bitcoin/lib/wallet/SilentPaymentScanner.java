@@ -0,0 +1,330 @@
+package ch.bitagent.bitcoin.lib.wallet;
+
+import ch.bitagent.bitcoin.lib.ecc.Hex;
+import ch.bitagent.bitcoin.lib.ecc.Int;
+import ch.bitagent.bitcoin.lib.ecc.Point;
+import ch.bitagent.bitcoin.lib.ecc.S256Field;
+import ch.bitagent.bitcoin.lib.ecc.S256Point;
+import ch.bitagent.bitcoin.lib.ecc.Schnorr;
+import ch.bitagent.bitcoin.lib.helper.Bech32;
+import ch.bitagent.bitcoin.lib.helper.Bytes;
+import ch.bitagent.bitcoin.lib.helper.Hash;
+import ch.bitagent.bitcoin.lib.tx.Tx;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Scanner for silent payments to one scan and spend key
+ *
+ * <p>For every transaction with taproot outputs the scanner sums the public keys of the eligible inputs to A, computes
+ * the shared secret input_hash * b_scan * A with one variable base multiplication, and derives the output keys
+ * B_spend + t_k * G for k = 0, 1, .. until no output matches. With labels, an output O also matches if O - P_k or
+ * -O - P_k is a label point. The transactions are independent, a stream of them is scanned in parallel on a
+ * {@link ForkJoinPool}.</p>
+ *
+ * <a href="https://github.com/bitcoin/bips/blob/master/bip-0352.mediawiki">BIP-0352</a>
+ */
+public final class SilentPaymentScanner {
+
+    private final Int scanSecret;
+    private final S256Point scanPubkey;
+    private final S256Point spendPubkey;
+    private final Map<ByteBuffer, Integer> labels = new HashMap<>();
+
+    /**
+     * A transaction with the public keys of its eligible inputs
+     *
+     * <p>A public key is 33 bytes compressed, or 32 bytes x-only for a taproot input.</p>
+     */
+    public static class Candidate {
+        private final Tx tx;
+        private final List<byte[]> inputPubkeys;
+
+        /**
+         * <p>Constructor for Candidate.</p>
+         *
+         * @param tx           .
+         * @param inputPubkeys the public keys of the eligible inputs
+         */
+        public Candidate(Tx tx, List<byte[]> inputPubkeys) {
+            this.tx = tx;
+            this.inputPubkeys = inputPubkeys;
+        }
+
+        /**
+         * <p>Getter for the field <code>tx</code>.</p>
+         *
+         * @return .
+         */
+        public Tx getTx() {
+            return tx;
+        }
+
+        /**
+         * <p>Getter for the field <code>inputPubkeys</code>.</p>
+         *
+         * @return .
+         */
+        public List<byte[]> getInputPubkeys() {
+            return inputPubkeys;
+        }
+    }
+
+    /**
+     * An output paid to the scanner
+     */
+    public static class Match {
+        private final Tx tx;
+        private final int outputIndex;
+        private final byte[] tweak;
+        private final Integer label;
+
+        private Match(Tx tx, int outputIndex, byte[] tweak, Integer label) {
+            this.tx = tx;
+            this.outputIndex = outputIndex;
+            this.tweak = tweak;
+            this.label = label;
+        }
+
+        /**
+         * <p>Getter for the field <code>tx</code>.</p>
+         *
+         * @return .
+         */
+        public Tx getTx() {
+            return tx;
+        }
+
+        /**
+         * <p>The index of the output in the transaction.</p>
+         *
+         * @return .
+         */
+        public int getOutputIndex() {
+            return outputIndex;
+        }
+
+        /**
+         * <p>The tweak of the output key, the secret key of the output is b_spend + tweak mod N.</p>
+         *
+         * @return .
+         */
+        public byte[] getTweak() {
+            return tweak.clone();
+        }
+
+        /**
+         * <p>The label m of the output, null without label.</p>
+         *
+         * @return .
+         */
+        public Integer getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * <p>Constructor for SilentPaymentScanner.</p>
+     *
+     * @param scanSecret  the 32 byte scan secret key b_scan
+     * @param spendPubkey the 33 byte spend public key B_spend
+     * @param labels      the labels m to scan for
+     */
+    public SilentPaymentScanner(byte[] scanSecret, byte[] spendPubkey, int... labels) {
+        this.scanSecret = Hex.parse(scanSecret);
+        if (this.scanSecret.eq(Int.parse(0)) || this.scanSecret.ge(S256Point.N)) {
+            throw new IllegalArgumentException("The scan key must be an integer in the range 1..n-1.");
+        }
+        this.scanPubkey = S256Point.getG().mul(this.scanSecret);
+        this.spendPubkey = S256Point.parse(spendPubkey);
+        for (int m : labels) {
+            this.labels.put(ByteBuffer.wrap(S256Point.getG().mul(this.labelTweak(m)).sec(true)), m);
+        }
+    }
+
+    /**
+     * <p>The silent payment address, sp1.. or tsp1.. for testnet.</p>
+     *
+     * @param testnet .
+     * @return .
+     */
+    public String getAddress(boolean testnet) {
+        return address(this.scanPubkey, this.spendPubkey, testnet);
+    }
+
+    /**
+     * <p>The silent payment address with label m, its spend key is B_spend + hash(b_scan || m) * G.</p>
+     *
+     * @param m       .
+     * @param testnet .
+     * @return .
+     */
+    public String getAddress(int m, boolean testnet) {
+        return address(this.scanPubkey, S256Point.getG().mul(this.labelTweak(m)).add(this.spendPubkey), testnet);
+    }
+
+    /**
+     * <p>The silent payment address of a scan and spend public key.</p>
+     *
+     * @param scanPubkey  .
+     * @param spendPubkey .
+     * @param testnet     .
+     * @return .
+     */
+    public static String address(S256Point scanPubkey, S256Point spendPubkey, boolean testnet) {
+        var data = Bytes.add(new byte[]{0}, Bech32.eight2five(Bytes.add(scanPubkey.sec(true), spendPubkey.sec(true))));
+        return Bech32.encode(testnet ? "tsp" : "sp", data, Bech32.Encoding.BECH32M);
+    }
+
+    /**
+     * <p>Scan many transactions in parallel on the pool, the matches are in the order of the transactions.</p>
+     *
+     * @param candidates .
+     * @param pool       e.g. {@link ForkJoinPool#commonPool()}
+     * @return .
+     */
+    public List<Match> scan(Stream<Candidate> candidates, ForkJoinPool pool) {
+        return pool.submit(() -> candidates.parallel()
+                .flatMap(candidate -> this.scan(candidate).stream())
+                .collect(Collectors.toList())).join();
+    }
+
+    /**
+     * <p>Scan one transaction.</p>
+     *
+     * @param candidate .
+     * @return .
+     */
+    public List<Match> scan(Candidate candidate) {
+        var tx = candidate.getTx();
+        var outputs = new HashMap<ByteBuffer, Integer>();
+        var txOuts = tx.getTxOuts();
+        for (int i = 0; i < txOuts.size(); i++) {
+            var scriptPubkey = txOuts.get(i).getScriptPubkey();
+            if (scriptPubkey.isP2trScriptPubkey()) {
+                outputs.put(ByteBuffer.wrap(scriptPubkey.getCmds().get(1).getElement()), i);
+            }
+        }
+        var matches = new ArrayList<Match>();
+        if (outputs.isEmpty() || candidate.getInputPubkeys().isEmpty()) {
+            return matches;
+        }
+        var a = sumInputs(candidate.getInputPubkeys());
+        if (a == null) {
+            return matches;
+        }
+        var inputHash = Hex.parse(Hash.taggedHash("BIP0352/Inputs", Bytes.add(smallestOutpoint(tx), a.sec(true))));
+        if (inputHash.eq(Int.parse(0)) || inputHash.ge(S256Point.N)) {
+            return matches;
+        }
+        // ECDH: input_hash * b_scan * A, a single multiplication
+        var sharedSecret = a.mul(inputHash.mul(this.scanSecret).mod(S256Point.N)).sec(true);
+        // with labels every output is compared as a point, lift each one once
+        var lifted = new S256Point[txOuts.size()];
+        if (!this.labels.isEmpty()) {
+            for (var output : outputs.entrySet()) {
+                lifted[output.getValue()] = S256Point.liftX(Hex.parse(output.getKey().array()), false);
+            }
+        }
+        for (int k = 0; !outputs.isEmpty(); k++) {
+            var tk = Hash.taggedHash("BIP0352/SharedSecret", Bytes.add(sharedSecret, ByteBuffer.allocate(4).putInt(k).array()));
+            var t = Hex.parse(tk);
+            if (t.ge(S256Point.N)) {
+                break;
+            }
+            var pk = S256Point.getG().mul(t).add(this.spendPubkey);
+            if (pk == null) {
+                break;
+            }
+            var match = this.match(tx, outputs, lifted, pk, tk);
+            if (match == null) {
+                break;
+            }
+            matches.add(match);
+        }
+        return matches;
+    }
+
+    private Match match(Tx tx, Map<ByteBuffer, Integer> outputs, S256Point[] lifted, S256Point pk, byte[] tk) {
+        var xonly = Schnorr.getNumBytes(pk.getX());
+        var index = outputs.remove(ByteBuffer.wrap(xonly));
+        if (index != null) {
+            return new Match(tx, index, tk, null);
+        }
+        if (this.labels.isEmpty()) {
+            return null;
+        }
+        // O - P_k or -O - P_k is a label point
+        var negPk = negate(pk);
+        for (var output : outputs.entrySet()) {
+            var o = lifted[output.getValue()];
+            if (o == null) {
+                continue;
+            }
+            for (var candidate : new S256Point[]{o, negate(o)}) {
+                var labelPoint = candidate.add(negPk);
+                var m = labelPoint == null ? null : this.labels.get(ByteBuffer.wrap(labelPoint.sec(true)));
+                if (m != null) {
+                    outputs.remove(output.getKey());
+                    var tweak = Hex.parse(tk).add(this.labelTweak(m)).mod(S256Point.N).toBytes(32);
+                    return new Match(tx, output.getValue(), tweak, m);
+                }
+            }
+        }
+        return null;
+    }
+
+    private Int labelTweak(int m) {
+        var tweak = Hex.parse(Hash.taggedHash("BIP0352/Label", Bytes.add(this.scanSecret.toBytes(32), ByteBuffer.allocate(4).putInt(m).array())));
+        if (tweak.ge(S256Point.N)) {
+            throw new IllegalStateException("Failure. This happens only with negligible probability.");
+        }
+        return tweak;
+    }
+
+    /**
+     * <p>The sum of the input public keys, null if it is the point at infinity.</p>
+     */
+    private static S256Point sumInputs(List<byte[]> pubkeys) {
+        var sum = new S256Point(null, null);
+        for (var pubkey : pubkeys) {
+            // single-use keys, parsed without the shared cache
+            var p = pubkey.length == 32 ? S256Point.liftX(Hex.parse(pubkey), false) : S256Point.parse(pubkey, false);
+            if (p == null) {
+                throw new IllegalArgumentException("Invalid input public key");
+            }
+            sum = sum.add(p);
+            if (sum == null) {
+                sum = new S256Point(null, null);
+            }
+        }
+        return sum.getX() == null ? null : sum;
+    }
+
+    /**
+     * <p>The lexicographically smallest outpoint, txid little endian and vout.</p>
+     */
+    private static byte[] smallestOutpoint(Tx tx) {
+        byte[] smallest = null;
+        for (var txIn : tx.getTxIns()) {
+            var outpoint = Bytes.add(txIn.getPrevTx().toBytesLittleEndian(32), txIn.getPrevIndex().toBytesLittleEndian(4));
+            if (smallest == null || Arrays.compareUnsigned(outpoint, smallest) < 0) {
+                smallest = outpoint;
+            }
+        }
+        return smallest;
+    }
+
+    private static S256Point negate(S256Point p) {
+        var y = Point.getNum(p.getY());
+        return new S256Point((S256Field) p.getX(), new S256Field(S256Point.P.sub(y)));
+    }
+}
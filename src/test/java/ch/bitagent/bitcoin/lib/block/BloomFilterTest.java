@@ -3,6 +3,8 @@ package ch.bitagent.bitcoin.lib.block;
 import ch.bitagent.bitcoin.lib.ecc.Hex;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class BloomFilterTest {
@@ -30,4 +32,36 @@ class BloomFilterTest {
         var expected = Hex.parse("0a4000600a080000010940050000006300000001").toBytes();
         assertArrayEquals(expected, bf.filterload(null).serialize());
     }
-}
\ No newline at end of file
+
+    @Test
+    void contains() {
+        var bf = new BloomFilter(10, 5, 99);
+        var hello = "Hello World".getBytes();
+        var goodbye = "Goodbye!".getBytes();
+        assertFalse(bf.contains(hello));
+        bf.add(hello);
+        assertTrue(bf.contains(hello));
+        assertFalse(bf.contains(goodbye));
+        bf.add(goodbye);
+        assertTrue(bf.contains(goodbye));
+        var data = new byte[]{0x01, 'G', 'o', 'o', 'd', 'b', 'y', 'e', '!', 0x02};
+        assertTrue(bf.contains(data, 1, 8));
+    }
+
+    @Test
+    void addOffset() {
+        var bf = new BloomFilter(30, 5, 90210);
+        var other = new BloomFilter(30, 5, 90210);
+        var random = new Random(37);
+        for (int i = 0; i < 50; i++) {
+            var item = new byte[20 + i];
+            random.nextBytes(item);
+            bf.add(item);
+            var data = new byte[item.length + 3];
+            System.arraycopy(item, 0, data, 3, item.length);
+            other.add(data, 3, item.length);
+            assertTrue(bf.contains(item));
+        }
+        assertArrayEquals(bf.filterBytes(), other.filterBytes());
+    }
+}
@@ -0,0 +1,84 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotKeyTablesTest {
+
+    @Test
+    void eviction() {
+        var tables = new HotKeyTables(2, 2);
+        var a = new PrivateKey(Int.parse(5001)).getPoint();
+        var b = new PrivateKey(Int.parse(2019)).getPoint();
+        var c = new PrivateKey(Int.parse(8675309)).getPoint();
+        tables.register(a);
+        tables.register(b);
+        assertNotNull(tables.get(a));
+        // b is the least recently used
+        tables.register(c);
+        assertEquals(2, tables.size());
+        assertTrue(tables.isRegistered(a));
+        assertFalse(tables.isRegistered(b));
+        assertTrue(tables.isRegistered(c));
+        assertTrue(tables.unregister(a));
+        assertFalse(tables.unregister(a));
+        assertEquals(1, tables.size());
+        tables.clear();
+        assertEquals(0, tables.size());
+        assertNull(tables.get(c));
+        assertThrows(IllegalArgumentException.class, () -> new HotKeyTables(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> new HotKeyTables(1, 9));
+        assertThrows(IllegalArgumentException.class, () -> tables.register(new S256Point(null, null)));
+    }
+
+    @Test
+    void mulAdd() {
+        var previous = HotKeyTables.getDefault();
+        try {
+            var point = new PrivateKey(Int.parse(12345)).getPoint();
+            HotKeyTables.setDefault(null);
+            var u = Hex.parse("7fffffffffffffffffffffffffffffff5d576e7357a4501ddfe92f46681b20a0");
+            var v = Hex.parse("c0ffee");
+            var expectedMulAdd = S256Point.mulAdd(u, point, v);
+            var expectedMul = point.mul(u);
+            var tables = new HotKeyTables(4, 4);
+            tables.register(point);
+            HotKeyTables.setDefault(tables);
+            assertTrue(expectedMulAdd.eq(S256Point.mulAdd(u, point, v)));
+            assertTrue(expectedMul.eq(point.mul(u)));
+            // a parsed copy of the key finds the table too
+            assertTrue(expectedMul.eq(S256Point.parse(point.sec(false)).mul(u)));
+            // v = 0, and -e * G + 1 * P = infinity for P = e * G
+            assertTrue(S256Point.mulAdd(u, point, Int.parse(0)).eq(S256Point.getG().mul(u)));
+            var e = Int.parse(12345);
+            assertTrue(S256Point.mulAdd(S256Point.N.sub(e), point, Int.parse(1)).isInfinity());
+        } finally {
+            HotKeyTables.setDefault(previous);
+        }
+    }
+
+    @Test
+    void verify() {
+        var previous = HotKeyTables.getDefault();
+        try {
+            var tables = new HotKeyTables(4, 4);
+            HotKeyTables.setDefault(tables);
+            var privateKey = new PrivateKey(Int.parse(8675309));
+            var z = Hex.parse("ec208baa0fc1c19f708a9ca96fdeff3ac3f230bb4a7ba4aede4942ad003c0f60");
+            var signature = privateKey.sign(z, 0);
+            tables.register(privateKey.getPoint());
+            assertTrue(privateKey.getPoint().verify(z, signature));
+            assertFalse(privateKey.getPoint().verify(z.add(Int.parse(1)), signature));
+            var msg = new byte[32];
+            var seckey = privateKey.getSecret().toBytes(32);
+            var sig = Schnorr.sign(msg, seckey, new byte[32]);
+            var pubkey = Schnorr.getNumBytes(privateKey.getPoint().getX());
+            tables.register(S256Point.liftX(Hex.parse(pubkey)));
+            assertTrue(Schnorr.verify(msg, pubkey, sig));
+            assertEquals(2, tables.size());
+        } finally {
+            HotKeyTables.setDefault(previous);
+        }
+    }
+}
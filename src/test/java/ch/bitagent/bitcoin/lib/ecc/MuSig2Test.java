@@ -0,0 +1,310 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import ch.bitagent.bitcoin.lib.helper.Bytes;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MuSig2Test {
+
+    private static final byte[][] PUBKEYS = {
+            Bytes.hexStringToByteArray("02F9308A019258C31049344F85F89D5229B531C845836F99B08601F113BCE036F9"),
+            Bytes.hexStringToByteArray("03DFF1D77F2A671C5F36183726DB2341BE58FEAE1DA2DECED843240F7B502BA659"),
+            Bytes.hexStringToByteArray("023590A94E768F8E1815C2F24B4D80A8E3149316C3518CE7B7AD338368D038CA66")
+    };
+
+    @Test
+    void keyAgg() {
+        assertEquals("90539EEDE565F5D054F32CC0C220126889ED1E5D193BAF15AEF344FE59D4610C", aggregate(0, 1, 2));
+        assertEquals("6204DE8B083426DC6EAF9502D27024D53FC826BF7D2012148A0575435DF54B2B", aggregate(2, 1, 0));
+        assertEquals("B436E3BAD62B8CD409969A224731C193D051162D8C5AE8B109306127DA3AA935", aggregate(0, 0, 0));
+        assertEquals("69BC22BFA5D106306E48A20679DE1D7389386124D07571D0D872686028C26A3E", aggregate(0, 0, 1, 1));
+    }
+
+    @Test
+    void keySort() {
+        var sorted = MuSig2.keySort(List.of(PUBKEYS[1], PUBKEYS[0], PUBKEYS[2]));
+        assertArrayEquals(PUBKEYS[2], sorted.get(0));
+        assertArrayEquals(PUBKEYS[0], sorted.get(1));
+        assertArrayEquals(PUBKEYS[1], sorted.get(2));
+    }
+
+    @Test
+    void signVerify() {
+        var msg = Bytes.hexStringToByteArray("F95466D086770E689964664219266FE5ED215C92AE20BAB5C9D79ADDDDF3C0CF");
+        var tweak = Bytes.hexStringToByteArray("E8F791FF9225A2AF0102AFFF4A9A723D9612A682A25EBE79802B263CDFCD83BB");
+        var tweak2 = Bytes.hexStringToByteArray("AE2EA797CC0FE72AC5B97B97F3C6957D7E4199A167A58EB08BCAFFDA70AC0455");
+        for (int u : new int[]{1, 3, 20}) {
+            var seckeys = new ArrayList<byte[]>();
+            var pubkeys = new ArrayList<byte[]>();
+            for (int i = 0; i < u; i++) {
+                var pk = new PrivateKey(Int.parse(1000L * u + i));
+                seckeys.add(pk.getSecret().toBytes(32));
+                pubkeys.add(pk.getPoint().sec(true));
+            }
+            var untweaked = MuSig2.keyAgg(pubkeys);
+            for (var ctx : List.of(untweaked, untweaked.applyTweak(tweak, true), untweaked.applyTweak(tweak, false).applyTweak(tweak2, true))) {
+                var secnonces = new ArrayList<byte[]>();
+                var pubnonces = new ArrayList<byte[]>();
+                for (int i = 0; i < u; i++) {
+                    var nonce = MuSig2.nonceGen(seckeys.get(i), pubkeys.get(i), ctx.getXonlyPubkey(), msg, null);
+                    secnonces.add(nonce[0]);
+                    pubnonces.add(nonce[1]);
+                }
+                var session = new MuSig2Session(ctx, MuSig2.nonceAgg(pubnonces), msg);
+                var psigs = new ArrayList<byte[]>();
+                for (int i = 0; i < u; i++) {
+                    var psig = session.sign(secnonces.get(i), seckeys.get(i));
+                    assertTrue(session.partialSigVerify(psig, pubnonces.get(i), pubkeys.get(i)));
+                    if (u > 1) {
+                        // the partial signature of another signer
+                        assertFalse(session.partialSigVerify(psig, pubnonces.get((i + 1) % u), pubkeys.get((i + 1) % u)));
+                    }
+                    psigs.add(psig);
+                }
+                var sig = session.partialSigAgg(psigs);
+                assertTrue(Schnorr.verify(msg, ctx.getXonlyPubkey(), sig));
+                if (ctx != untweaked) {
+                    assertFalse(Schnorr.verify(msg, untweaked.getXonlyPubkey(), sig));
+                }
+            }
+        }
+    }
+
+    /**
+     * BIP327 sign_verify_vectors.json, nonce_agg_vectors.json and tweak_vectors.json
+     */
+    private static final String VECTOR_SK = "7FB9E0E687ADA1EEBF7ECFE2F21E73EBDB51A7D450948DFE8D76D7F2D1007671";
+    private static final String VECTOR_SECNONCE = "508B81A611F100A6B2B6B29656590898AF488BCF2E1F55CF22E5CFB84421FE61FA27FD49B1D50085B481285E1CA205D55C82CC1B31FF5CD54A489829355901F703935F972DA013F80AE011890FA89B67A27B7BE6CCB24D3274D18B2D4067F261A9";
+    private static final String[] VECTOR_PUBKEYS = {
+            "03935F972DA013F80AE011890FA89B67A27B7BE6CCB24D3274D18B2D4067F261A9",
+            "02F9308A019258C31049344F85F89D5229B531C845836F99B08601F113BCE036F9",
+            "02DFF1D77F2A671C5F36183726DB2341BE58FEAE1DA2DECED843240F7B502BA661",
+            "020000000000000000000000000000000000000000000000000000000000000007"
+    };
+    private static final String[] VECTOR_PNONCES = {
+            "0337C87821AFD50A8644D820A8F3E02E499C931865C2360FB43D0A0D20DAFE07EA0287BF891D2A6DEAEBADC909352AA9405D1428C15F4B75F04DAE642A95C2548480",
+            "0279BE667EF9DCBBAC55A06295CE870B07029BFCDB2DCE28D959F2815B16F817980279BE667EF9DCBBAC55A06295CE870B07029BFCDB2DCE28D959F2815B16F81798",
+            "032DE2662628C90B03F5E720284EB52FF7D71F4284F627B68A853D78C78E1FFE9303E4C5524E83FFE1493B9077CF1CA6BEB2090C93D930321071AD40B2F44E599046",
+            "0237C87821AFD50A8644D820A8F3E02E499C931865C2360FB43D0A0D20DAFE07EA0387BF891D2A6DEAEBADC909352AA9405D1428C15F4B75F04DAE642A95C2548480",
+            "0200000000000000000000000000000000000000000000000000000000000000090287BF891D2A6DEAEBADC909352AA9405D1428C15F4B75F04DAE642A95C2548480"
+    };
+    private static final String VECTOR_AGGNONCE = "028465FCF0BBDBCF443AABCCE533D42B4B5A10966AC09A49655E8C42DAAB8FCD61037496A3CC86926D452CAFCFD55D25972CA1675D549310DE296BFF42F72EEEA8C9";
+    private static final String[] VECTOR_MSGS = {
+            "F95466D086770E689964664219266FE5ED215C92AE20BAB5C9D79ADDDDF3C0CF",
+            "",
+            "2626262626262626262626262626262626262626262626262626262626262626262626262626"
+    };
+
+    @Test
+    void signVerifyVectors() {
+        assertArrayEquals(hex(VECTOR_PUBKEYS[0]), new PrivateKey(Hex.parse(VECTOR_SK)).getPoint().sec(true));
+        assertEquals(VECTOR_AGGNONCE, hex(MuSig2.nonceAgg(List.of(hex(VECTOR_PNONCES[0]), hex(VECTOR_PNONCES[1]), hex(VECTOR_PNONCES[2])))));
+        var infinity = new byte[MuSig2.PUBNONCE_LENGTH];
+        assertArrayEquals(infinity, MuSig2.nonceAgg(List.of(hex(VECTOR_PNONCES[0]), hex(VECTOR_PNONCES[3]))));
+
+        assertVectorSign("012ABBCB52B3016AC03AD82395A1A415C48B93DEF78718E62A7A90052FE224FB", new int[]{0, 1, 2}, new int[]{0, 1, 2}, VECTOR_AGGNONCE, 0, 0, null, null);
+        assertVectorSign("9FF2F7AAA856150CC8819254218D3ADEEB0535269051897724F9DB3789513A52", new int[]{1, 0, 2}, new int[]{1, 0, 2}, VECTOR_AGGNONCE, 0, 1, null, null);
+        assertVectorSign("FA23C359F6FAC4E7796BB93BC9F0532A95468C539BA20FF86D7C76ED92227900", new int[]{1, 2, 0}, new int[]{1, 2, 0}, VECTOR_AGGNONCE, 0, 2, null, null);
+        // both halves of the aggregate nonce are infinity
+        assertVectorSign("AE386064B26105404798F75DE2EB9AF5EDA5387B064B83D049CB7C5E08879531", new int[]{0, 1}, new int[]{0, 3}, hex(infinity), 0, 0, null, null);
+        // empty message
+        assertVectorSign("D7D63FFD644CCDA4E62BC2BC0B1D02DD32A1DC3030E155195810231D1037D82D", new int[]{0, 1, 2}, new int[]{0, 1, 2}, VECTOR_AGGNONCE, 1, 0, null, null);
+        // 38 byte message
+        assertVectorSign("E184351828DA5094A97C79CABDAAA0BFB87608C32E8829A4DF5340A6F243B78C", new int[]{0, 1, 2}, new int[]{0, 1, 2}, VECTOR_AGGNONCE, 2, 0, null, null);
+
+        var session = vectorSession(new int[]{0, 1, 2}, VECTOR_AGGNONCE, 0, null, null);
+        var psig = Hex.parse("012ABBCB52B3016AC03AD82395A1A415C48B93DEF78718E62A7A90052FE224FB");
+        var pk = hex(VECTOR_PUBKEYS[0]);
+        var pubnonce = hex(VECTOR_PNONCES[0]);
+        // the negated signature, the wrong signer, a signature exceeding the group size and an invalid pubnonce
+        assertFalse(session.partialSigVerify(S256Point.N.sub(psig).toBytes(32), pubnonce, pk));
+        assertFalse(session.partialSigVerify(psig.toBytes(32), hex(VECTOR_PNONCES[1]), hex(VECTOR_PUBKEYS[1])));
+        assertFalse(session.partialSigVerify(S256Point.N.toBytes(32), pubnonce, pk));
+        assertFalse(session.partialSigVerify(psig.toBytes(32), hex(VECTOR_PNONCES[4]), pk));
+
+        // the signer is not in the list of pubkeys
+        var notIncluded = vectorSession(new int[]{1, 2}, VECTOR_AGGNONCE, 0, null, null);
+        var secnonce = hex(VECTOR_SECNONCE);
+        var sk = hex(VECTOR_SK);
+        assertThrows(IllegalArgumentException.class, () -> notIncluded.sign(secnonce, sk));
+        // an invalid public key of signer 2
+        var e = assertThrows(IllegalArgumentException.class, () -> vectorSession(new int[]{1, 0, 3}, VECTOR_AGGNONCE, 0, null, null));
+        assertEquals("Invalid pubkey of signer 2", e.getMessage());
+        // an aggregate nonce with an invalid tag, an invalid x coordinate and an x coordinate exceeding the field size
+        for (var aggnonce : new String[]{
+                "048465FCF0BBDBCF443AABCCE533D42B4B5A10966AC09A49655E8C42DAAB8FCD61037496A3CC86926D452CAFCFD55D25972CA1675D549310DE296BFF42F72EEEA8C9",
+                "028465FCF0BBDBCF443AABCCE533D42B4B5A10966AC09A49655E8C42DAAB8FCD61020000000000000000000000000000000000000000000000000000000000000009",
+                "028465FCF0BBDBCF443AABCCE533D42B4B5A10966AC09A49655E8C42DAAB8FCD6102FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFEFFFFFC30"}) {
+            e = assertThrows(IllegalArgumentException.class, () -> vectorSession(new int[]{0, 1, 2}, aggnonce, 0, null, null));
+            assertEquals("Invalid aggnonce", e.getMessage());
+        }
+        // a secnonce with zeros, e.g. after it was used
+        var zeros = hex(VECTOR_SECNONCE);
+        Arrays.fill(zeros, 0, 64, (byte) 0);
+        assertThrows(IllegalArgumentException.class, () -> session.sign(zeros, sk));
+    }
+
+    @Test
+    void nonceAggVectors() {
+        var pnonces = new String[]{
+                "020151C80F435648DF67A22B749CD798CE54E0321D034B92B709B567D60A42E66603BA47FBC1834437B3212E89A84D8425E7BF12E0245D98262268EBDCB385D50641",
+                "03FF406FFD8ADB9CD29877E4985014F66A59F6CD01C0E88CAA8E5F3166B1F676A60248C264CDD57D3C24D79990B0F865674EB62A0F9018277A95011B41BFC193B833",
+                "020151C80F435648DF67A22B749CD798CE54E0321D034B92B709B567D60A42E6660279BE667EF9DCBBAC55A06295CE870B07029BFCDB2DCE28D959F2815B16F81798",
+                "03FF406FFD8ADB9CD29877E4985014F66A59F6CD01C0E88CAA8E5F3166B1F676A60379BE667EF9DCBBAC55A06295CE870B07029BFCDB2DCE28D959F2815B16F81798",
+                "04FF406FFD8ADB9CD29877E4985014F66A59F6CD01C0E88CAA8E5F3166B1F676A60248C264CDD57D3C24D79990B0F865674EB62A0F9018277A95011B41BFC193B833",
+                "03FF406FFD8ADB9CD29877E4985014F66A59F6CD01C0E88CAA8E5F3166B1F676A60248C264CDD57D3C24D79990B0F865674EB62A0F9018277A95011B41BFC193B831",
+                "03FF406FFD8ADB9CD29877E4985014F66A59F6CD01C0E88CAA8E5F3166B1F676A602FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFEFFFFFC30"
+        };
+        assertEquals("035FE1873B4F2967F52FEA4A06AD5A8ECCBE9D0FD73068012C894E2E87CCB5804B024725377345BDE0E9C33AF3C43C0A29A9249F2F2956FA8CFEB55C8573D0262DC8",
+                hex(MuSig2.nonceAgg(List.of(hex(pnonces[0]), hex(pnonces[1])))));
+        // the sum of the second points is infinity, encoded as 33 zero bytes
+        assertEquals("035FE1873B4F2967F52FEA4A06AD5A8ECCBE9D0FD73068012C894E2E87CCB5804B000000000000000000000000000000000000000000000000000000000000000000",
+                hex(MuSig2.nonceAgg(List.of(hex(pnonces[2]), hex(pnonces[3])))));
+        // a wrong tag, an x coordinate not on the curve and an x coordinate exceeding the field size
+        var e = assertThrows(IllegalArgumentException.class, () -> MuSig2.nonceAgg(List.of(hex(pnonces[0]), hex(pnonces[4]))));
+        assertEquals("Invalid pubnonce of signer 1", e.getMessage());
+        e = assertThrows(IllegalArgumentException.class, () -> MuSig2.nonceAgg(List.of(hex(pnonces[5]), hex(pnonces[1]))));
+        assertEquals("Invalid pubnonce of signer 0", e.getMessage());
+        e = assertThrows(IllegalArgumentException.class, () -> MuSig2.nonceAgg(List.of(hex(pnonces[6]), hex(pnonces[1]))));
+        assertEquals("Invalid pubnonce of signer 0", e.getMessage());
+    }
+
+    @Test
+    void tweakVectors() {
+        var pubkeys = VECTOR_PUBKEYS.clone();
+        pubkeys[2] = "02DFF1D77F2A671C5F36183726DB2341BE58FEAE1DA2DECED843240F7B502BA659";
+        var tweaks = new String[]{
+                "E8F791FF9225A2AF0102AFFF4A9A723D9612A682A25EBE79802B263CDFCD83BB",
+                "AE2EA797CC0FE72AC5B97B97F3C6957D7E4199A167A58EB08BCAFFDA70AC0455",
+                "F52ECBC565B3D8BEA2DFD5B75A4F457E54369809322E4120831626F290FA87E0",
+                "1969AD73CC177FA0B4FCED6DF1F7BF9907E665FDE9BA196A74FED0A3CF5AEF9D"
+        };
+        var keys = new int[]{1, 2, 0};
+        // a single x-only tweak
+        assertVectorSign(pubkeys, "E28A5C66E61E178C2BA19DB77B6CF9F7E2F0F56C17918CD13135E60CC848FE91", keys, keys, VECTOR_AGGNONCE, 0, 2,
+                new String[]{tweaks[0]}, new boolean[]{true});
+        // a single plain tweak
+        assertVectorSign(pubkeys, "38B0767798252F21BF5702C48028B095428320F73A4B14DB1E25DE58543D2D2D", keys, keys, VECTOR_AGGNONCE, 0, 2,
+                new String[]{tweaks[0]}, new boolean[]{false});
+        // a plain tweak followed by an x-only tweak
+        assertVectorSign(pubkeys, "408A0A21C4A0F5DACAF9646AD6EB6FECD7F7A11F03ED1F48DFFF2185BC2C2408", keys, keys, VECTOR_AGGNONCE, 0, 2,
+                new String[]{tweaks[0], tweaks[1]}, new boolean[]{false, true});
+        // plain, plain, x-only, x-only
+        assertVectorSign(pubkeys, "45ABD206E61E3DF2EC9E264A6FEC8292141A633C28586388235541F9ADE75435", keys, keys, VECTOR_AGGNONCE, 0, 2,
+                tweaks, new boolean[]{false, false, true, true});
+        // x-only, plain, x-only, plain
+        assertVectorSign(pubkeys, "B255FDCAC27B40C7CE7848E2D3B7BF5EA0ED756DA81565AC804CCCA3E1D5D239", keys, keys, VECTOR_AGGNONCE, 0, 2,
+                tweaks, new boolean[]{true, false, true, false});
+        // the tweak exceeds the group size
+        var ctx = MuSig2.keyAgg(List.of(hex(pubkeys[1]), hex(pubkeys[2]), hex(pubkeys[0])));
+        var e = assertThrows(IllegalArgumentException.class, () -> ctx.applyTweak(S256Point.N.toBytes(32), false));
+        assertEquals("The tweak must be less than n.", e.getMessage());
+    }
+
+    @Test
+    void secnonceReuse() {
+        var sk = Int.parse(77).toBytes(32);
+        var pk = new PrivateKey(Int.parse(77)).getPoint().sec(true);
+        var ctx = MuSig2.keyAgg(List.of(pk, PUBKEYS[0]));
+        var msg = new byte[32];
+        var nonce = MuSig2.nonceGen(sk, pk, null, null, null);
+        var other = MuSig2.nonceGen(null, PUBKEYS[0], null, null, null);
+        var session = new MuSig2Session(ctx, MuSig2.nonceAgg(List.of(nonce[1], other[1])), msg);
+        session.sign(nonce[0], sk);
+        assertThrows(IllegalArgumentException.class, () -> session.sign(nonce[0], sk));
+        // another key than the one of the nonce
+        var fresh = MuSig2.nonceGen(sk, pk, null, null, null);
+        var wrongKey = Int.parse(78).toBytes(32);
+        assertThrows(IllegalArgumentException.class, () -> session.sign(fresh[0], wrongKey));
+    }
+
+    @Test
+    void invalidContribution() {
+        var invalid = Bytes.hexStringToByteArray("020000000000000000000000000000000000000000000000000000000000000005");
+        var e = assertThrows(IllegalArgumentException.class, () -> MuSig2.keyAgg(List.of(PUBKEYS[0], invalid)));
+        assertEquals("Invalid pubkey of signer 1", e.getMessage());
+        var pubnonce = Bytes.add(PUBKEYS[0], PUBKEYS[1]);
+        var invalidNonce = Bytes.add(PUBKEYS[0], invalid);
+        e = assertThrows(IllegalArgumentException.class, () -> MuSig2.nonceAgg(List.of(pubnonce, invalidNonce)));
+        assertEquals("Invalid pubnonce of signer 1", e.getMessage());
+        // R_1 + (-R_1) is infinity, encoded as zeros
+        var negated = PUBKEYS[0].clone();
+        negated[0] = 3;
+        var aggnonce = MuSig2.nonceAgg(List.of(pubnonce, Bytes.add(negated, PUBKEYS[1])));
+        assertArrayEquals(new byte[33], Arrays.copyOfRange(aggnonce, 0, 33));
+        assertNotNull(new MuSig2Session(MuSig2.keyAgg(List.of(PUBKEYS[0])), aggnonce, new byte[32]));
+    }
+
+    @Test
+    void partialSigVerifyUnknownKey() {
+        var sk = Int.parse(77).toBytes(32);
+        var pk = new PrivateKey(Int.parse(77)).getPoint().sec(true);
+        var ctx = MuSig2.keyAgg(List.of(pk, PUBKEYS[0]));
+        assertTrue(ctx.contains(pk));
+        assertFalse(ctx.contains(PUBKEYS[1]));
+        var msg = new byte[32];
+        var nonce = MuSig2.nonceGen(sk, pk, null, null, null);
+        var other = MuSig2.nonceGen(null, PUBKEYS[0], null, null, null);
+        var session = new MuSig2Session(ctx, MuSig2.nonceAgg(List.of(nonce[1], other[1])), msg);
+        var psig = session.sign(nonce[0], sk);
+        assertTrue(session.partialSigVerify(psig, nonce[1], pk));
+        // a valid key which was not aggregated is rejected, not thrown
+        assertFalse(session.partialSigVerify(psig, nonce[1], PUBKEYS[1]));
+        assertFalse(session.partialSigVerify(psig, nonce[1], new byte[33]));
+    }
+
+    private static void assertVectorSign(String expected, int[] keys, int[] nonces, String aggnonce, int msg, int signer, String[] tweaks, boolean[] xonly) {
+        assertVectorSign(VECTOR_PUBKEYS, expected, keys, nonces, aggnonce, msg, signer, tweaks, xonly);
+    }
+
+    /**
+     * The partial signature of VECTOR_SK with VECTOR_SECNONCE at position signer, it verifies and a changed one does not.
+     */
+    private static void assertVectorSign(String[] pubkeys, String expected, int[] keys, int[] nonces, String aggnonce, int msg, int signer, String[] tweaks, boolean[] xonly) {
+        var session = vectorSession(pubkeys, keys, aggnonce, msg, tweaks, xonly);
+        var psig = session.sign(hex(VECTOR_SECNONCE), hex(VECTOR_SK));
+        assertEquals(expected, hex(psig));
+        var pubnonce = hex(VECTOR_PNONCES[nonces[signer]]);
+        var pk = hex(pubkeys[keys[signer]]);
+        assertTrue(session.partialSigVerify(psig, pubnonce, pk));
+        psig[31] ^= 1;
+        assertFalse(session.partialSigVerify(psig, pubnonce, pk));
+    }
+
+    private static MuSig2Session vectorSession(int[] keys, String aggnonce, int msg, String[] tweaks, boolean[] xonly) {
+        return vectorSession(VECTOR_PUBKEYS, keys, aggnonce, msg, tweaks, xonly);
+    }
+
+    private static MuSig2Session vectorSession(String[] pubkeys, int[] keys, String aggnonce, int msg, String[] tweaks, boolean[] xonly) {
+        var keyList = new ArrayList<byte[]>();
+        for (int k : keys) {
+            keyList.add(hex(pubkeys[k]));
+        }
+        var ctx = MuSig2.keyAgg(keyList);
+        for (int i = 0; tweaks != null && i < tweaks.length; i++) {
+            ctx = ctx.applyTweak(hex(tweaks[i]), xonly[i]);
+        }
+        return new MuSig2Session(ctx, hex(aggnonce), hex(VECTOR_MSGS[msg]));
+    }
+
+    private static byte[] hex(String hex) {
+        return Bytes.hexStringToByteArray(hex);
+    }
+
+    private static String hex(byte[] bytes) {
+        return Bytes.byteArrayToHexString(bytes).toUpperCase();
+    }
+
+    private static String aggregate(int... indices) {
+        var pubkeys = new ArrayList<byte[]>();
+        for (int i : indices) {
+            pubkeys.add(PUBKEYS[i]);
+        }
+        return Bytes.byteArrayToHexString(MuSig2.keyAgg(pubkeys).getXonlyPubkey()).toUpperCase();
+    }
+}
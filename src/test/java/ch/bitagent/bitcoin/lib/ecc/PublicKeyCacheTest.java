@@ -0,0 +1,87 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublicKeyCacheTest {
+
+    @Test
+    void eviction() {
+        var cache = new PublicKeyCache(2);
+        var a = new byte[]{1};
+        var b = new byte[]{2};
+        var c = new byte[]{3};
+        cache.put(a, S256Point.getG());
+        cache.put(b, S256Point.getG());
+        assertNotNull(cache.get(a));
+        // b is the least recently used
+        cache.put(c, S256Point.getG());
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(a));
+        assertNull(cache.get(b));
+        assertNotNull(cache.get(c));
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits());
+        assertThrows(IllegalArgumentException.class, () -> new PublicKeyCache(0));
+    }
+
+    @Test
+    void parse() {
+        var previous = PublicKeyCache.getDefault();
+        try {
+            var cache = new PublicKeyCache(16);
+            PublicKeyCache.setDefault(cache);
+            for (int secret : new int[]{5001, 2019, 8675309}) {
+                var point = new PrivateKey(Int.parse(secret)).getPoint();
+                var sec = point.sec(true);
+                var parsed = S256Point.parse(sec);
+                assertTrue(point.eq(parsed));
+                assertSame(parsed, S256Point.parse(sec));
+                // uncompressed keys are not cached
+                assertTrue(point.eq(S256Point.parse(point.sec(false))));
+            }
+            assertEquals(3, cache.getHits());
+            assertEquals(3, cache.getMisses());
+            // an uncached parse leaves the cache alone
+            var uncached = new PrivateKey(Int.parse(4242)).getPoint();
+            assertTrue(uncached.eq(S256Point.parse(uncached.sec(true), false)));
+            assertEquals(3, cache.size());
+            PublicKeyCache.setDefault(null);
+            var sec = new PrivateKey(Int.parse(5001)).getPoint().sec(true);
+            assertNotSame(S256Point.parse(sec), S256Point.parse(sec));
+        } finally {
+            PublicKeyCache.setDefault(previous);
+        }
+    }
+
+    @Test
+    void liftX() {
+        var previous = PublicKeyCache.getDefault();
+        try {
+            var cache = new PublicKeyCache(16);
+            PublicKeyCache.setDefault(cache);
+            var point = new PrivateKey(Int.parse(12345)).getPoint();
+            var x = Point.getNum(point.getX());
+            var lifted = S256Point.liftX(x);
+            assertTrue(x.eq(Point.getNum(lifted.getX())));
+            assertTrue(Point.getNum(lifted.getY()).mod(Int.parse(2)).eq(Int.parse(0)));
+            assertSame(lifted, S256Point.liftX(x));
+            assertEquals(1, cache.getHits());
+            // x without a point is not cached
+            assertNull(S256Point.liftX(Int.parse(5)));
+            assertNull(S256Point.liftX(Int.parse(5)));
+            assertEquals(1, cache.size());
+            // an uncached lift leaves the cache alone
+            var other = new PrivateKey(Int.parse(54321)).getPoint();
+            var lifted2 = S256Point.liftX(Point.getNum(other.getX()), false);
+            assertTrue(Point.getNum(other.getX()).eq(Point.getNum(lifted2.getX())));
+            assertEquals(1, cache.size());
+        } finally {
+            PublicKeyCache.setDefault(previous);
+        }
+    }
+}
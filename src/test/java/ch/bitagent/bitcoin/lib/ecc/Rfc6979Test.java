@@ -0,0 +1,87 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import ch.bitagent.bitcoin.lib.helper.Bytes;
+import ch.bitagent.bitcoin.lib.helper.Hash;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Rfc6979Test {
+
+    @Test
+    void nonce() {
+        var random = new Random(6979);
+        for (int i = 0; i < 200; i++) {
+            var secret = new BigInteger(256, random).mod(S256Point.N.bigInt()).toByteArray();
+            var z = new BigInteger(256, random).toByteArray();
+            int counter = i % 4 == 0 ? random.nextInt(Integer.MAX_VALUE) : i % 3;
+            var secretBytes = new Int(new BigInteger(1, secret)).toBytes(32);
+            var zBytes = new Int(new BigInteger(1, z)).toBytes(32);
+            assertEquals(reference(secretBytes, zBytes, counter), Rfc6979.nonce(secretBytes, zBytes, counter));
+        }
+    }
+
+    @Test
+    void threads() throws InterruptedException, ExecutionException {
+        var pk = new PrivateKey(Int.parse(8675309));
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var tasks = new ArrayList<Callable<Int>>();
+            for (int i = 0; i < 64; i++) {
+                var z = Int.parse(i + 1);
+                tasks.add(() -> pk.deterministicK(z, 0));
+            }
+            var futures = executor.invokeAll(tasks);
+            for (int i = 0; i < futures.size(); i++) {
+                Future<Int> future = futures.get(i);
+                assertEquals(reference(pk.getSecret().toBytes(32), Int.parse(i + 1).toBytes(32), 0), future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * The RFC 6979 generator with a new Mac for every step.
+     */
+    private static Int reference(byte[] secretBytes, byte[] zBytes, int counter) {
+        byte[] k = Bytes.initFill(32, (byte) 0x00);
+        byte[] v = Bytes.initFill(32, (byte) 0x01);
+        byte[] cBytes = counter > 0 ? Bytes.changeOrder(Int.parse(counter).toBytes(32)) : new byte[0];
+        var hmac = Hash.hmacS256Init(k);
+        hmac.update(v);
+        hmac.update(new byte[]{0x00});
+        hmac.update(secretBytes);
+        hmac.update(zBytes);
+        hmac.update(cBytes);
+        k = hmac.doFinal();
+        v = Hash.hmacS256Init(k).doFinal(v);
+        hmac = Hash.hmacS256Init(k);
+        hmac.update(v);
+        hmac.update(new byte[]{0x01});
+        hmac.update(secretBytes);
+        hmac.update(zBytes);
+        hmac.update(cBytes);
+        k = hmac.doFinal();
+        v = Hash.hmacS256Init(k).doFinal(v);
+        while (true) {
+            v = Hash.hmacS256Init(k).doFinal(v);
+            var candidate = Hex.parse(v);
+            if (candidate.ge(Int.parse(1)) && candidate.lt(S256Point.N)) {
+                return candidate;
+            }
+            hmac = Hash.hmacS256Init(k);
+            hmac.update(v);
+            k = hmac.doFinal(new byte[]{0x00});
+            v = Hash.hmacS256Init(k).doFinal(v);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class S256EndomorphismTest {
+
+    private static final BigInteger N = S256Point.N.bigInt();
+
+    private static long[] limbs(PointOperators field) {
+        return ((S256Field) field).limbs();
+    }
+
+    @Test
+    void phi() {
+        var g = S256Point.getG();
+        var phiG = S256Endomorphism.phi(new long[][][]{{limbs(g.getX())}, {limbs(g.getY())}});
+        var point = new S256Point(new S256Field(phiG[0][0]), new S256Field(phiG[1][0]));
+        assertTrue(point.eq(g.mul(new Int(S256Endomorphism.LAMBDA))));
+    }
+
+    @Test
+    void split() {
+        var random = new Random(5);
+        var ks = new BigInteger[]{BigInteger.ZERO, BigInteger.ONE, N.subtract(BigInteger.ONE), S256Endomorphism.LAMBDA};
+        for (int i = 0; i < 200; i++) {
+            var k = i < ks.length ? ks[i] : new BigInteger(256, random).mod(N);
+            var split = S256Endomorphism.split(k);
+            assertEquals(k, split[0].add(split[1].multiply(S256Endomorphism.LAMBDA)).mod(N));
+            assertTrue(split[0].abs().bitLength() <= 129);
+            assertTrue(split[1].abs().bitLength() <= 129);
+        }
+    }
+
+    @Test
+    void wnaf() {
+        var random = new Random(6);
+        for (int w = 2; w <= 8; w++) {
+            for (int i = 0; i < 50; i++) {
+                var k = new BigInteger(130, random);
+                var naf = S256Endomorphism.wnaf(k, w);
+                var sum = BigInteger.ZERO;
+                int last = -w;
+                for (int j = 0; j < naf.length; j++) {
+                    if (naf[j] != 0) {
+                        assertEquals(1, naf[j] & 1);
+                        assertTrue(Math.abs(naf[j]) < (1 << (w - 1)));
+                        assertTrue(j - last >= w);
+                        last = j;
+                    }
+                    sum = sum.add(BigInteger.valueOf(naf[j]).shiftLeft(j));
+                }
+                assertEquals(k, sum);
+            }
+        }
+    }
+
+    @Test
+    void mul() {
+        var random = new Random(7);
+        var g = S256Point.getG();
+        for (int i = 0; i < 20; i++) {
+            var k = new BigInteger(256, random).mod(N);
+            var point = new S256Point(S256Endomorphism.mul(limbs(g.getX()), limbs(g.getY()), k));
+            assertTrue(point.eq(g.mul(new Int(k))));
+        }
+        var p = g.mul(Int.parse(1485));
+        assertTrue(p.mul(Int.parse(0)).eq(new S256Point(null, null)));
+        assertTrue(p.mul(Int.parse(1)).eq(p));
+        assertTrue(p.mul(S256Point.N.sub(Int.parse(1))).add(p) == null);
+        assertTrue(p.mul(Int.parse(3)).eq(p.add(p).add(p)));
+    }
+}
@@ -0,0 +1,124 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class S256FieldLimbsTest {
+
+    private static final BigInteger P = S256Field.P.bigInt();
+
+    private static BigInteger random(Random random) {
+        return new BigInteger(256, random).mod(P);
+    }
+
+    private static long[] limbs(BigInteger bi) {
+        return S256FieldLimbs.parse(Int.parse(bi));
+    }
+
+    private static BigInteger big(long[] a) {
+        return S256FieldLimbs.toInt(S256FieldLimbs.normalize(a.clone())).bigInt();
+    }
+
+    @Test
+    void roundtrip() {
+        var random = new Random(1);
+        for (int i = 0; i < 100; i++) {
+            var a = random(random);
+            assertEquals(a, big(limbs(a)));
+        }
+        assertEquals(BigInteger.ZERO, big(limbs(P)));
+        assertEquals(BigInteger.ONE, big(limbs(P.add(BigInteger.ONE))));
+        assertEquals(P.subtract(BigInteger.ONE), big(limbs(P.subtract(BigInteger.ONE))));
+    }
+
+    @Test
+    void arithmetic() {
+        var random = new Random(2);
+        for (int i = 0; i < 1000; i++) {
+            var a = random(random);
+            var b = random(random);
+            var r = S256FieldLimbs.zero();
+            S256FieldLimbs.add(r, limbs(a), limbs(b));
+            assertEquals(a.add(b).mod(P), big(r));
+            S256FieldLimbs.sub(r, limbs(a), limbs(b));
+            assertEquals(a.subtract(b).mod(P), big(r));
+            S256FieldLimbs.mul(r, limbs(a), limbs(b));
+            assertEquals(a.multiply(b).mod(P), big(r));
+            S256FieldLimbs.sqr(r, limbs(a));
+            assertEquals(a.multiply(a).mod(P), big(r));
+            S256FieldLimbs.mul(r, limbs(a), 7);
+            assertEquals(a.multiply(BigInteger.valueOf(7)).mod(P), big(r));
+            S256FieldLimbs.neg(r, limbs(a));
+            assertEquals(a.negate().mod(P), big(r));
+        }
+    }
+
+    @Test
+    void extremes() {
+        var pm1 = limbs(P.subtract(BigInteger.ONE));
+        var r = S256FieldLimbs.zero();
+        S256FieldLimbs.mul(r, pm1, pm1);
+        assertEquals(BigInteger.ONE, big(r));
+        S256FieldLimbs.add(r, pm1, S256FieldLimbs.of(1));
+        assertTrue(S256FieldLimbs.isZero(r));
+        S256FieldLimbs.sub(r, S256FieldLimbs.zero(), S256FieldLimbs.of(1));
+        assertEquals(P.subtract(BigInteger.ONE), big(r));
+    }
+
+    @Test
+    void invSqrt() {
+        var random = new Random(3);
+        for (int i = 0; i < 100; i++) {
+            var a = random(random);
+            var r = S256FieldLimbs.zero();
+            S256FieldLimbs.inv(r, limbs(a));
+            assertEquals(a.modInverse(P), big(r));
+            var isSquare = S256FieldLimbs.sqrt(r, limbs(a));
+            var root = a.modPow(P.add(BigInteger.ONE).shiftRight(2), P);
+            assertEquals(root, big(r));
+            assertEquals(root.multiply(root).mod(P).equals(a), isSquare);
+        }
+    }
+
+    @Test
+    void s256Field() {
+        var a = new S256Field(Hex.parse("79be667ef9dcbbac55a06295ce870b07029bfcdb2dce28d959f2815b16f81798"));
+        var b = new S256Field(Hex.parse("483ada7726a3c4655da4fbfc0e1108a8fd17b448a68554199c47d08ffb10d4b8"));
+        assertTrue(b.pow(Int.parse(2)).eq(a.pow(Int.parse(3)).add(new S256Field(Int.parse(7)))));
+        assertTrue(a.div(b).mul(b).eq(a));
+        assertTrue(a.pow(Int.parse(-1)).mul(a).eq(new S256Field(Int.parse(1))));
+        assertTrue(a.sub(a).eq(a.mul(0)));
+        assertTrue(a.mul(3).eq(a.add(a).add(a)));
+    }
+
+    @Test
+    void s256FieldMulNegative() {
+        var a = new S256Field(Hex.parse("79be667ef9dcbbac55a06295ce870b07029bfcdb2dce28d959f2815b16f81798"));
+        var zero = new S256Field(Int.parse(0));
+        assertTrue(a.mul(-1).eq(zero.sub(a)));
+        assertTrue(a.mul(-3).add(a.mul(3)).eq(zero));
+        var min = BigInteger.valueOf(Integer.MIN_VALUE).mod(P);
+        assertEquals(a.getNum().bigInt().multiply(min).mod(P), a.mul(Integer.MIN_VALUE).getNum().bigInt());
+        var max = BigInteger.valueOf(Integer.MAX_VALUE);
+        assertEquals(a.getNum().bigInt().multiply(max).mod(P), a.mul(Integer.MAX_VALUE).getNum().bigInt());
+    }
+
+    @Test
+    void s256FieldLazyNum() {
+        var random = new Random(1);
+        for (int i = 0; i < 20; i++) {
+            var x = random(random);
+            var y = random(random);
+            var product = new S256Field(Int.parse(x)).mul(new S256Field(Int.parse(y)));
+            assertEquals(x.multiply(y).mod(P), product.getNum().bigInt());
+            // the number is built once and kept
+            assertSame(product.getNum(), product.getNum());
+            assertTrue(product.eq(new S256Field(Int.parse(x.multiply(y).mod(P)))));
+            assertEquals(String.format("S256Field_%s", product.getNum().toHex()), product.toString());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class S256InverseTest {
+
+    private static final BigInteger N = S256Point.N.bigInt();
+    private static final BigInteger P = S256Field.P.bigInt();
+
+    @Test
+    void modN() {
+        var random = new Random(9);
+        var as = new BigInteger[]{BigInteger.ONE, BigInteger.TWO, N.subtract(BigInteger.ONE), N.add(BigInteger.TWO), BigInteger.ONE.shiftLeft(255)};
+        for (int i = 0; i < 500; i++) {
+            var a = i < as.length ? as[i] : new BigInteger(256, random);
+            if (a.mod(N).signum() == 0) {
+                continue;
+            }
+            assertEquals(a.modInverse(N), S256Inverse.modN(new Int(a)).bigInt());
+        }
+        assertEquals(BigInteger.ZERO, S256Inverse.modN(Int.parse(0)).bigInt());
+        assertEquals(BigInteger.ZERO, S256Inverse.modN(S256Point.N).bigInt());
+    }
+
+    @Test
+    void modP() {
+        var random = new Random(10);
+        var as = new BigInteger[]{BigInteger.ONE, P.subtract(BigInteger.ONE), P.subtract(BigInteger.TWO), P.add(BigInteger.ONE)};
+        for (int i = 0; i < 500; i++) {
+            var a = i < as.length ? as[i] : new BigInteger(256, random).mod(P);
+            if (a.mod(P).signum() == 0) {
+                continue;
+            }
+            assertEquals(a.modInverse(P), S256Inverse.modP(new Int(a)).bigInt());
+            var r = S256FieldLimbs.parse(new Int(a));
+            S256Inverse.field(r, r);
+            assertEquals(a.modInverse(P), S256FieldLimbs.toInt(S256FieldLimbs.normalize(r)).bigInt());
+        }
+        assertEquals(BigInteger.ZERO, S256Inverse.modP(Int.parse(0)).bigInt());
+    }
+
+    @Test
+    void fieldElement() {
+        var a = new FieldElement(Int.parse(3), S256Field.P);
+        var b = new FieldElement(Int.parse(7), S256Field.P);
+        assertTrue(a.div(b).mul(b).eq(a));
+    }
+}
@@ -0,0 +1,57 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class S256MultiScalarTest {
+
+    @Test
+    void mul() {
+        var random = new Random(11);
+        var n = S256Point.N.bigInt();
+        for (int size : new int[]{1, 2, 5, 40}) {
+            var points = new S256Point[size];
+            var scalars = new BigInteger[size];
+            var expected = new S256Point(null, null);
+            for (int i = 0; i < size; i++) {
+                points[i] = S256Point.getG().mul(Int.parse(new BigInteger(256, random)));
+                scalars[i] = new BigInteger(256, random).mod(n);
+                var term = points[i].mul(new Int(scalars[i]));
+                expected = expected.isInfinity() ? term : expected.add(term);
+            }
+            assertTrue(new S256Point(S256MultiScalar.mul(points, scalars)).eq(expected));
+        }
+        var p = S256Point.getG().mul(Int.parse(1485));
+        var sum = S256MultiScalar.mul(new S256Point[]{p, p, new S256Point(null, null)},
+                new BigInteger[]{BigInteger.valueOf(5), n.subtract(BigInteger.valueOf(5)), BigInteger.ONE});
+        assertTrue(sum.infinity);
+    }
+
+    @Test
+    void recode() {
+        var random = new Random(12);
+        for (int c = 1; c <= 16; c++) {
+            for (int i = 0; i < 20; i++) {
+                var k = new BigInteger(129, random);
+                int windows = 129 / c + 1;
+                var digits = S256MultiScalar.recode(k, c, windows);
+                var sum = BigInteger.ZERO;
+                for (int w = windows - 1; w >= 0; w--) {
+                    assertTrue(Math.abs(digits[w]) <= 1 << (c - 1));
+                    sum = sum.shiftLeft(c).add(BigInteger.valueOf(digits[w]));
+                }
+                assertEquals(k, sum);
+            }
+        }
+    }
+
+    @Test
+    void window() {
+        assertTrue(S256MultiScalar.window(2, 129) <= S256MultiScalar.window(200, 129));
+        assertTrue(S256MultiScalar.window(200, 129) <= S256MultiScalar.window(20000, 129));
+    }
+}
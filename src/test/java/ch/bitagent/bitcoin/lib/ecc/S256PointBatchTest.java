@@ -0,0 +1,67 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class S256PointBatchTest {
+
+    @Test
+    void mul() {
+        var random = new Random(14);
+        var secrets = new Int[40];
+        for (int i = 0; i < secrets.length; i++) {
+            secrets[i] = new Int(new BigInteger(256, random));
+        }
+        secrets[3] = Int.parse(0);
+        secrets[7] = S256Point.N.sub(Int.parse(1));
+        secrets[9] = S256Point.N;
+        var points = S256PointBatch.mul(secrets);
+        for (int i = 0; i < secrets.length; i++) {
+            assertTrue(S256Point.getG().mul(secrets[i]).eq(points[i]));
+        }
+        assertNull(points[3].getX());
+        assertNull(points[9].getX());
+
+        var keys = S256PointBatch.privateKeys(secrets);
+        assertEquals(new PrivateKey(secrets[0]).getPoint().addressBech32P2wpkh(false), keys[0].getPoint().addressBech32P2wpkh(false));
+        assertEquals(secrets[0], keys[0].getSecret());
+    }
+
+    @Test
+    void sequence() {
+        // through the point at infinity at N
+        var start = S256Point.N.sub(Int.parse(3));
+        var points = S256PointBatch.sequence(start, 7);
+        for (int i = 0; i < points.length; i++) {
+            assertTrue(S256Point.getG().mul(start.add(Int.parse(i))).eq(points[i]));
+        }
+        assertNull(points[3].getX());
+        assertEquals(0, S256PointBatch.sequence(start, 0).length);
+    }
+
+    @Test
+    void stream() {
+        int count = 2 * S256PointBatch.CHUNK + 100;
+        var start = Int.parse(1000);
+        var addresses = S256PointBatch.stream(start, count).map(p -> p.address(true, false)).collect(Collectors.toList());
+        assertEquals(count, addresses.size());
+        for (int i : new int[]{0, 1, S256PointBatch.CHUNK - 1, S256PointBatch.CHUNK, count - 1}) {
+            assertEquals(new PrivateKey(start.add(Int.parse(i))).getPoint().address(true, false), addresses.get(i));
+        }
+
+        var secrets = new Int[S256PointBatch.CHUNK + 3];
+        for (int i = 0; i < secrets.length; i++) {
+            secrets[i] = Int.parse(7L * i + 1);
+        }
+        var points = S256PointBatch.stream(secrets).collect(Collectors.toList());
+        assertEquals(secrets.length, points.size());
+        for (int i : new int[]{0, S256PointBatch.CHUNK, secrets.length - 1}) {
+            assertTrue(S256Point.getG().mul(secrets[i]).eq(points.get(i)));
+        }
+    }
+}
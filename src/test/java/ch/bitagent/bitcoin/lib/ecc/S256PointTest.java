@@ -25,6 +25,66 @@ class S256PointTest {
         assertNull(point.getX());
     }
 
+    @Test
+    void addDouble() {
+        var g = S256Point.getG();
+        var g2 = g.add(g);
+        assertTrue(g2.eq(g.mul(Int.parse(2))));
+        var g3 = g2.add(g);
+        assertTrue(g3.eq(g.mul(Int.parse(3))));
+        assertTrue(g3.eq(new S256Point((S256Field) g3.getX(), (S256Field) g3.getY())));
+        assertTrue(g3.add(g2).eq(g.mul(Int.parse(5))));
+        assertNull(g.add(g.mul(S256Point.N.sub(Int.parse(1)))));
+        assertThrowsExactly(IllegalArgumentException.class, () -> new S256Point((S256Field) g3.getX(), (S256Field) g2.getY()));
+    }
+
+    @Test
+    void table() {
+        var base = S256Point.getG().mul(Int.parse(7));
+        var random = new java.util.Random(4);
+        for (int window = S256PointTable.MIN_WINDOW; window <= S256PointTable.MAX_WINDOW; window += 3) {
+            var table = new S256PointTable(base, window);
+            assertEquals(window, table.getWindow());
+            assertTrue(new S256Point(table.mul(Int.parse(0))).eq(new S256Point(null, null)));
+            assertTrue(new S256Point(table.mul(Int.parse(1))).eq(base));
+            assertTrue(new S256Point(table.mul(S256Point.N.sub(Int.parse(1)))).eq(base.mul(S256Point.N.sub(Int.parse(1)))));
+            for (int i = 0; i < 10; i++) {
+                var k = Int.parse(new java.math.BigInteger(256, random)).mod(S256Point.N);
+                assertTrue(new S256Point(table.mul(k)).eq(base.mul(k)));
+            }
+        }
+        assertThrowsExactly(IllegalArgumentException.class, () -> new S256PointTable(base, 0));
+        assertThrowsExactly(IllegalArgumentException.class, () -> S256Point.setGeneratorWindow(9));
+    }
+
+    @Test
+    void generatorWindow() {
+        try {
+            S256Point.setGeneratorWindow(5);
+            assertEquals(5, S256Point.getGeneratorTable().getWindow());
+            pubpoint();
+        } finally {
+            S256Point.setGeneratorWindow(S256Point.GENERATOR_WINDOW);
+        }
+        assertEquals(S256Point.GENERATOR_WINDOW, S256Point.getGeneratorTable().getWindow());
+    }
+
+    @Test
+    void mulAdd() {
+        var g = S256Point.getG();
+        var p = g.mul(Int.parse(1485));
+        var random = new java.util.Random(8);
+        for (int i = 0; i < 20; i++) {
+            var u = Int.parse(new java.math.BigInteger(256, random)).mod(S256Point.N);
+            var v = Int.parse(new java.math.BigInteger(256, random)).mod(S256Point.N);
+            assertTrue(S256Point.mulAdd(u, p, v).eq(g.mul(u).add(p.mul(v))));
+        }
+        assertTrue(S256Point.mulAdd(Int.parse(0), p, Int.parse(1)).eq(p));
+        assertTrue(S256Point.mulAdd(Int.parse(2), p, Int.parse(0)).eq(g.add(g)));
+        assertTrue(S256Point.mulAdd(Int.parse(1485), p, S256Point.N.sub(Int.parse(1))).isInfinity());
+        assertTrue(S256Point.mulAdd(Int.parse(7), new S256Point(null, null), Int.parse(3)).eq(g.mul(Int.parse(7))));
+    }
+
     @Test
     void pubpoint() {
         var points = new Int[][]{
@@ -0,0 +1,49 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import ch.bitagent.bitcoin.lib.helper.Bytes;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchnorrSignerTest {
+
+    @Test
+    void sign() {
+        var seckey = Bytes.hexStringToByteArray("B7E151628AED2A6ABF7158809CF4F3C762E7160F38B4DA56A784D9045190CFEF");
+        var pubkey = Bytes.hexStringToByteArray("DFF1D77F2A671C5F36183726DB2341BE58FEAE1DA2DECED843240F7B502BA659");
+        var auxRand = Bytes.hexStringToByteArray("0000000000000000000000000000000000000000000000000000000000000001");
+        var msg = Bytes.hexStringToByteArray("243F6A8885A308D313198A2E03707344A4093822299F31D0082EFA98EC4E6C89");
+        var sig = Bytes.hexStringToByteArray("6896BD60EEAE296DB48A229FF71DFE071BDE413E6D43F917DC8DCF8C78DE33418906D11AC976ABCCB20B091292BFF4EA897EFCB639EA871CFA95F6DE339E4B0A");
+
+        var signer = new SchnorrSigner(seckey);
+        assertFalse(signer.isVerifySignatures());
+        assertArrayEquals(pubkey, signer.getPublicKey());
+        assertArrayEquals(sig, signer.sign(msg, auxRand));
+        assertArrayEquals(sig, new SchnorrSigner(seckey, true).sign(msg, auxRand));
+    }
+
+    @Test
+    void signMany() {
+        // the same signatures as the signing with verification
+        var seckey = Bytes.hexStringToByteArray("C90FDAA22168C234C4C6628B80DC1CD129024E088A67CC74020BBEA63B14E5C9");
+        var pubkey = Bytes.hexStringToByteArray("DD308AFEC5777E13121FA72B9CC1B7CC0139715309B086C960E18FD969774EB8");
+        var auxRand = Bytes.hexStringToByteArray("C87AA53824B4D7AE2EB035A2B5BBBCCC080E76CDC6D1692C4B0B62D798E6D906");
+        var signer = new SchnorrSigner(seckey);
+        assertArrayEquals(pubkey, signer.getPublicKey());
+        for (int i = 0; i < 8; i++) {
+            var msg = Bytes.initFill(32, (byte) i);
+            var sig = signer.sign(msg, auxRand);
+            assertArrayEquals(Schnorr.sign(msg, seckey, auxRand), sig);
+            assertTrue(Schnorr.verify(msg, pubkey, sig));
+        }
+    }
+
+    @Test
+    void invalid() {
+        var zero = Bytes.initFill(32, (byte) 0x00);
+        assertThrows(IllegalArgumentException.class, () -> new SchnorrSigner(zero));
+        assertThrows(IllegalArgumentException.class, () -> new SchnorrSigner(S256Point.N.toBytes(32)));
+        var signer = new SchnorrSigner(Int.parse(3).toBytes(32));
+        assertThrows(IllegalArgumentException.class, () -> signer.sign(zero, new byte[31]));
+    }
+}
@@ -3,6 +3,9 @@ package ch.bitagent.bitcoin.lib.ecc;
 import ch.bitagent.bitcoin.lib.helper.Bytes;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class SchnorrTest {
@@ -211,4 +214,59 @@ class SchnorrTest {
         assertArrayEquals(sig, Schnorr.sign(msg, seckey, auxRand));
         assertTrue(Schnorr.verify(msg, pubkey, sig));
     }
-}
\ No newline at end of file
+
+    @Test
+    void verifyBatch() {
+        var msgs = new ArrayList<byte[]>();
+        var pubkeys = new ArrayList<byte[]>();
+        var sigs = new ArrayList<byte[]>();
+        var auxRand = new byte[32];
+        for (int i = 1; i <= 20; i++) {
+            var seckey = Int.parse(i * 7919L).toBytes(32);
+            var msg = Int.parse(i).toBytes(32);
+            msgs.add(msg);
+            pubkeys.add(Schnorr.getNumBytes(S256Point.getG().mul(Hex.parse(seckey)).getX()));
+            sigs.add(Schnorr.sign(msg, seckey, auxRand));
+        }
+        assertTrue(Schnorr.verifyBatch(msgs, pubkeys, sigs));
+        assertEquals(-1, Schnorr.findInvalid(msgs, pubkeys, sigs));
+        assertTrue(Schnorr.verifyBatch(List.of(), List.of(), List.of()));
+
+        var sig = sigs.get(13).clone();
+        sig[63] ^= 1;
+        sigs.set(13, sig);
+        assertFalse(Schnorr.verifyBatch(msgs, pubkeys, sigs));
+        assertEquals(13, Schnorr.findInvalid(msgs, pubkeys, sigs));
+
+        assertThrowsExactly(IllegalArgumentException.class, () -> Schnorr.verifyBatch(msgs, pubkeys, List.of()));
+    }
+
+    @Test
+    void verifyBatchCachesOnlyKeys() {
+        var previous = PublicKeyCache.getDefault();
+        try {
+            var cache = new PublicKeyCache(64);
+            PublicKeyCache.setDefault(cache);
+            var msgs = new ArrayList<byte[]>();
+            var pubkeys = new ArrayList<byte[]>();
+            var sigs = new ArrayList<byte[]>();
+            var auxRand = new byte[32];
+            for (int i = 1; i <= 5; i++) {
+                var seckey = Int.parse(i * 104729L).toBytes(32);
+                var msg = Int.parse(i).toBytes(32);
+                msgs.add(msg);
+                pubkeys.add(Schnorr.getNumBytes(S256Point.getG().mul(Hex.parse(seckey)).getX()));
+                sigs.add(Schnorr.sign(msg, seckey, auxRand));
+            }
+            cache.clear();
+            assertTrue(Schnorr.verifyBatch(msgs, pubkeys, sigs));
+            // the nonces R are not cached
+            assertEquals(5, cache.size());
+            for (var pubkey : pubkeys) {
+                assertNotNull(cache.get(pubkey));
+            }
+        } finally {
+            PublicKeyCache.setDefault(previous);
+        }
+    }
+}
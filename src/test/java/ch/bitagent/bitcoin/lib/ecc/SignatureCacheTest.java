@@ -0,0 +1,66 @@
+package ch.bitagent.bitcoin.lib.ecc;
+
+import ch.bitagent.bitcoin.lib.helper.Bytes;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SignatureCacheTest {
+
+    @Test
+    void containsAdd() {
+        var cache = new SignatureCache(1024);
+        var sighash = Int.parse(1).toBytes(32);
+        var pubkey = Int.parse(2).toBytes(33);
+        var signature = Int.parse(3).toBytes(64);
+        assertEquals(0, cache.getHitRate());
+        assertFalse(cache.contains(sighash, pubkey, signature));
+        cache.add(sighash, pubkey, signature);
+        assertTrue(cache.contains(sighash, pubkey, signature));
+        assertFalse(cache.contains(sighash, signature, pubkey));
+        assertFalse(cache.contains(Int.parse(2).toBytes(32), pubkey, signature));
+        assertEquals(1, cache.getHits());
+        assertEquals(3, cache.getMisses());
+        assertEquals(0.25, cache.getHitRate());
+        cache.clear();
+        assertFalse(cache.contains(sighash, pubkey, signature));
+        assertThrowsExactly(IllegalArgumentException.class, () -> new SignatureCache(1));
+    }
+
+    @Test
+    void eviction() {
+        var cache = new SignatureCache(64);
+        for (int i = 0; i < 1000; i++) {
+            cache.add(Int.parse(i).toBytes(32), new byte[33], new byte[64]);
+        }
+        int found = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (cache.contains(Int.parse(i).toBytes(32), new byte[33], new byte[64])) {
+                found++;
+            }
+        }
+        assertTrue(found > 0 && found <= 64);
+        assertTrue(cache.contains(Int.parse(999).toBytes(32), new byte[33], new byte[64]));
+    }
+
+    @Test
+    void schnorr() {
+        var defaultCache = SignatureCache.getDefault();
+        try {
+            var cache = new SignatureCache(1024);
+            SignatureCache.setDefault(cache);
+            var pubkey = Bytes.hexStringToByteArray("F9308A019258C31049344F85F89D5229B531C845836F99B08601F113BCE036F9");
+            var msg = new byte[32];
+            var sig = Bytes.hexStringToByteArray("E907831F80848D1069A5371B402410364BDF1C5F8307B0084C55F1CE2DCA821525F66A4A85EA8B71E482A74F382D2CE5EBEEE8FDB2172F477DF4900D310536C0");
+            assertTrue(Schnorr.verify(msg, pubkey, sig));
+            assertTrue(Schnorr.verify(msg, pubkey, sig));
+            assertEquals(1, cache.getHits());
+            sig[0] ^= 1;
+            assertFalse(Schnorr.verify(msg, pubkey, sig));
+            assertFalse(Schnorr.verify(msg, pubkey, sig));
+            assertEquals(1, cache.getHits());
+        } finally {
+            SignatureCache.setDefault(defaultCache);
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package ch.bitagent.bitcoin.lib.ecc;
 
 import ch.bitagent.bitcoin.lib.helper.Bytes;
+import ch.bitagent.bitcoin.lib.helper.Hash;
 import ch.bitagent.bitcoin.lib.wallet.Address;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertArrayEquals;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 class TaprootTest {
 
@@ -19,4 +23,53 @@ class TaprootTest {
         var bip350Address = Address.parse("bc1p2wsldez5mud2yam29q22wgfh9439spgduvct83k3pm50fcxa5dps59h4z5");
         assertEquals(scriptPubkey, bip350Address.scriptPubkey().toHex());
     }
-}
\ No newline at end of file
+
+    @Test
+    void tweakBatch() {
+        var h = Hash.sha256("merkle root".getBytes());
+        var pubkeys = new ArrayList<byte[]>();
+        for (var point : S256PointBatch.sequence(Int.parse(1000), 40)) {
+            pubkeys.add(Schnorr.getNumBytes(point.getX()));
+        }
+        var tweaked = Taproot.tweak(pubkeys, h);
+        assertEquals(pubkeys.size(), tweaked.size());
+        int odd = 0;
+        for (int i = 0; i < pubkeys.size(); i++) {
+            var pubkey = pubkeys.get(i);
+            // Q = lift_x(P) + hash_TapTweak(P || h) * G
+            var t = Hex.parse(Hash.taggedHash("TapTweak", Bytes.add(pubkey, h)));
+            var q = S256Point.liftX(Hex.parse(pubkey)).add(S256Point.getG().mul(t));
+            assertArrayEquals(Schnorr.getNumBytes(q.getX()), tweaked.get(i).getPubkey());
+            assertEquals(q.hasEvenY() ? 0 : 1, tweaked.get(i).getParity());
+            assertArrayEquals(tweaked.get(i).getPubkey(), Taproot.tweakPubkey(pubkey, h));
+            odd += tweaked.get(i).getParity();
+        }
+        // both parities occur, the even ones were empty before
+        assertTrue(odd > 0 && odd < pubkeys.size());
+        var streamed = Taproot.stream(pubkeys.stream(), h).parallel().collect(Collectors.toList());
+        for (int i = 0; i < pubkeys.size(); i++) {
+            assertArrayEquals(tweaked.get(i).getPubkey(), streamed.get(i).getPubkey());
+        }
+        assertTrue(Taproot.tweak(new ArrayList<>(), h).isEmpty());
+    }
+
+    @Test
+    void tweakStreamChunks() {
+        var points = S256PointBatch.sequence(Int.parse(1), Taproot.CHUNK + 3);
+        var pubkeys = Arrays.stream(points).map(p -> Schnorr.getNumBytes(p.getX())).collect(Collectors.toList());
+        var streamed = Taproot.stream(pubkeys.stream(), new byte[0]).collect(Collectors.toList());
+        assertEquals(pubkeys.size(), streamed.size());
+        var last = pubkeys.get(pubkeys.size() - 1);
+        assertArrayEquals(Taproot.tweakPubkey(last, new byte[0]), streamed.get(streamed.size() - 1).getPubkey());
+    }
+
+    @Test
+    void tweakInvalid() {
+        // x = 5 is not on the curve
+        var notOnCurve = new byte[32];
+        notOnCurve[31] = 5;
+        assertThrows(IllegalArgumentException.class, () -> Taproot.tweakPubkey(notOnCurve, new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> Taproot.tweakPubkey(S256Point.P.toBytes(32), new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> Taproot.tweakPubkey(new byte[33], new byte[0]));
+    }
+}
@@ -0,0 +1,117 @@
+package ch.bitagent.bitcoin.lib.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashTest {
+
+    @Test
+    void sha256() {
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", Bytes.byteArrayToHexString(Hash.sha256(new byte[0])));
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", Bytes.byteArrayToHexString(Hash.sha256("abc".getBytes())));
+    }
+
+    @Test
+    void sha1() {
+        assertEquals("a9993e364706816aba3e25717850c26c9cd0d89d", Bytes.byteArrayToHexString(Hash.sha1("abc".getBytes())));
+        assertEquals("da39a3ee5e6b4b0d3255bfef95601890afd80709", Bytes.byteArrayToHexString(Hash.sha1(new byte[0])));
+    }
+
+    @Test
+    void taggedHash() throws Exception {
+        var msg = "message".getBytes();
+        var tagHash = Hash.sha256("TapLeaf".getBytes());
+        var expected = Hash.sha256(Bytes.add(new byte[][]{tagHash, tagHash, msg}));
+        assertArrayEquals(expected, Hash.taggedHash("TapLeaf", msg));
+        assertArrayEquals(expected, Hash.taggedHash("TapLeaf", "mes".getBytes(), "sage".getBytes()));
+        // compiled callers of the two argument form still link
+        assertArrayEquals(expected, (byte[]) Hash.class.getMethod("taggedHash", String.class, byte[].class).invoke(null, "TapLeaf", msg));
+    }
+
+    @Test
+    void offsets() {
+        var random = new Random(23);
+        for (int len = 0; len < 200; len += 7) {
+            var in = new byte[5 + len + 3];
+            random.nextBytes(in);
+            var slice = Arrays.copyOfRange(in, 5, 5 + len);
+            var out = new byte[4 + 32];
+            Hash.sha256(in, 5, len, out, 4);
+            assertArrayEquals(Hash.sha256(slice), Arrays.copyOfRange(out, 4, 36));
+            Hash.hash256(in, 5, len, out, 4);
+            assertArrayEquals(Hash.hash256(slice), Arrays.copyOfRange(out, 4, 36));
+            Hash.hash160(in, 5, len, out, 4);
+            assertArrayEquals(Hash.hash160(slice), Arrays.copyOfRange(out, 4, 24));
+        }
+    }
+
+    @Test
+    void buffers() {
+        var random = new Random(32);
+        var bytes = new byte[100];
+        random.nextBytes(bytes);
+        var slice = Arrays.copyOfRange(bytes, 10, 90);
+        var direct = ByteBuffer.allocateDirect(100).put(bytes);
+        for (ByteBuffer in : new ByteBuffer[]{ByteBuffer.wrap(bytes), direct}) {
+            var out = ByteBuffer.allocate(32);
+            Hash.sha256(in.position(10).limit(90), out);
+            assertArrayEquals(Hash.sha256(slice), out.array());
+            assertEquals(90, in.position());
+            out.clear();
+            Hash.hash256(in.position(10).limit(90), out);
+            assertArrayEquals(Hash.hash256(slice), out.array());
+            out.clear();
+            Hash.hash160(in.position(10).limit(90), out);
+            assertEquals(20, out.position());
+            assertArrayEquals(Hash.hash160(slice), Arrays.copyOf(out.array(), 20));
+        }
+    }
+
+    @Test
+    void hmac() {
+        var key = "key".getBytes();
+        var msg = "The quick brown fox jumps over the lazy dog".getBytes();
+        assertEquals("f7bc83f430538424b13298e6aa6fb143ef4d59a14946175997479dbc2d1a3cd8", Bytes.byteArrayToHexString(Hash.hmacSha256(key, msg)));
+        assertEquals("b42af09057bac1e2d41708e48a902e09b5ff7f12ab428a4fe86653c73dd248fb82f948a549f7b791a5b41915ee4d1ec3935357e4e2317250d0372afa2ebeeb3a",
+                Bytes.byteArrayToHexString(Hash.hmacSha512(key, msg)));
+        var parts = Hash.hmacSha512(key, Arrays.copyOfRange(msg, 0, 10), Arrays.copyOfRange(msg, 10, msg.length));
+        assertArrayEquals(Hash.hmacS512Init(key).doFinal(msg), parts);
+        var out = new byte[70];
+        Hash.hmacSha512(key, msg, 0, msg.length, out, 6);
+        assertArrayEquals(parts, Arrays.copyOfRange(out, 6, 70));
+        // the thread local MAC takes the new key
+        assertArrayEquals(Hash.hmacS512Init("other".getBytes()).doFinal(msg), Hash.hmacSha512("other".getBytes(), msg));
+    }
+
+    @Test
+    void threads() throws Exception {
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var expected = Hash.hash256("bitcoin".getBytes());
+            var futures = new Future[16];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = executor.submit((Callable<Boolean>) () -> {
+                    for (int j = 0; j < 200; j++) {
+                        if (!Arrays.equals(expected, Hash.hash256("bitcoin".getBytes()))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                });
+            }
+            for (Future<?> future : futures) {
+                assertEquals(Boolean.TRUE, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ch.bitagent.bitcoin.lib.helper;
+
+import ch.bitagent.bitcoin.lib.ecc.Int;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Murmur3Test {
+
+    @Test
+    void hash32() {
+        // test vectors of bitcoin core
+        assertHash32(0x00000000, 0x00000000, "");
+        assertHash32(0x6a396f08, 0xfba4c795, "");
+        assertHash32(0x81f16f39, 0xffffffff, "");
+        assertHash32(0x514e28b7, 0x00000000, "00");
+        assertHash32(0xea3f0b17, 0xfba4c795, "00");
+        assertHash32(0xfd6cf10d, 0x00000000, "ff");
+        assertHash32(0x16c6b7ab, 0x00000000, "0011");
+        assertHash32(0x8eb51c3d, 0x00000000, "001122");
+        assertHash32(0xb4471bf8, 0x00000000, "00112233");
+        assertHash32(0xe2301fa8, 0x00000000, "0011223344");
+        assertHash32(0xfc2e4a15, 0x00000000, "001122334455");
+        assertHash32(0xb074502c, 0x00000000, "00112233445566");
+        assertHash32(0x8034d2a0, 0x00000000, "0011223344556677");
+        assertHash32(0xb4698def, 0x00000000, "001122334455667788");
+    }
+
+    @Test
+    void hash32Offset() {
+        var data = Bytes.hexStringToByteArray("aabb001122334455667788ccdd");
+        assertEquals(0xb4698def, Murmur3.hash32(data, 2, 9, 0));
+        assertEquals(0x16c6b7ab, Murmur3.hash32(data, 2, 2, 0));
+    }
+
+    @Test
+    void hash32Int() {
+        var hash = Murmur3.hash32(Bytes.hexStringToByteArray("ff"), Int.parse(0));
+        assertEquals(Int.parse(0xfd6cf10dL), hash);
+    }
+
+    private static void assertHash32(int expected, int seed, String hex) {
+        assertEquals(expected, Murmur3.hash32(Bytes.hexStringToByteArray(hex), seed));
+    }
+}
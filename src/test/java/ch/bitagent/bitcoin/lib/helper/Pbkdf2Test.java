@@ -0,0 +1,61 @@
+package ch.bitagent.bitcoin.lib.helper;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Pbkdf2Test {
+
+    @Test
+    void derive() {
+        assertEquals("867f70cf1ade02cff3752599a3a53dc4af34c7a669815ae5d513554e1c8cf252c02d470a285a0501bad999bfe943c08f050235d7d68b1da55e63f73b60a57fce",
+                Bytes.byteArrayToHexString(Pbkdf2.derive("password", "salt", 1, 64)));
+        assertEquals("e1d9c16aa681708a45f5c7c4e215ceb66e011a2e9f0040713f18aefdb866d53cf76cab2868a39b9f7840edce4fef5a82be67335c77a6068e04112754f27ccf4e",
+                Bytes.byteArrayToHexString(Pbkdf2.derive("password", "salt", 2, 64)));
+        assertEquals("d197b1b33db0143e018b12f3d1d1479e6cdebdcc97c5c0f87f6902e072f457b5143f30602641b3d55cd335988cb36b84376060ecd532e039b742a239434af2d5",
+                Bytes.byteArrayToHexString(Pbkdf2.derive("password", "salt", 4096, 64)));
+    }
+
+    @Test
+    void hmacSha512() throws Exception {
+        var factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA512");
+        var random = new Random(512);
+        // short and long passwords, salts across the block boundary and derived keys of several blocks
+        for (int passwordLength : new int[]{1, 20, 128, 129, 300}) {
+            for (int saltLength : new int[]{8, 107, 108, 200}) {
+                var password = new char[passwordLength];
+                for (int i = 0; i < passwordLength; i++) {
+                    password[i] = (char) ('a' + random.nextInt(26));
+                }
+                var salt = new byte[saltLength];
+                random.nextBytes(salt);
+                int dkLen = 1 + random.nextInt(150);
+                var expected = factory.generateSecret(new PBEKeySpec(password, salt, 3, dkLen * 8)).getEncoded();
+                assertArrayEquals(expected, Pbkdf2.hmacSha512(new String(password).getBytes(StandardCharsets.UTF_8), salt, 3, dkLen));
+            }
+        }
+    }
+
+    @Test
+    void hmacSha512Batch() {
+        var salt = "mnemonic".getBytes();
+        var passwords = List.of("a".getBytes(), "b".getBytes(), "c".getBytes());
+        var keys = Pbkdf2.hmacSha512(passwords, salt, 10, 64);
+        for (int i = 0; i < passwords.size(); i++) {
+            assertArrayEquals(Pbkdf2.hmacSha512(passwords.get(i), salt, 10, 64), keys.get(i));
+        }
+    }
+
+    @Test
+    void invalid() {
+        assertThrows(IllegalArgumentException.class, () -> Pbkdf2.derive("password", "salt", 0, 64));
+        assertThrows(IllegalArgumentException.class, () -> Pbkdf2.derive("password", "salt", 1, -1));
+        assertEquals(0, Pbkdf2.derive("password", "salt", 1, 0).length);
+    }
+}
@@ -0,0 +1,66 @@
+package ch.bitagent.bitcoin.lib.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class Ripemd160Test {
+
+    @Test
+    void getHash() {
+        assertEquals("9c1185a5c5e9fc54612808977ee8f548b2258d31", Bytes.byteArrayToHexString(Ripemd160.getHash(new byte[0])));
+        assertEquals("8eb208f7e05d987a9b044a8e98c6b087f15a0bfc", Bytes.byteArrayToHexString(Ripemd160.getHash("abc".getBytes())));
+        assertEquals("5d0689ef49d2fae572b881b123a85ffa21595f36", Bytes.byteArrayToHexString(Ripemd160.getHash("message digest".getBytes())));
+        var million = new byte[1000000];
+        Arrays.fill(million, (byte) 'a');
+        assertEquals("52783243c1697bdbe16d37f97f68f08325dc1528", Bytes.byteArrayToHexString(Ripemd160.getHash(million)));
+    }
+
+    @Test
+    void update() {
+        var random = new Random(160);
+        var ripemd160 = new Ripemd160();
+        var out = new byte[24];
+        for (int length : new int[]{0, 1, 55, 56, 63, 64, 65, 119, 120, 200}) {
+            var msg = new byte[length];
+            random.nextBytes(msg);
+            // in pieces of 1, 7 and 64 bytes
+            for (int off = 0, piece = 0; off < length; piece++) {
+                int n = Math.min(new int[]{1, 7, 64}[piece % 3], length - off);
+                ripemd160.update(msg, off, n);
+                off += n;
+            }
+            ripemd160.digest(out, 4);
+            assertArrayEquals(Ripemd160.getHash(msg), Arrays.copyOfRange(out, 4, 24));
+        }
+    }
+
+    @Test
+    void digest32() {
+        var random = new Random(32);
+        var ripemd160 = new Ripemd160();
+        var msg = new byte[40];
+        var out = new byte[20];
+        for (int i = 0; i < 20; i++) {
+            random.nextBytes(msg);
+            ripemd160.digest32(msg, 8, out, 0);
+            assertArrayEquals(Ripemd160.getHash(Arrays.copyOfRange(msg, 8, 40)), out);
+        }
+    }
+
+    @Test
+    void hash160() {
+        var random = new Random(33);
+        var sec = new byte[3 + 33];
+        random.nextBytes(sec);
+        var out = new byte[22];
+        Hash.hash160(sec, 3, 33, out, 2);
+        var want = Ripemd160.getHash(Hash.sha256(Arrays.copyOfRange(sec, 3, 36)));
+        assertArrayEquals(want, Arrays.copyOfRange(out, 2, 22));
+        assertArrayEquals(want, Hash.hash160(Arrays.copyOfRange(sec, 3, 36)));
+    }
+}
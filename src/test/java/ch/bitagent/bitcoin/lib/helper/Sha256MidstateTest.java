@@ -0,0 +1,42 @@
+package ch.bitagent.bitcoin.lib.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Sha256MidstateTest {
+
+    @Test
+    void tagged() {
+        var msg = Bytes.hexStringToByteArray("0102030405");
+        for (String tag : new String[]{"BIP0340/challenge", "TapTweak", "some/other tag"}) {
+            var tagHash = Hash.sha256(tag.getBytes());
+            var want = Hash.sha256(Bytes.add(new byte[][]{tagHash, tagHash, msg}));
+            assertArrayEquals(want, Hash.taggedHash(tag, msg));
+            // the parts of the message are hashed as one
+            assertArrayEquals(want, Hash.taggedHash(tag, new byte[]{1, 2}, new byte[0], new byte[]{3, 4, 5}));
+            assertSame(Sha256Midstate.tagged(tag), Sha256Midstate.tagged(tag));
+            assertEquals(64, Sha256Midstate.tagged(tag).getLength());
+        }
+    }
+
+    @Test
+    void header() {
+        var random = new Random(80);
+        var header = new byte[80];
+        random.nextBytes(header);
+        var midstate = Sha256Midstate.of(header, 0, 64);
+        var tail = Arrays.copyOfRange(header, 64, 80);
+        assertArrayEquals(Hash.sha256(header), midstate.hash(tail));
+        assertArrayEquals(Hash.hash256(header), midstate.hash256(tail));
+        // the midstate is not changed by hashing
+        assertArrayEquals(Hash.hash256(header), midstate.hash256(tail));
+        var extended = Sha256Midstate.of(new byte[0]).extend(Arrays.copyOf(header, 64));
+        assertArrayEquals(Hash.sha256(header), extended.hash(tail));
+        assertThrows(IllegalArgumentException.class, () -> Sha256Midstate.of(new byte[63]));
+        assertThrows(IllegalArgumentException.class, () -> midstate.extend(new byte[65]));
+    }
+}
@@ -0,0 +1,88 @@
+package ch.bitagent.bitcoin.lib.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Sha256Test {
+
+    @Test
+    void hash256Of64() {
+        var random = new Random(64);
+        for (int i = 0; i < 100; i++) {
+            var in = new byte[3 + 64 + 5];
+            random.nextBytes(in);
+            var out = new byte[40];
+            Sha256.hash256Of64(in, 3, out, 8);
+            assertArrayEquals(Hash.hash256(Arrays.copyOfRange(in, 3, 67)), Arrays.copyOfRange(out, 8, 40));
+        }
+    }
+
+    @Test
+    void hash256Halves() {
+        var random = new Random(32);
+        var left = new byte[32];
+        var right = new byte[40];
+        random.nextBytes(left);
+        random.nextBytes(right);
+        var out = new byte[32];
+        Sha256.hash256(left, 0, right, 8, out, 0);
+        assertArrayEquals(Hash.hash256(Bytes.add(left, Arrays.copyOfRange(right, 8, 40))), out);
+        // the output may overwrite an input
+        var want = Hash.hash256(Bytes.add(left, Arrays.copyOfRange(right, 8, 40)));
+        Sha256.hash256(left, 0, right, 8, left, 0);
+        assertArrayEquals(want, left);
+    }
+
+    @Test
+    void hash256Of80() {
+        // the genesis block header
+        var header = Bytes.hexStringToByteArray("0100000000000000000000000000000000000000000000000000000000000000000000003ba3edfd7a7b12b27ac72c3e67768f617fc81bc3888a51323a9fb8aa4b1e5e4a29ab5f49ffff001d1dac2b7c");
+        assertEquals(80, header.length);
+        var out = new byte[32];
+        Sha256.hash256Of80(header, 0, out, 0);
+        assertEquals("000000000019d6689c085ae165831e934ff763ae46a2a6c172b3f1b60a8ce26f", Bytes.byteArrayToHexString(Bytes.changeOrder(out)));
+        var random = new Random(80);
+        for (int i = 0; i < 100; i++) {
+            var in = new byte[80 + 7];
+            random.nextBytes(in);
+            Sha256.hash256Of80(in, 7, out, 0);
+            assertArrayEquals(Hash.hash256(Arrays.copyOfRange(in, 7, 87)), out);
+        }
+    }
+
+    @Test
+    void hash256Batch() {
+        var random = new Random(21);
+        for (int count : new int[]{0, 3, Sha256.PARALLEL + 1}) {
+            var inputs = new byte[count][];
+            for (int i = 0; i < count; i++) {
+                inputs[i] = new byte[new int[]{64, 80, 7}[i % 3]];
+                random.nextBytes(inputs[i]);
+            }
+            var outputs = Sha256.hash256(inputs);
+            assertEquals(count, outputs.length);
+            for (int i = 0; i < count; i++) {
+                assertArrayEquals(Hash.hash256(inputs[i]), outputs[i]);
+            }
+        }
+    }
+
+    @Test
+    void hash256Pairs() {
+        var random = new Random(42);
+        var hashes = new byte[2 * Sha256.PARALLEL + 2][32];
+        for (var hash : hashes) {
+            random.nextBytes(hash);
+        }
+        var parents = Sha256.hash256Pairs(hashes);
+        assertEquals(Sha256.PARALLEL + 1, parents.length);
+        for (int i = 0; i < parents.length; i++) {
+            assertArrayEquals(Hash.hash256(Bytes.add(hashes[2 * i], hashes[2 * i + 1])), parents[i]);
+        }
+        assertThrows(IllegalArgumentException.class, () -> Sha256.hash256Pairs(new byte[3][32]));
+    }
+}
@@ -112,4 +112,18 @@ class StratumTest {
 
         Stratum.socketClose(socket, writer, reader);
     }
-}
\ No newline at end of file
+
+    @Test
+    void hashBatch() {
+        var version = "20000000";
+        var prevhash = "00000000000000000000000000000000000000000000000000000000000000ab";
+        var merkleRoot = "4a5e1e4baab89f3a32518a88c31bc87f618f76673e2cc77ab2127b7afdeda33b";
+        var nbits = "1d00ffff";
+        var ntime = "495fab29";
+        var nonces = new String[]{"00000000", "7c2bac1d", "ffffffff"};
+        var hashes = Stratum.hash(version, prevhash, merkleRoot, nbits, ntime, nonces);
+        for (int i = 0; i < nonces.length; i++) {
+            assertEquals(Stratum.hash(version, prevhash, merkleRoot, nbits, ntime, nonces[i]), hashes[i]);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package ch.bitagent.bitcoin.lib.script;
 
 import ch.bitagent.bitcoin.lib.ecc.Hex;
+import ch.bitagent.bitcoin.lib.ecc.SignatureCache;
 import ch.bitagent.bitcoin.lib.helper.Bytes;
 import org.junit.jupiter.api.Test;
 
@@ -11,6 +12,11 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class OpTest {
 
+    private static final byte[] SIG1 = Bytes.hexStringToByteArray("3045022100dc92655fe37036f47756db8102e0d7d5e28b3beb83a8fef4f5dc0559bddfb94e02205a36d4e4e6c7fcd16658c50783e00c341609977aed3ad00937bf4ee942a8993701");
+    private static final byte[] SIG2 = Bytes.hexStringToByteArray("3045022100da6bee3c93766232079a01639d07fa869598749729ae323eab8eef53577d611b02207bef15429dcadce2121ea07f233115c6f09034c0be68db99980b9a6c5e75402201");
+    private static final byte[] SEC1 = Bytes.hexStringToByteArray("022626e955ea6ea6d98850c994f9107b036b1334f18ca8830bfff1295d21cfdb70");
+    private static final byte[] SEC2 = Bytes.hexStringToByteArray("03b287eaf122eea69030a0e9feed096bed8045c8b98bec453e1ffac7fbdbd4bb71");
+
     @Test
     void op169Hash160() {
         var stack = new ArrayDeque<byte[]>();
@@ -31,6 +37,22 @@ class OpTest {
         assertEquals(1, Op.decodeNum(stack.pop()));
     }
 
+    @Test
+    void op172ChecksigCached() {
+        var defaultCache = SignatureCache.getDefault();
+        try {
+            var cache = new SignatureCache(1024);
+            SignatureCache.setDefault(cache);
+            for (int i = 0; i < 3; i++) {
+                op172Checksig();
+            }
+            assertEquals(2, cache.getHits());
+            assertEquals(1, cache.getMisses());
+        } finally {
+            SignatureCache.setDefault(defaultCache);
+        }
+    }
+
     @Test
     void op174Checkmultisig() {
         var z = Hex.parse("e71bfa115715d6fd33796948126f40a8cdd39f187e4afb03896795189fe1423c");
@@ -49,4 +71,77 @@ class OpTest {
         assertTrue(Op.op174Checkmultisig(stack, z));
         assertEquals(1, Op.decodeNum(stack.pop()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void op174CheckmultisigWrongZ() {
+        var z = Hex.parse("e71bfa115715d6fd33796948126f40a8cdd39f187e4afb03896795189fe1423d");
+        var stack = new ArrayDeque<byte[]>();
+        stack.push(new byte[0]);
+        stack.push(SIG1);
+        stack.push(new byte[]{0x01});
+        stack.push(SEC1);
+        stack.push(new byte[]{0x01});
+        assertTrue(Op.op174Checkmultisig(stack, z));
+        assertEquals(0, Op.decodeNum(stack.pop()));
+
+        stack = new ArrayDeque<>();
+        stack.push(new byte[0]);
+        stack.push(SIG1);
+        stack.push(SIG2);
+        stack.push(new byte[]{0x02});
+        stack.push(SEC1);
+        stack.push(SEC2);
+        stack.push(new byte[]{0x02});
+        assertTrue(Op.op174Checkmultisig(stack, z));
+        assertEquals(0, Op.decodeNum(stack.pop()));
+    }
+
+    @Test
+    void op174CheckmultisigWrongOrder() {
+        var z = Hex.parse("e71bfa115715d6fd33796948126f40a8cdd39f187e4afb03896795189fe1423c");
+        var stack = new ArrayDeque<byte[]>();
+        stack.push(new byte[0]);
+        stack.push(SIG1);
+        stack.push(SIG2);
+        stack.push(new byte[]{0x02});
+        stack.push(SEC2);
+        stack.push(SEC1);
+        stack.push(new byte[]{0x02});
+        // sig2 uses up both keys, none is left for sig1
+        assertTrue(Op.op174Checkmultisig(stack, z));
+        assertEquals(0, Op.decodeNum(stack.pop()));
+
+        stack = new ArrayDeque<>();
+        stack.push(new byte[0]);
+        stack.push(SIG2);
+        stack.push(new byte[]{0x01});
+        stack.push(SEC1);
+        stack.push(new byte[]{0x01});
+        assertTrue(Op.op174Checkmultisig(stack, z));
+        assertEquals(0, Op.decodeNum(stack.pop()));
+    }
+
+    @Test
+    void op174CheckmultisigCacheFirst() {
+        var z = Hex.parse("e71bfa115715d6fd33796948126f40a8cdd39f187e4afb03896795189fe1423c");
+        // neither parses, a cache hit must not touch them
+        var sec = new byte[]{0x05, 0x01};
+        var der = new byte[]{0x07};
+        var previous = SignatureCache.getDefault();
+        try {
+            var cache = new SignatureCache(16);
+            SignatureCache.setDefault(cache);
+            cache.add(z.toBytes(32), sec, der);
+            var stack = new ArrayDeque<byte[]>();
+            stack.push(new byte[0]);
+            stack.push(new byte[]{0x07, 0x01});
+            stack.push(new byte[]{0x01});
+            stack.push(sec);
+            stack.push(new byte[]{0x01});
+            assertTrue(Op.op174Checkmultisig(stack, z));
+            assertEquals(1, Op.decodeNum(stack.pop()));
+        } finally {
+            SignatureCache.setDefault(previous);
+        }
+    }
+}
@@ -5,10 +5,15 @@ import ch.bitagent.bitcoin.lib.ecc.Int;
 import ch.bitagent.bitcoin.lib.ecc.PrivateKey;
 import ch.bitagent.bitcoin.lib.helper.Bytes;
 import ch.bitagent.bitcoin.lib.network.Electrum;
+import ch.bitagent.bitcoin.lib.script.Script;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Logger;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -159,6 +164,48 @@ class TxTest {
         assertTrue(tx.verify(cache));
     }
 
+    @Test
+    void verifyParallel() {
+        var privateKey = new PrivateKey(Int.parse(8675309));
+        var scriptPubkey = Script.p2pkhScript(privateKey.getPoint().hash160(true));
+        var prevOuts = new ArrayList<TxOut>();
+        for (int i = 0; i < 8; i++) {
+            prevOuts.add(new TxOut(Int.parse(100000), scriptPubkey));
+        }
+        var prevIns = List.of(new TxIn(Hex.parse("01"), Int.parse(0), null, Int.parse(0xffffffffL)));
+        var prevTx = new Tx(Int.parse(1), prevIns, prevOuts, Int.parse(0), true, false);
+        Map<String, String> cache = new HashMap<>();
+        cache.put(prevTx.id(), prevTx.hexString());
+
+        var txIns = new ArrayList<TxIn>();
+        for (int i = 0; i < prevOuts.size(); i++) {
+            txIns.add(new TxIn(Hex.parse(prevTx.id()), Int.parse(i), null, Int.parse(0xffffffffL)));
+        }
+        var txOuts = List.of(new TxOut(Int.parse(700000), scriptPubkey));
+        var tx = new Tx(Int.parse(1), txIns, txOuts, Int.parse(0), true, false);
+        for (int i = 0; i < txIns.size(); i++) {
+            assertTrue(tx.signInput(i, privateKey, cache));
+        }
+        assertTrue(tx.verify(cache));
+        assertTrue(tx.verify(cache, ForkJoinPool.commonPool()));
+        assertEquals(-1, tx.findInvalidInput(cache, ForkJoinPool.commonPool()));
+
+        txIns.get(5).setScriptSig(txIns.get(4).getScriptSig());
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            assertFalse(tx.verify(cache, executor));
+            assertEquals(5, tx.findInvalidInput(cache, executor));
+            // several invalid inputs, the first one is reported on every run
+            txIns.get(2).setScriptSig(txIns.get(1).getScriptSig());
+            txIns.get(7).setScriptSig(txIns.get(6).getScriptSig());
+            for (int run = 0; run < 20; run++) {
+                assertEquals(2, tx.findInvalidInput(cache, executor));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     void signInput() {
         var privateKey = new PrivateKey(Int.parse(8675309));
@@ -1,10 +1,16 @@
 package ch.bitagent.bitcoin.lib.wallet;
 
+import ch.bitagent.bitcoin.lib.ecc.Int;
 import ch.bitagent.bitcoin.lib.ecc.PrivateKey;
+import ch.bitagent.bitcoin.lib.ecc.PublicKeyCache;
+import ch.bitagent.bitcoin.lib.ecc.S256Point;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 class MessageTest {
 
@@ -66,4 +72,52 @@ class MessageTest {
         assertEquals("IEt/v9K95YVFuRtRtWaabPVwWOFv1FSA/e874I8ABgYMbRyVvHhSwLFz0RZuO87ukxDd4TOsRdofQwMEA90LCgI=", signature);
         assertTrue(Message.verify(pubkey, signature, message, false));
     }
-}
\ No newline at end of file
+
+    @Test
+    void verifyBatch() {
+        var publicKeys = new ArrayList<S256Point>();
+        var signatures = new ArrayList<String>();
+        var messages = new ArrayList<String>();
+        for (int i = 0; i < 16; i++) {
+            var privkey = new PrivateKey(Int.parse(1000 + i));
+            var message = "proof of ownership " + i;
+            publicKeys.add(privkey.getPoint());
+            signatures.add(Message.sign(privkey, message, i % 2 == 0 ? Address.P2PKH : Address.BECH32, false));
+            messages.add(message);
+        }
+        var valid = Message.verify(publicKeys, signatures, messages, false, ForkJoinPool.commonPool());
+        for (boolean v : valid) {
+            assertTrue(v);
+        }
+
+        // another message, another key and a truncated signature
+        messages.set(3, "something else");
+        publicKeys.set(7, publicKeys.get(8));
+        signatures.set(11, "AAAA");
+        valid = Message.verify(publicKeys, signatures, messages, false, ForkJoinPool.commonPool());
+        for (int i = 0; i < valid.length; i++) {
+            assertEquals(i != 3 && i != 7 && i != 11, valid[i]);
+        }
+
+        var pool = ForkJoinPool.commonPool();
+        var single = List.of("");
+        assertThrows(IllegalArgumentException.class, () -> Message.verify(List.of(), single, single, false, pool));
+    }
+
+    @Test
+    void verifyLeavesKeyCache() {
+        var privkey = new PrivateKey(Int.parse(4711));
+        var signature = Message.sign(privkey, "nonce", Address.P2PKH, false);
+        var previous = PublicKeyCache.getDefault();
+        try {
+            var cache = new PublicKeyCache(16);
+            PublicKeyCache.setDefault(cache);
+            var valid = Message.verify(List.of(privkey.getPoint()), List.of(signature), List.of("nonce"), false, ForkJoinPool.commonPool());
+            assertTrue(valid[0]);
+            // the recovered R is used once, it is not cached
+            assertEquals(0, cache.size());
+        } finally {
+            PublicKeyCache.setDefault(previous);
+        }
+    }
+}
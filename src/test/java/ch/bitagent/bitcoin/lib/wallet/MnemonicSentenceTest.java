@@ -3,6 +3,8 @@ package ch.bitagent.bitcoin.lib.wallet;
 import ch.bitagent.bitcoin.lib.helper.Bytes;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class MnemonicSentenceTest {
@@ -208,4 +210,19 @@ class MnemonicSentenceTest {
         assertFalse(MnemonicSentence.isSentenceValid("abandon abandon"));
         assertTrue(MnemonicSentence.isSentenceValid("abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void mnemonicToSeedBatch() {
+        var mnemonics = List.of(
+                "abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon about",
+                "legal winner thank year wave sausage worth useful legal winner thank yellow",
+                "letter advice cage absurd amount doctor acoustic avoid letter advice cage above");
+        var seeds = MnemonicSentence.mnemonicToSeed(mnemonics, "TREZOR");
+        assertEquals(3, seeds.size());
+        assertEquals("c55257c360c07c72029aebc1b53c05ed0362ada38ead3e3e9efa3708e53495531f09a6987599d18264c1e1c92f2cf141630c7a3c4ab7c81b2f001698e7463b04", Bytes.byteArrayToHexString(seeds.get(0)));
+        assertEquals("2e8905819b8723fe2c1d161860e5ee1830318dbf49a83bd451cfb8440c28bd6fa457fe1296106559a3c80937a1c1069be3a3a5bd381ee6260e8d9739fce1f607", Bytes.byteArrayToHexString(seeds.get(1)));
+        assertEquals("d71de856f81a8acc65e6fc851a38d4d7ec216fd0796d0a6827a3ad6ed5511a30fa280f12eb2e47ed2ac03b5c462a0358d18d69fe4f985ec81778c1b370b652a8", Bytes.byteArrayToHexString(seeds.get(2)));
+        assertTrue(MnemonicSentence.mnemonicToSeed(List.of(), "TREZOR").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> MnemonicSentence.mnemonicToSeed(List.of("abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon abando"), null));
+    }
+}
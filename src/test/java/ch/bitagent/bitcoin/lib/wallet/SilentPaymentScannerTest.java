@@ -0,0 +1,195 @@
+package ch.bitagent.bitcoin.lib.wallet;
+
+import ch.bitagent.bitcoin.lib.ecc.Hex;
+import ch.bitagent.bitcoin.lib.ecc.Int;
+import ch.bitagent.bitcoin.lib.ecc.PrivateKey;
+import ch.bitagent.bitcoin.lib.ecc.PublicKeyCache;
+import ch.bitagent.bitcoin.lib.ecc.S256Point;
+import ch.bitagent.bitcoin.lib.ecc.Schnorr;
+import ch.bitagent.bitcoin.lib.helper.Bech32;
+import ch.bitagent.bitcoin.lib.helper.Bytes;
+import ch.bitagent.bitcoin.lib.helper.Hash;
+import ch.bitagent.bitcoin.lib.script.Script;
+import ch.bitagent.bitcoin.lib.tx.Tx;
+import ch.bitagent.bitcoin.lib.tx.TxIn;
+import ch.bitagent.bitcoin.lib.tx.TxOut;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SilentPaymentScannerTest {
+
+    private static final byte[] SCAN_SECRET = Int.parse(1111).toBytes(32);
+    private static final Int SPEND_SECRET = Int.parse(2222);
+
+    @Test
+    void address() {
+        var scanner = new SilentPaymentScanner(SCAN_SECRET, new PrivateKey(SPEND_SECRET).getPoint().sec(true));
+        var address = scanner.getAddress(false);
+        assertTrue(address.startsWith("sp1q"));
+        assertTrue(scanner.getAddress(true).startsWith("tsp1q"));
+        var data = Bech32.decode(address).getDataBytes();
+        assertEquals(0, data[0]);
+        var keys = Bech32.five2eight(Arrays.copyOfRange(data, 1, data.length));
+        assertArrayEquals(Bytes.add(new PrivateKey(Hex.parse(SCAN_SECRET)).getPoint().sec(true), new PrivateKey(SPEND_SECRET).getPoint().sec(true)), keys);
+        assertNotEquals(address, scanner.getAddress(1, false));
+    }
+
+    @Test
+    void scan() {
+        var spendPubkey = new PrivateKey(SPEND_SECRET).getPoint();
+        var scanner = new SilentPaymentScanner(SCAN_SECRET, spendPubkey.sec(true), 1, 7);
+        var scanPubkey = new PrivateKey(Hex.parse(SCAN_SECRET)).getPoint();
+        var labelSpend = scanner.getAddress(7, false);
+        var candidates = new ArrayList<SilentPaymentScanner.Candidate>();
+        for (int i = 0; i < 12; i++) {
+            // two payments, one of them labeled, and change in every third transaction
+            var inputSecrets = List.of(Int.parse(100L + i), Int.parse(200L + i));
+            var outputs = new ArrayList<byte[]>();
+            if (i % 3 == 0) {
+                outputs.add(pay(inputSecrets, i, scanPubkey, spendPubkey, 0));
+                outputs.add(pay(inputSecrets, i, scanPubkey, labeled(labelSpend), 1));
+            }
+            outputs.add(new PrivateKey(Int.parse(300L + i)).getPoint().sec(true));
+            candidates.add(candidate(inputSecrets, i, outputs));
+        }
+        var matches = scanner.scan(candidates.stream(), ForkJoinPool.commonPool());
+        assertEquals(8, matches.size());
+        for (int j = 0; j < matches.size(); j++) {
+            var match = matches.get(j);
+            assertSame(candidates.get(3 * (j / 2)).getTx(), match.getTx());
+            assertEquals(j % 2, match.getOutputIndex());
+            assertEquals(j % 2 == 0 ? null : 7, match.getLabel());
+            // the tweaked spend key owns the output
+            var secret = SPEND_SECRET.add(Hex.parse(match.getTweak())).mod(S256Point.N);
+            var output = match.getTx().getTxOuts().get(match.getOutputIndex()).getScriptPubkey().getCmds().get(1).getElement();
+            assertArrayEquals(output, Schnorr.getNumBytes(new PrivateKey(secret).getPoint().getX()));
+        }
+        var other = new SilentPaymentScanner(Int.parse(1112).toBytes(32), spendPubkey.sec(true));
+        assertTrue(other.scan(candidates.get(0)).isEmpty());
+    }
+
+    @Test
+    void scanLeavesKeyCache() {
+        var spendPubkey = new PrivateKey(SPEND_SECRET).getPoint();
+        var scanner = new SilentPaymentScanner(SCAN_SECRET, spendPubkey.sec(true), 1, 7);
+        var scanPubkey = new PrivateKey(Hex.parse(SCAN_SECRET)).getPoint();
+        var inputSecrets = List.of(Int.parse(100), Int.parse(200));
+        var outputs = new ArrayList<byte[]>();
+        outputs.add(new PrivateKey(Int.parse(300)).getPoint().sec(true));
+        outputs.add(pay(inputSecrets, 0, scanPubkey, labeled(scanner.getAddress(1, false)), 0));
+        var candidate = candidate(inputSecrets, 0, outputs);
+        var previous = PublicKeyCache.getDefault();
+        try {
+            var cache = new PublicKeyCache(64);
+            PublicKeyCache.setDefault(cache);
+            var matches = scanner.scan(candidate);
+            assertEquals(1, matches.size());
+            assertEquals(1, matches.get(0).getOutputIndex());
+            assertEquals(1, matches.get(0).getLabel());
+            // the input and output keys are used once, they are not cached
+            assertEquals(0, cache.size());
+        } finally {
+            PublicKeyCache.setDefault(previous);
+        }
+    }
+
+    /**
+     * Cases of the BIP352 send_and_receive_test_vectors.json, the inputs are P2PKH with compressed keys
+     */
+    private static final String VECTOR_SCAN_SECRET = "0f694e068028a717f8af6b9411f9a133dd3565258714cc226594b34db90c1f2c";
+    private static final String VECTOR_SPEND_SECRET = "9d6ad855ce3417ef84e836892e5a56392bfba05fa5d97ccea30e266f540e08b3";
+    private static final String VECTOR_ADDRESS = "sp1qqgste7k9hx0qftg6qmwlkqtwuy6cycyavzmzj85c6qdfhjdpdjtdgqjuexzk6murw56suy3e0rd2cgqvycxttddwsvgxe2usfpxumr70xc9pkqwv";
+    private static final String VECTOR_TXID_1 = "f4184fc596403b9d638783cf57adfe4c75c605f6356fbc91338530e9831e9e16";
+    private static final String VECTOR_TXID_2 = "a1075db55d416d3ca199f55b6084e2115b9345e16c5cf302fc80e9d5fbf5d48d";
+    private static final String VECTOR_INPUT_SECRET_1 = "eadc78165ff1f8ea94ad7cfdc54990738a4c53f6e0507b42154201b8e5dff3b1";
+    private static final String VECTOR_INPUT_SECRET_2 = "93f5ed907ad5b2bdbbdcb5d9116ebc0a4e1f92f910d5260237fa45a9408aad16";
+
+    @Test
+    void bip352Vectors() {
+        var spendPubkey = new PrivateKey(Hex.parse(VECTOR_SPEND_SECRET)).getPoint().sec(true);
+        var scanner = new SilentPaymentScanner(Bytes.hexStringToByteArray(VECTOR_SCAN_SECRET), spendPubkey);
+        assertEquals(VECTOR_ADDRESS, scanner.getAddress(false));
+        // a scanner with labels still finds the outputs without label
+        var labeledScanner = new SilentPaymentScanner(Bytes.hexStringToByteArray(VECTOR_SCAN_SECRET), spendPubkey, 2, 3, 1001337);
+
+        // Simple send: two inputs
+        var simple = vectorCandidate(VECTOR_TXID_1, 0, VECTOR_TXID_2, 0, "3e9fce73d4e77a4809908e3c3a2e54ee147b9312dc5044a193d1fc85de46e3c1");
+        assertVectorMatch(scanner.scan(simple), "f438b40179a3c4262de12986c0e6cce0634007cdc79c1dcd3e20b9ebc2e7eef6");
+        assertVectorMatch(labeledScanner.scan(simple), "f438b40179a3c4262de12986c0e6cce0634007cdc79c1dcd3e20b9ebc2e7eef6");
+
+        // Simple send: two inputs, order reversed
+        var reversed = vectorCandidate(VECTOR_TXID_2, 0, VECTOR_TXID_1, 0, "3e9fce73d4e77a4809908e3c3a2e54ee147b9312dc5044a193d1fc85de46e3c1");
+        assertVectorMatch(scanner.scan(reversed), "f438b40179a3c4262de12986c0e6cce0634007cdc79c1dcd3e20b9ebc2e7eef6");
+
+        // Simple send: two inputs from the same transaction
+        var sameTx = vectorCandidate(VECTOR_TXID_1, 3, VECTOR_TXID_1, 7, "79e71baa2ba3fc66396de3a04f168c7bf24d6870ec88ca877754790c1db357b6");
+        assertVectorMatch(scanner.scan(sameTx), "4851455bfbe1ab4f80156570aa45063201aa5c9e1b1dcd29f0f8c33d10bf77ae");
+        assertVectorMatch(labeledScanner.scan(sameTx), "4851455bfbe1ab4f80156570aa45063201aa5c9e1b1dcd29f0f8c33d10bf77ae");
+    }
+
+    private static SilentPaymentScanner.Candidate vectorCandidate(String txid1, int vout1, String txid2, int vout2, String output) {
+        var txIns = new ArrayList<TxIn>();
+        txIns.add(new TxIn(Hex.parse(txid1), Int.parse(vout1), new Script(null), null));
+        txIns.add(new TxIn(Hex.parse(txid2), Int.parse(vout2), new Script(null), null));
+        var txOuts = new ArrayList<TxOut>();
+        txOuts.add(new TxOut(Int.parse(1000), Script.p2trScript(Bytes.hexStringToByteArray(output))));
+        var pubkeys = List.of(
+                new PrivateKey(Hex.parse(VECTOR_INPUT_SECRET_1)).getPoint().sec(true),
+                new PrivateKey(Hex.parse(VECTOR_INPUT_SECRET_2)).getPoint().sec(true));
+        return new SilentPaymentScanner.Candidate(new Tx(Int.parse(2), txIns, txOuts, Int.parse(0), false, true), pubkeys);
+    }
+
+    private static void assertVectorMatch(List<SilentPaymentScanner.Match> matches, String tweak) {
+        assertEquals(1, matches.size());
+        assertEquals(0, matches.get(0).getOutputIndex());
+        assertNull(matches.get(0).getLabel());
+        assertEquals(tweak, Bytes.byteArrayToHexString(matches.get(0).getTweak()));
+    }
+
+    private static S256Point labeled(String address) {
+        var data = Bech32.decode(address).getDataBytes();
+        var keys = Bech32.five2eight(Arrays.copyOfRange(data, 1, data.length));
+        return S256Point.parse(Arrays.copyOfRange(keys, 33, 66));
+    }
+
+    /**
+     * The x-only output key of the sender for output k, with the sum of the input secrets.
+     */
+    private static byte[] pay(List<Int> inputSecrets, int txIndex, S256Point scanPubkey, S256Point spendPubkey, int k) {
+        var a = Int.parse(0);
+        var sumA = new S256Point(null, null);
+        for (var secret : inputSecrets) {
+            a = a.add(secret).mod(S256Point.N);
+            sumA = sumA.add(new PrivateKey(secret).getPoint());
+        }
+        var inputHash = Hex.parse(Hash.taggedHash("BIP0352/Inputs", Bytes.add(outpoint(txIndex, 0), sumA.sec(true))));
+        var shared = scanPubkey.mul(inputHash.mul(a).mod(S256Point.N)).sec(true);
+        var t = Hex.parse(Hash.taggedHash("BIP0352/SharedSecret", Bytes.add(shared, ByteBuffer.allocate(4).putInt(k).array())));
+        return Schnorr.getNumBytes(S256Point.getG().mul(t).add(spendPubkey).getX());
+    }
+
+    private static byte[] outpoint(int txIndex, int vout) {
+        return Bytes.add(Int.parse(1000L + txIndex).toBytesLittleEndian(32), Int.parse(vout).toBytesLittleEndian(4));
+    }
+
+    private static SilentPaymentScanner.Candidate candidate(List<Int> inputSecrets, int txIndex, List<byte[]> outputs) {
+        var txIns = new ArrayList<TxIn>();
+        var pubkeys = new ArrayList<byte[]>();
+        for (int vout = inputSecrets.size() - 1; vout >= 0; vout--) {
+            txIns.add(new TxIn(Int.parse(1000L + txIndex), Int.parse(vout), new Script(null), null));
+            pubkeys.add(new PrivateKey(inputSecrets.get(vout)).getPoint().sec(true));
+        }
+        var txOuts = new ArrayList<TxOut>();
+        for (var output : outputs) {
+            txOuts.add(new TxOut(Int.parse(1000), output.length == 32 ? Script.p2trScript(output) : Script.p2pkhScript(Hash.hash160(output))));
+        }
+        return new SilentPaymentScanner.Candidate(new Tx(Int.parse(2), txIns, txOuts, Int.parse(0), false, true), pubkeys);
+    }
+}